@@ -0,0 +1,209 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+// a fully parsed catalog, never modified after it is built so it can be handed between threads. the only things
+// filled in later are the range indexes, each set once atomically the first time it is asked for.
+// a reload is built from a fresh parse, but the name indexes, stat columns and range indexes are taken over from
+// the previous catalog wherever the diff says they still hold. the facets are filled by the parse itself
+public class Catalog {
+    public static final Catalog EMPTY = new Catalog(0, new ItemCatalogBuilder(), new CharmCatalogBuilder(), false, null);
+
+    public final int version;
+    // changes since the catalog this one replaced
+    public final CatalogDiff diff;
+
+    private final List<DictionaryItem> items;
+    private final ItemNameIndex itemNameIndex;
+    private final TrigramIndex itemNameSearchIndex;
+    private final FacetDictionary allItemTypes;
+    private final FacetDictionary allItemRegions;
+    private final FacetDictionary allItemTiers;
+    private final FacetDictionary allItemLocations;
+    private final FacetDictionary allItemStats;
+    private final FacetDictionary allItemBaseItems;
+    private final StatStore itemStats;
+
+    private final List<DictionaryCharm> charms;
+    private final TrigramIndex charmNameSearchIndex;
+    private final FacetDictionary allCharmRegions;
+    private final FacetDictionary allCharmTiers;
+    private final FacetDictionary allCharmLocations;
+    private final FacetDictionary allCharmSkillMods;
+    private final FacetDictionary allCharmClasses;
+    private final FacetDictionary allCharmStats;
+    private final FacetDictionary allCharmBaseItems;
+    private final StatStore charmStats;
+    private final AtomicReference<RangeIndex> charmPowerIndex = new AtomicReference<>(); // built the first time charm power is range filtered
+
+    private final boolean itemLoadFailed;
+    private final boolean charmLoadFailed;
+
+    public Catalog(int version, ItemCatalogBuilder itemBuilder, CharmCatalogBuilder charmBuilder, boolean readFailed, Catalog previous) {
+        this.version = version;
+
+        ArrayList<DictionaryItem> builtItems = itemBuilder.build();
+        ArrayList<DictionaryCharm> builtCharms = charmBuilder.build();
+        diff = CatalogDiff.compute(previous, builtItems, builtCharms, itemBuilder.getNameIndex());
+
+        items = Collections.unmodifiableList(builtItems);
+        itemNameIndex = itemBuilder.getNameIndex();
+        itemNameSearchIndex = nameSearchIndex(items, previous == null ? null : previous.items, item -> item.name,
+                previous == null ? null : previous.itemNameSearchIndex);
+        allItemTypes = itemBuilder.getAllItemTypes();
+        allItemRegions = itemBuilder.getAllItemRegions();
+        allItemTiers = itemBuilder.getAllItemTiers();
+        allItemLocations = itemBuilder.getAllItemLocations();
+        allItemStats = itemBuilder.getAllItemStats();
+        allItemBaseItems = itemBuilder.getAllItemBaseItems();
+        itemStats = StatStore.ofItems(builtItems, allItemStats, previous == null ? null : previous.items, previous == null ? null : previous.itemStats);
+
+        charms = Collections.unmodifiableList(builtCharms);
+        charmNameSearchIndex = nameSearchIndex(charms, previous == null ? null : previous.charms, charm -> charm.name,
+                previous == null ? null : previous.charmNameSearchIndex);
+        allCharmRegions = charmBuilder.getAllCharmRegions();
+        allCharmTiers = charmBuilder.getAllCharmTiers();
+        allCharmLocations = charmBuilder.getAllCharmLocations();
+        allCharmSkillMods = charmBuilder.getAllCharmSkillMods();
+        allCharmClasses = charmBuilder.getAllCharmClasses();
+        allCharmStats = charmBuilder.getAllCharmStats();
+        allCharmBaseItems = charmBuilder.getAllCharmBaseItems();
+        charmStats = StatStore.ofCharms(builtCharms, allCharmStats, previous == null ? null : previous.charms, previous == null ? null : previous.charmStats);
+        if (previous != null && samePowers(charms, previous.charms))
+            charmPowerIndex.set(previous.charmPowerIndex.get()); // still null if it was never built
+
+        itemLoadFailed = readFailed || itemBuilder.hasFailed();
+        charmLoadFailed = readFailed || charmBuilder.hasFailed();
+    }
+
+    // the previous index when every name is the same as before at the same ordinal. a changed entry keeps its name,
+    // so that's any reload that only changed entries
+    private static <T> TrigramIndex nameSearchIndex(List<T> entries, List<T> previousEntries, Function<T, String> name, TrigramIndex previous) {
+        if (previous != null && previousEntries.size() == entries.size()) {
+            boolean same = true;
+            for (int ordinal = 0; ordinal < entries.size() && same; ordinal++) {
+                T entry = entries.get(ordinal);
+                T previousEntry = previousEntries.get(ordinal);
+                same = entry == previousEntry || name.apply(entry).equals(name.apply(previousEntry));
+            }
+            if (same) return previous;
+        }
+        return new TrigramIndex(entries.stream().map(name).toList());
+    }
+
+    private static boolean samePowers(List<DictionaryCharm> charms, List<DictionaryCharm> previousCharms) {
+        if (charms.size() != previousCharms.size()) return false;
+        for (int ordinal = 0; ordinal < charms.size(); ordinal++) {
+            if (charms.get(ordinal).power != previousCharms.get(ordinal).power) return false;
+        }
+        return true;
+    }
+
+    public List<DictionaryItem> getItems() {
+        return items;
+    }
+
+    public ItemNameIndex getItemNameIndex() {
+        return itemNameIndex;
+    }
+
+    public TrigramIndex getItemNameSearchIndex() {
+        return itemNameSearchIndex;
+    }
+
+    public StatStore getItemStats() {
+        return itemStats;
+    }
+
+    public List<DictionaryCharm> getCharms() {
+        return charms;
+    }
+
+    public TrigramIndex getCharmNameSearchIndex() {
+        return charmNameSearchIndex;
+    }
+
+    public StatStore getCharmStats() {
+        return charmStats;
+    }
+
+    public RangeIndex getCharmPowerIndex() {
+        RangeIndex index = charmPowerIndex.get();
+        if (index == null) {
+            double[] powers = new double[charms.size()];
+            for (int ordinal = 0; ordinal < powers.length; ordinal++) {
+                powers[ordinal] = charms.get(ordinal).power;
+            }
+            charmPowerIndex.compareAndSet(null, new RangeIndex(powers));
+            index = charmPowerIndex.get();
+        }
+        return index;
+    }
+
+    public boolean itemLoadFailed() {
+        return itemLoadFailed;
+    }
+
+    public boolean charmLoadFailed() {
+        return charmLoadFailed;
+    }
+
+    public FacetDictionary getAllItemTypes() {
+        return allItemTypes;
+    }
+
+    public FacetDictionary getAllItemRegions() {
+        return allItemRegions;
+    }
+
+    public FacetDictionary getAllItemTiers() {
+        return allItemTiers;
+    }
+
+    public FacetDictionary getAllItemLocations() {
+        return allItemLocations;
+    }
+
+    public FacetDictionary getAllItemStats() {
+        return allItemStats;
+    }
+
+    public FacetDictionary getAllItemBaseItems() {
+        return allItemBaseItems;
+    }
+
+    public FacetDictionary getAllCharmRegions() {
+        return allCharmRegions;
+    }
+
+    public FacetDictionary getAllCharmTiers() {
+        return allCharmTiers;
+    }
+
+    public FacetDictionary getAllCharmLocations() {
+        return allCharmLocations;
+    }
+
+    public FacetDictionary getAllCharmSkillMods() {
+        return allCharmSkillMods;
+    }
+
+    public FacetDictionary getAllCharmClasses() {
+        return allCharmClasses;
+    }
+
+    public FacetDictionary getAllCharmStats() {
+        return allCharmStats;
+    }
+
+    public FacetDictionary getAllCharmBaseItems() {
+        return allCharmBaseItems;
+    }
+}
@@ -0,0 +1,289 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.CharmStat;
+import dev.eliux.monumentaitemdictionary.util.ItemStat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// binary copy of an already built catalog, so a launch with an unchanged items.json skips json parsing entirely.
+// layout: header, facet values, items, charms, string table, the string table's offset. every string is stored once
+// and referenced by index. the table goes last so the file can be written in one pass, the reader seeks to it first
+public class CatalogCache {
+    private static final int MAGIC = 0x4D494443; // "MIDC"
+    private static final int FORMAT_VERSION = 2; // bump whenever the layout below changes
+    private static final int HEADER_SIZE = 16;
+
+    public static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    // returns null when there is no cache or it was made from a different items.json
+    public static Catalog read(Path cacheFile, long checksum, int version, Catalog previous) throws IOException {
+        if (!Files.exists(cacheFile)) return null;
+
+        try (SeekableByteChannel channel = Files.newByteChannel(cacheFile)) {
+            if (channel.size() < HEADER_SIZE + 8) return null;
+            DataInputStream header = streamFrom(channel, 0);
+            if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION || header.readLong() != checksum)
+                return null;
+
+            // a cut off file has anything as its last eight bytes, don't let that allocate a huge table
+            long tableOffset = streamFrom(channel, channel.size() - 8).readLong();
+            if (tableOffset < HEADER_SIZE || tableOffset > channel.size() - 12) return null;
+            DataInputStream table = streamFrom(channel, tableOffset);
+            int stringCount = table.readInt();
+            if (stringCount < 0 || stringCount > (channel.size() - tableOffset) / 4) return null;
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[table.readInt()];
+                table.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            DataInputStream in = streamFrom(channel, HEADER_SIZE);
+
+            ItemCatalogBuilder itemBuilder = new ItemCatalogBuilder();
+            CharmCatalogBuilder charmBuilder = new CharmCatalogBuilder();
+
+            readFacet(in, strings, itemBuilder.getAllItemTypes());
+            readFacet(in, strings, itemBuilder.getAllItemRegions());
+            readFacet(in, strings, itemBuilder.getAllItemTiers());
+            readFacet(in, strings, itemBuilder.getAllItemLocations());
+            readFacet(in, strings, itemBuilder.getAllItemStats());
+            readFacet(in, strings, itemBuilder.getAllItemBaseItems());
+
+            readFacet(in, strings, charmBuilder.getAllCharmRegions());
+            readFacet(in, strings, charmBuilder.getAllCharmTiers());
+            readFacet(in, strings, charmBuilder.getAllCharmLocations());
+            readFacet(in, strings, charmBuilder.getAllCharmSkillMods());
+            readFacet(in, strings, charmBuilder.getAllCharmClasses());
+            readFacet(in, strings, charmBuilder.getAllCharmStats());
+            readFacet(in, strings, charmBuilder.getAllCharmBaseItems());
+
+            int itemCount = in.readInt();
+            for (int i = 0; i < itemCount; i++) {
+                String name = strings[in.readInt()];
+                String type = strings[in.readInt()];
+                String region = strings[in.readInt()];
+                String location = strings[in.readInt()];
+                int fishTier = in.readInt();
+                boolean isFish = in.readBoolean();
+                String baseItem = strings[in.readInt()];
+                String lore = strings[in.readInt()];
+                boolean hasMasterwork = in.readBoolean();
+
+                int levels = in.readInt();
+                ArrayList<String> tiers = new ArrayList<>(levels);
+                ArrayList<String> nbts = new ArrayList<>(levels);
+                ArrayList<ArrayList<ItemStat>> stats = new ArrayList<>(levels);
+                for (int level = 0; level < levels; level++) {
+                    tiers.add(readNullable(in, strings));
+                    nbts.add(readNullable(in, strings));
+
+                    int statCount = in.readInt();
+                    if (statCount == -1) {
+                        stats.add(null);
+                        continue;
+                    }
+                    ArrayList<ItemStat> levelStats = new ArrayList<>(statCount);
+                    for (int s = 0; s < statCount; s++) {
+                        levelStats.add(new ItemStat(strings[in.readInt()], in.readDouble()));
+                    }
+                    stats.add(levelStats);
+                }
+
+                itemBuilder.restoreItem(new DictionaryItem(name, type, region, tiers, location, fishTier, isFish, baseItem, lore, nbts, stats, hasMasterwork));
+            }
+
+            int charmCount = in.readInt();
+            for (int i = 0; i < charmCount; i++) {
+                String name = strings[in.readInt()];
+                String region = strings[in.readInt()];
+                String location = strings[in.readInt()];
+                String tier = strings[in.readInt()];
+                int power = in.readInt();
+                String className = strings[in.readInt()];
+                String baseItem = strings[in.readInt()];
+                String nbt = strings[in.readInt()];
+
+                int statCount = in.readInt();
+                ArrayList<CharmStat> stats = new ArrayList<>(statCount);
+                for (int s = 0; s < statCount; s++) {
+                    stats.add(new CharmStat(strings[in.readInt()], strings[in.readInt()], in.readDouble()));
+                }
+
+                charmBuilder.restoreCharm(new DictionaryCharm(name, region, location, tier, power, className, baseItem, nbt, stats));
+            }
+
+            return new Catalog(version, itemBuilder, charmBuilder, false, previous);
+        }
+    }
+
+    public static void write(Path cacheFile, long checksum, Catalog catalog) throws IOException {
+        // written beside the real file and moved over it, so a half written cache is never read
+        Files.createDirectories(cacheFile.getParent());
+        Path tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(checksum);
+
+                // the table fills up while the body is written, and goes after it
+                StringTable strings = new StringTable();
+
+                writeFacet(out, strings, catalog.getAllItemTypes());
+                writeFacet(out, strings, catalog.getAllItemRegions());
+                writeFacet(out, strings, catalog.getAllItemTiers());
+                writeFacet(out, strings, catalog.getAllItemLocations());
+                writeFacet(out, strings, catalog.getAllItemStats());
+                writeFacet(out, strings, catalog.getAllItemBaseItems());
+
+                writeFacet(out, strings, catalog.getAllCharmRegions());
+                writeFacet(out, strings, catalog.getAllCharmTiers());
+                writeFacet(out, strings, catalog.getAllCharmLocations());
+                writeFacet(out, strings, catalog.getAllCharmSkillMods());
+                writeFacet(out, strings, catalog.getAllCharmClasses());
+                writeFacet(out, strings, catalog.getAllCharmStats());
+                writeFacet(out, strings, catalog.getAllCharmBaseItems());
+
+                List<DictionaryItem> items = catalog.getItems();
+                out.writeInt(items.size());
+                for (DictionaryItem item : items) {
+                    out.writeInt(strings.id(item.name));
+                    out.writeInt(strings.id(item.type));
+                    out.writeInt(strings.id(item.region));
+                    out.writeInt(strings.id(item.location));
+                    out.writeInt(item.fishTier);
+                    out.writeBoolean(item.isFish);
+                    out.writeInt(strings.id(item.baseItem));
+                    out.writeInt(strings.id(item.lore));
+                    out.writeBoolean(item.hasMasterwork);
+
+                    out.writeInt(item.stats.size());
+                    for (int level = 0; level < item.stats.size(); level++) {
+                        out.writeInt(strings.nullableId(item.tier.get(level)));
+                        out.writeInt(strings.nullableId(item.nbt.get(level)));
+
+                        ArrayList<ItemStat> levelStats = item.stats.get(level);
+                        if (levelStats == null) {
+                            out.writeInt(-1);
+                            continue;
+                        }
+                        out.writeInt(levelStats.size());
+                        for (ItemStat stat : levelStats) {
+                            out.writeInt(strings.id(stat.statName));
+                            out.writeDouble(stat.statValue);
+                        }
+                    }
+                }
+
+                List<DictionaryCharm> charms = catalog.getCharms();
+                out.writeInt(charms.size());
+                for (DictionaryCharm charm : charms) {
+                    out.writeInt(strings.id(charm.name));
+                    out.writeInt(strings.id(charm.region));
+                    out.writeInt(strings.id(charm.location));
+                    out.writeInt(strings.id(charm.tier));
+                    out.writeInt(charm.power);
+                    out.writeInt(strings.id(charm.className));
+                    out.writeInt(strings.id(charm.baseItem));
+                    out.writeInt(strings.id(charm.nbt));
+
+                    out.writeInt(charm.stats.size());
+                    for (CharmStat stat : charm.stats) {
+                        out.writeInt(strings.id(stat.statNameFull));
+                        out.writeInt(strings.id(stat.modifiedSkill));
+                        out.writeDouble(stat.statValue);
+                    }
+                }
+
+                long tableOffset = out.size();
+                out.writeInt(strings.values.size());
+                for (String value : strings.values) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                out.writeLong(tableOffset);
+            }
+
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // a fresh buffered stream at position, any stream made before it is left behind
+    private static DataInputStream streamFrom(SeekableByteChannel channel, long position) throws IOException {
+        channel.position(position);
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+    }
+
+    private static void readFacet(DataInputStream in, String[] strings, FacetDictionary facet) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            facet.intern(strings[in.readInt()]);
+        }
+    }
+
+    private static void writeFacet(DataOutputStream out, StringTable strings, FacetDictionary facet) throws IOException {
+        out.writeInt(facet.size());
+        for (String value : facet.getValues()) {
+            out.writeInt(strings.id(value));
+        }
+    }
+
+    private static String readNullable(DataInputStream in, String[] strings) throws IOException {
+        int id = in.readInt();
+        return id == -1 ? null : strings[id];
+    }
+
+    private static class StringTable {
+        private final HashMap<String, Integer> ids = new HashMap<>();
+        private final ArrayList<String> values = new ArrayList<>();
+
+        private int id(String value) {
+            Integer id = ids.get(value);
+            if (id != null) return id;
+
+            ids.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        private int nullableId(String value) {
+            return value == null ? -1 : id(value);
+        }
+    }
+}
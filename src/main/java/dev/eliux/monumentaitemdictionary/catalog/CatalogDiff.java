@@ -0,0 +1,144 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.CharmStat;
+import dev.eliux.monumentaitemdictionary.util.ItemStat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+
+// what changed between two catalogs. while computing it, every entry that didn't change is swapped back
+// for the previous catalog's instance, so anything keyed on those instances (widgets, icons, tooltips) stays valid.
+// added and changed entries are the new catalog's instances, removed and replaced ones the previous catalog's:
+// replaced.get(i) is what changed.get(i) took the place of, so those two lists are what instance keyed caches drop
+public class CatalogDiff {
+    public final List<DictionaryItem> addedItems = new ArrayList<>();
+    public final List<DictionaryItem> removedItems = new ArrayList<>();
+    public final List<DictionaryItem> changedItems = new ArrayList<>();
+    public final List<DictionaryItem> replacedItems = new ArrayList<>();
+
+    public final List<DictionaryCharm> addedCharms = new ArrayList<>();
+    public final List<DictionaryCharm> removedCharms = new ArrayList<>();
+    public final List<DictionaryCharm> changedCharms = new ArrayList<>();
+    public final List<DictionaryCharm> replacedCharms = new ArrayList<>();
+
+    static CatalogDiff compute(Catalog previous, List<DictionaryItem> items, List<DictionaryCharm> charms, ItemNameIndex itemNameIndex) {
+        CatalogDiff diff = new CatalogDiff();
+        List<DictionaryItem> previousItems = previous == null ? List.of() : previous.getItems();
+        List<DictionaryCharm> previousCharms = previous == null ? List.of() : previous.getCharms();
+
+        HashMap<String, DictionaryItem> previousItemsByKey = new HashMap<>();
+        for (DictionaryItem item : previousItems) {
+            previousItemsByKey.putIfAbsent(itemKey(item), item);
+        }
+        IdentityHashMap<DictionaryItem, Boolean> keptItems = new IdentityHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            DictionaryItem item = items.get(i);
+            DictionaryItem previousItem = previousItemsByKey.get(itemKey(item));
+            if (previousItem == null || keptItems.containsKey(previousItem)) {
+                diff.addedItems.add(item);
+            } else if (sameItem(item, previousItem)) {
+                items.set(i, previousItem);
+                itemNameIndex.replace(item, previousItem);
+                keptItems.put(previousItem, true);
+            } else {
+                diff.changedItems.add(item);
+                diff.replacedItems.add(previousItem);
+                keptItems.put(previousItem, false);
+            }
+        }
+        for (DictionaryItem item : previousItems) {
+            if (!keptItems.containsKey(item)) diff.removedItems.add(item);
+        }
+
+        HashMap<String, DictionaryCharm> previousCharmsByName = new HashMap<>();
+        for (DictionaryCharm charm : previousCharms) {
+            previousCharmsByName.putIfAbsent(charm.name, charm);
+        }
+        IdentityHashMap<DictionaryCharm, Boolean> keptCharms = new IdentityHashMap<>();
+        for (int i = 0; i < charms.size(); i++) {
+            DictionaryCharm charm = charms.get(i);
+            DictionaryCharm previousCharm = previousCharmsByName.get(charm.name);
+            if (previousCharm == null || keptCharms.containsKey(previousCharm)) {
+                diff.addedCharms.add(charm);
+            } else if (sameCharm(charm, previousCharm)) {
+                charms.set(i, previousCharm);
+                keptCharms.put(previousCharm, true);
+            } else {
+                diff.changedCharms.add(charm);
+                diff.replacedCharms.add(previousCharm);
+                keptCharms.put(previousCharm, false);
+            }
+        }
+        for (DictionaryCharm charm : previousCharms) {
+            if (!keptCharms.containsKey(charm)) diff.removedCharms.add(charm);
+        }
+
+        return diff;
+    }
+
+    public boolean isEmpty() {
+        return !hasItemChanges() && !hasCharmChanges();
+    }
+
+    public boolean hasItemChanges() {
+        return !addedItems.isEmpty() || !removedItems.isEmpty() || !changedItems.isEmpty();
+    }
+
+    public boolean hasCharmChanges() {
+        return !addedCharms.isEmpty() || !removedCharms.isEmpty() || !changedCharms.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "items +" + addedItems.size() + " -" + removedItems.size() + " ~" + changedItems.size()
+                + ", charms +" + addedCharms.size() + " -" + removedCharms.size() + " ~" + changedCharms.size();
+    }
+
+    // same key the masterwork merge uses, items only repeat a name across regions
+    private static String itemKey(DictionaryItem item) {
+        return item.name + '\0' + item.region;
+    }
+
+    private static boolean sameItem(DictionaryItem a, DictionaryItem b) {
+        if (!a.name.equals(b.name) || !a.type.equals(b.type) || !a.region.equals(b.region) || !a.location.equals(b.location)
+                || a.fishTier != b.fishTier || a.isFish != b.isFish || !a.baseItem.equals(b.baseItem) || !a.lore.equals(b.lore)
+                || a.hasMasterwork != b.hasMasterwork || !a.tier.equals(b.tier) || !a.nbt.equals(b.nbt)
+                || a.stats.size() != b.stats.size())
+            return false;
+
+        for (int level = 0; level < a.stats.size(); level++) {
+            ArrayList<ItemStat> aStats = a.stats.get(level);
+            ArrayList<ItemStat> bStats = b.stats.get(level);
+            if (aStats == null || bStats == null) {
+                if (aStats != bStats) return false;
+                continue;
+            }
+            if (aStats.size() != bStats.size()) return false;
+            for (int i = 0; i < aStats.size(); i++) {
+                if (!aStats.get(i).statName.equals(bStats.get(i).statName) || aStats.get(i).statValue != bStats.get(i).statValue)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameCharm(DictionaryCharm a, DictionaryCharm b) {
+        if (!a.name.equals(b.name) || !a.region.equals(b.region) || !a.location.equals(b.location) || !a.tier.equals(b.tier)
+                || a.power != b.power || !a.className.equals(b.className) || !a.baseItem.equals(b.baseItem)
+                || !Objects.equals(a.nbt, b.nbt) || a.stats.size() != b.stats.size())
+            return false;
+
+        for (int i = 0; i < a.stats.size(); i++) {
+            CharmStat aStat = a.stats.get(i);
+            CharmStat bStat = b.stats.get(i);
+            if (!aStat.statNameFull.equals(bStat.statNameFull) || !aStat.modifiedSkill.equals(bStat.modifiedSkill) || aStat.statValue != bStat.statValue)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.Mid;
+import dev.eliux.monumentaitemdictionary.web.ResponseValidators;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SuppressWarnings("CallToPrintStackTrace")
+public class CatalogLoader {
+    // one thread so loads always finish in the order they were asked for
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "MID Catalog Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger nextVersion = new AtomicInteger();
+    // only touched on the loader thread
+    private Catalog latest = Catalog.EMPTY;
+    private final Path itemDataPath;
+    private final Path cachePath;
+    private final Path validatorsPath;
+
+    public CatalogLoader(Path itemDataPath) {
+        this.itemDataPath = itemDataPath;
+        this.cachePath = itemDataPath.resolveSibling("items.bin");
+        this.validatorsPath = itemDataPath.resolveSibling("items.properties");
+    }
+
+    public CompletableFuture<Catalog> load() {
+        return CompletableFuture.supplyAsync(this::loadNow, executor);
+    }
+
+    // called once a download has replaced items.json, the validators describe that new file
+    public CompletableFuture<Catalog> loadDownloaded(ResponseValidators validators) {
+        return CompletableFuture.supplyAsync(() -> {
+            validators.save(validatorsPath);
+            return loadNow();
+        }, executor);
+    }
+
+    public ResponseValidators getValidators() {
+        // without the data there is nothing to revalidate, so ask for the full body
+        if (!Files.exists(itemDataPath)) return ResponseValidators.NONE;
+        return ResponseValidators.load(validatorsPath);
+    }
+
+    private Catalog loadNow() {
+        latest = buildCatalog(nextVersion.incrementAndGet());
+        return latest;
+    }
+
+    private Catalog buildCatalog(int version) {
+        if (!Files.exists(itemDataPath))
+            return new Catalog(version, new ItemCatalogBuilder(), new CharmCatalogBuilder(), false, latest);
+
+        long checksum = -1;
+        try {
+            checksum = CatalogCache.checksum(itemDataPath);
+            Catalog cached = CatalogCache.read(cachePath, checksum, version, latest);
+            if (cached != null) {
+                Mid.LOGGER.info("Loaded item data from cache");
+                return cached;
+            }
+        } catch (Exception e) {
+            // a broken cache just means parsing the json again
+            e.printStackTrace();
+        }
+
+        ItemCatalogBuilder itemBuilder = new ItemCatalogBuilder();
+        CharmCatalogBuilder charmBuilder = new CharmCatalogBuilder();
+
+        boolean readFailed = false;
+        try {
+            CatalogReader.read(itemDataPath, itemBuilder::accept, charmBuilder::accept);
+        } catch (Exception e) {
+            e.printStackTrace();
+            readFailed = true;
+        }
+
+        Catalog catalog = new Catalog(version, itemBuilder, charmBuilder, readFailed, latest);
+        if (checksum != -1 && !catalog.itemLoadFailed() && !catalog.charmLoadFailed()) {
+            try {
+                CatalogCache.write(cachePath, checksum, catalog);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return catalog;
+    }
+}
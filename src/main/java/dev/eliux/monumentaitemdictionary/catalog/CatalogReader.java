@@ -0,0 +1,47 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+public class CatalogReader {
+    // reads the api dump one record at a time instead of building the whole tree,
+    // so only a single record is ever held in memory while loading
+    public static void read(Path file, Consumer<JsonObject> onItem, Consumer<JsonObject> onCharm) throws IOException {
+        if (!Files.exists(file)) return;
+
+        try (BufferedReader fileReader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             JsonReader reader = new JsonReader(fileReader)) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) return;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                reader.nextName();
+                JsonElement record = JsonParser.parseReader(reader);
+                if (!record.isJsonObject()) continue;
+
+                JsonObject recordObject = record.getAsJsonObject();
+                if (isCharm(recordObject)) {
+                    onCharm.accept(recordObject);
+                } else {
+                    onItem.accept(recordObject);
+                }
+            }
+            reader.endObject();
+        }
+    }
+
+    private static boolean isCharm(JsonObject record) {
+        JsonElement type = record.get("type");
+        return type != null && type.isJsonPrimitive() && type.getAsString().equals("Charm");
+    }
+}
@@ -0,0 +1,152 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.util.CharmStat;
+import dev.eliux.monumentaitemdictionary.util.ItemFormatter;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+@SuppressWarnings("CallToPrintStackTrace")
+public class CharmCatalogBuilder {
+    private final ArrayList<DictionaryCharm> charms = new ArrayList<>();
+
+    private final FacetDictionary allCharmRegions = new FacetDictionary();
+    private final FacetDictionary allCharmTiers = new FacetDictionary();
+    private final FacetDictionary allCharmLocations = new FacetDictionary();
+    private final FacetDictionary allCharmSkillMods = new FacetDictionary();
+    private final FacetDictionary allCharmClasses = new FacetDictionary();
+    private final FacetDictionary allCharmStats = new FacetDictionary();
+    private final FacetDictionary allCharmBaseItems = new FacetDictionary();
+
+    private boolean failed = false;
+
+    public void accept(JsonObject charmData) {
+        if (failed) return; // a broken record stops the charm load, same as a failed full parse
+
+        try {
+            addCharm(charmData);
+        } catch (Exception e) {
+            e.printStackTrace();
+            failed = true;
+        }
+    }
+
+    private void addCharm(JsonObject charmData) {
+        // Construct charm information
+        if (!charmData.get("type").getAsString().equals("Charm"))
+            return;
+
+        if (!charmData.has("name")) return; // if this element is not present, skip this item
+        String charmName = charmData.get("name").getAsString();
+
+        // only one region for charms, for now
+        String charmRegion = "Architect's Ring";
+        allCharmRegions.intern(charmRegion);
+
+        if (!charmData.has("location")) return; // if this element is not present, skip this item
+        String charmLocation = charmData.get("location").getAsString();
+        allCharmLocations.intern(charmLocation);
+
+        if (!charmData.has("tier")) return; // if this element is not present, skip this item
+        String charmTier = charmData.get("tier").getAsString().replace("_", " ");
+        allCharmTiers.intern(charmTier);
+
+        if (!charmData.has("power")) return; // if this element is not present, skip this item
+        int charmPower = charmData.get("power").getAsInt();
+
+        if (!charmData.has("class_name")) return; // if this element is not present, skip this item
+        String charmClass = charmData.get("class_name").getAsString();
+        allCharmClasses.intern(charmClass);
+
+        if (!charmData.has("base_item")) return; // if this element is not present, skip this item
+        String charmBaseItem = charmData.get("base_item").getAsString();
+        allCharmBaseItems.intern(charmBaseItem);
+
+        String charmNbt = "";
+        if (charmData.has("nbt")) {
+            charmNbt = charmData.get("nbt").getAsString();
+        }
+
+        ArrayList<CharmStat> charmStats = new ArrayList<>();
+        JsonObject statObject = charmData.get("stats").getAsJsonObject();
+        for (Map.Entry<String, JsonElement> statEntry : statObject.entrySet()) {
+            String statKey = statEntry.getKey();
+            String skillMod = ItemFormatter.getSkillFromCharmStat(statKey);
+            allCharmSkillMods.intern(skillMod);
+
+            charmStats.add(new CharmStat(statKey, skillMod, statEntry.getValue().getAsDouble()));
+
+            allCharmStats.intern(statKey);
+        }
+
+        charms.add(new DictionaryCharm(charmName, charmRegion, charmLocation, charmTier, charmPower, charmClass, charmBaseItem, charmNbt, charmStats));
+    }
+
+    // for charms coming out of the binary cache
+    void restoreCharm(DictionaryCharm charm) {
+        charms.add(charm);
+    }
+
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    public ArrayList<DictionaryCharm> build() {
+        charms.sort((o1, o2) -> {
+            if (!o1.tier.equals(o2.tier)) {
+                return -(ItemFormatter.getNumberForTier(o1.tier) - ItemFormatter.getNumberForTier(o2.tier));
+            }
+            return 0;
+        });
+        countFacets();
+        return charms;
+    }
+
+    // counted from the finished charms so skipped records and repeated skill modifiers aren't counted
+    private void countFacets() {
+        for (int ordinal = 0; ordinal < charms.size(); ordinal++) {
+            DictionaryCharm charm = charms.get(ordinal);
+            allCharmRegions.count(charm.region, ordinal);
+            allCharmTiers.count(charm.tier, ordinal);
+            allCharmLocations.count(charm.location, ordinal);
+            allCharmClasses.count(charm.className, ordinal);
+            allCharmBaseItems.count(charm.baseItem, ordinal);
+
+            for (CharmStat stat : charm.stats) {
+                allCharmStats.count(stat.statNameFull, ordinal);
+                allCharmSkillMods.count(stat.modifiedSkill, ordinal);
+            }
+        }
+    }
+
+    public FacetDictionary getAllCharmRegions() {
+        return allCharmRegions;
+    }
+
+    public FacetDictionary getAllCharmTiers() {
+        return allCharmTiers;
+    }
+
+    public FacetDictionary getAllCharmLocations() {
+        return allCharmLocations;
+    }
+
+    public FacetDictionary getAllCharmSkillMods() {
+        return allCharmSkillMods;
+    }
+
+    public FacetDictionary getAllCharmClasses() {
+        return allCharmClasses;
+    }
+
+    public FacetDictionary getAllCharmStats() {
+        return allCharmStats;
+    }
+
+    public FacetDictionary getAllCharmBaseItems() {
+        return allCharmBaseItems;
+    }
+}
@@ -0,0 +1,105 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+// every distinct value of one facet (tier, region, stat...) gets a dense code in the order it was first seen.
+// once the catalog is built it also knows which entries have each value, as a bitset over catalog ordinals
+public class FacetDictionary {
+    private static final BitSet NONE = new BitSet();
+
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    private final ArrayList<String> values = new ArrayList<>();
+    private int[] counts = new int[16];
+    private BitSet[] entries = new BitSet[16];
+
+    public int intern(String value) {
+        Integer code = codes.get(value);
+        if (code != null) return code;
+
+        int newCode = values.size();
+        codes.put(value, newCode);
+        values.add(value);
+        if (newCode == counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        return newCode;
+    }
+
+    // marks the catalog entry at ordinal as having value. an entry repeating a value (say a tier on several
+    // masterwork levels) still only counts once. only known values are counted, so nothing gets added here
+    public void count(String value, int ordinal) {
+        Integer code = codes.get(value);
+        if (code == null) return;
+
+        BitSet bits = entries[code];
+        if (bits == null) {
+            bits = new BitSet();
+            entries[code] = bits;
+        }
+        if (!bits.get(ordinal)) {
+            bits.set(ordinal);
+            counts[code]++;
+        }
+    }
+
+    // keeps only the entries in target that have value
+    public void and(BitSet target, String value) {
+        target.and(getEntries(value));
+    }
+
+    // drops the entries in target that have value
+    public void andNot(BitSet target, String value) {
+        target.andNot(getEntries(value));
+    }
+
+    private BitSet getEntries(String value) {
+        Integer code = codes.get(value);
+        if (code == null || entries[code] == null) return NONE;
+        return entries[code];
+    }
+
+    public int getCode(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    public String getValue(int code) {
+        return values.get(code);
+    }
+
+    public int getCount(int code) {
+        return counts[code];
+    }
+
+    public int getCount(String value) {
+        int code = getCode(value);
+        return code == -1 ? 0 : counts[code];
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<String> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    public List<String> getLabels() {
+        return getLabels(Function.identity());
+    }
+
+    public List<String> getLabels(Function<String, String> formatter) {
+        ArrayList<String> labels = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            labels.add(formatter.apply(values.get(i)) + " (" + counts[i] + ")");
+        }
+        return labels;
+    }
+}
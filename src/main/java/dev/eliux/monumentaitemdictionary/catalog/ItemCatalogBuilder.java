@@ -0,0 +1,234 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.ItemFormatter;
+import dev.eliux.monumentaitemdictionary.util.ItemStat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@SuppressWarnings("CallToPrintStackTrace")
+public class ItemCatalogBuilder {
+    private final ArrayList<DictionaryItem> items = new ArrayList<>();
+    private final ItemNameIndex nameIndex = new ItemNameIndex();
+
+    private final FacetDictionary allItemTypes = new FacetDictionary();
+    private final FacetDictionary allItemRegions = new FacetDictionary();
+    private final FacetDictionary allItemTiers = new FacetDictionary();
+    private final FacetDictionary allItemLocations = new FacetDictionary();
+    private final FacetDictionary allItemStats = new FacetDictionary();
+    private final FacetDictionary allItemBaseItems = new FacetDictionary();
+
+    private boolean failed = false;
+
+    public void accept(JsonObject itemData) {
+        if (failed) return; // a broken record stops the item load, same as a failed full parse
+
+        try {
+            addItem(itemData);
+        } catch (Exception e) {
+            e.printStackTrace();
+            failed = true;
+        }
+    }
+
+    private void addItem(JsonObject itemData) {
+        // Construct item information
+        if (!itemData.has("name")) return; // if this element is not present, skip this item
+        String itemName = itemData.get("name").getAsString();
+
+        if (!itemData.has("type")) return; // if this element is not present, skip this item
+        String itemType = itemData.get("type").getAsString();
+        if (itemType.equals("Charm"))
+            return;
+        allItemTypes.intern(itemType);
+
+        String itemRegion = "";
+        JsonPrimitive regionPrimitive = itemData.getAsJsonPrimitive("region");
+        if (regionPrimitive != null) {
+            itemRegion = regionPrimitive.getAsString();
+
+            allItemRegions.intern(itemRegion);
+        }
+
+        String itemTier = "";
+        JsonPrimitive tierPrimitive = itemData.getAsJsonPrimitive("tier");
+        if (tierPrimitive != null) {
+            itemTier = formatTier(tierPrimitive.getAsString());
+
+            allItemTiers.intern(itemTier);
+        }
+
+        String itemLocation = "";
+        JsonPrimitive locationPrimitive = itemData.getAsJsonPrimitive("location");
+        if (locationPrimitive != null) {
+            itemLocation = locationPrimitive.getAsString();
+
+            allItemLocations.intern(itemLocation);
+        }
+
+        int fishTier = -1;
+        boolean isFish = false;
+        JsonPrimitive fishQualityPrimitive = itemData.getAsJsonPrimitive("fish_quality");
+        if (fishQualityPrimitive != null) {
+            fishTier = fishQualityPrimitive.getAsInt();
+            isFish = true;
+        }
+
+        if (!itemData.has("base_item")) return; // if this element is not present, skip this item
+        String itemBaseItem = itemData.get("base_item").getAsString();
+        allItemBaseItems.intern(itemBaseItem);
+
+        String itemLore = "";
+        JsonPrimitive lorePrimitive = itemData.getAsJsonPrimitive("lore");
+        if (lorePrimitive != null) {
+            itemLore = lorePrimitive.getAsString();
+        }
+
+        ArrayList<ItemStat> itemStats = new ArrayList<>();
+        JsonObject statObject = itemData.get("stats").getAsJsonObject();
+        for (Map.Entry<String, JsonElement> statEntry : statObject.entrySet()) {
+            String statKey = statEntry.getKey();
+            if (ItemFormatter.isHiddenStat(statKey)) continue;
+
+            itemStats.add(new ItemStat(statKey, statEntry.getValue().getAsDouble()));
+
+            allItemStats.intern(statKey);
+        }
+
+        String itemNbt = "";
+        JsonPrimitive nbtPrimitive = itemData.getAsJsonPrimitive("nbt");
+        if (nbtPrimitive != null) {
+            itemNbt = nbtPrimitive.getAsString();
+        }
+
+        // Build the item
+        JsonPrimitive masterworkPrimitive = itemData.getAsJsonPrimitive("masterwork");
+        if (masterworkPrimitive != null) {
+            // if the item has masterwork
+            // attempt to add a tier to the item
+            DictionaryItem existingItem = nameIndex.get(itemName, itemRegion);
+            if (existingItem != null && existingItem.hasMasterwork) {
+                // if the item already exists
+                if (masterworkPrimitive.getAsInt() <= ItemFormatter.getMasterworkForRarity(itemTier))
+                    existingItem.addMasterworkTier(itemTier, itemStats, itemNbt, masterworkPrimitive.getAsInt());
+            } else {
+                // if the item does not already exist
+                ArrayList<String> totalTierList = new ArrayList<>();
+                ArrayList<ArrayList<ItemStat>> totalStatsList = new ArrayList<>();
+                ArrayList<String> totalNbtList = new ArrayList<>();
+                for (int i = 0; i < ItemFormatter.getMasterworkForRarity(itemTier) + 1; i++) {
+                    totalTierList.add(null);
+                    totalStatsList.add(null);
+                    totalNbtList.add(null);
+                }
+                int level = masterworkPrimitive.getAsInt();
+                if (level <= ItemFormatter.getMasterworkForRarity(itemTier)) { // prevent adding a tier above the believed cap
+                    totalTierList.set(level, itemTier);
+                    totalStatsList.set(level, itemStats);
+                    totalNbtList.set(level, itemNbt);
+                    addToCatalog(new DictionaryItem(itemName, itemType, itemRegion, totalTierList, itemLocation, fishTier, isFish, itemBaseItem, itemLore, totalNbtList, totalStatsList, true));
+                }
+            }
+        } else {
+            // if the item does not have masterwork
+            ArrayList<String> totalTierList = new ArrayList<>();
+            totalTierList.add(itemTier);
+            ArrayList<ArrayList<ItemStat>> totalStatsList = new ArrayList<>();
+            totalStatsList.add(itemStats);
+            ArrayList<String> totalNbtList = new ArrayList<>();
+            totalNbtList.add(itemNbt);
+            addToCatalog(new DictionaryItem(itemName, itemType, itemRegion, totalTierList, itemLocation, fishTier, isFish, itemBaseItem, itemLore, totalNbtList, totalStatsList, false));
+        }
+    }
+
+    private void addToCatalog(DictionaryItem item) {
+        items.add(item);
+        nameIndex.add(item);
+    }
+
+    // for items coming out of the binary cache, which are already fully merged
+    void restoreItem(DictionaryItem item) {
+        addToCatalog(item);
+    }
+
+    private static String formatTier(String rawTier) {
+        List<String> plainSplit = Arrays.asList(rawTier.replace("_", " ").split(" ")); // janky code to patch Event Currency appearing as Event_currency and other future similar events
+        StringBuilder formattedSplit = new StringBuilder();
+        for (String s : plainSplit) {
+            if (!s.isEmpty())
+                formattedSplit.append(s.substring(0, 1).toUpperCase()).append(s.substring(1).toLowerCase());
+            if (plainSplit.indexOf(s) != plainSplit.size() - 1)
+                formattedSplit.append(" ");
+        }
+        return formattedSplit.toString();
+    }
+
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    public ArrayList<DictionaryItem> build() {
+        items.sort(DictionaryItem::compareTo);
+        nameIndex.sort();
+        countFacets();
+        return items;
+    }
+
+    // counted per item rather than per record, so every masterwork level of an item only counts once.
+    // runs after sorting, the ordinals are the item's position in the built list
+    private void countFacets() {
+        for (int ordinal = 0; ordinal < items.size(); ordinal++) {
+            DictionaryItem item = items.get(ordinal);
+            allItemTypes.count(item.type, ordinal);
+            allItemRegions.count(item.region, ordinal);
+            allItemLocations.count(item.location, ordinal);
+            allItemBaseItems.count(item.baseItem, ordinal);
+
+            for (String tier : item.tier) {
+                if (tier != null)
+                    allItemTiers.count(tier, ordinal);
+            }
+
+            for (ArrayList<ItemStat> levelStats : item.stats) {
+                if (levelStats == null) continue;
+                for (ItemStat stat : levelStats) {
+                    allItemStats.count(stat.statName, ordinal);
+                }
+            }
+        }
+    }
+
+    public ItemNameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    public FacetDictionary getAllItemTypes() {
+        return allItemTypes;
+    }
+
+    public FacetDictionary getAllItemRegions() {
+        return allItemRegions;
+    }
+
+    public FacetDictionary getAllItemTiers() {
+        return allItemTiers;
+    }
+
+    public FacetDictionary getAllItemLocations() {
+        return allItemLocations;
+    }
+
+    public FacetDictionary getAllItemStats() {
+        return allItemStats;
+    }
+
+    public FacetDictionary getAllItemBaseItems() {
+        return allItemBaseItems;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class ItemNameIndex {
+    // every name maps to the items carrying it, almost always just one
+    private final HashMap<String, ArrayList<DictionaryItem>> itemsByName = new HashMap<>();
+
+    public void add(DictionaryItem item) {
+        itemsByName.computeIfAbsent(item.name, k -> new ArrayList<>(1)).add(item);
+    }
+
+    public DictionaryItem get(String name, String region) {
+        ArrayList<DictionaryItem> sameName = itemsByName.get(name);
+        if (sameName == null) return null;
+
+        for (DictionaryItem item : sameName) {
+            if (item.region.equals(region)) return item;
+        }
+        return null;
+    }
+
+    public List<DictionaryItem> getAll(String name) {
+        ArrayList<DictionaryItem> sameName = itemsByName.get(name);
+        return sameName == null ? List.of() : sameName;
+    }
+
+    // exalted items are the ring copies of items that also exist in an older region
+    public DictionaryItem find(String name, boolean isExalted) {
+        List<DictionaryItem> possibleItems = getAll(name);
+
+        if (possibleItems.size() == 1) {
+            return possibleItems.get(0);
+        } else if (possibleItems.size() > 1) {
+            for (DictionaryItem item : possibleItems) {
+                if (isExalted && item.region.equals("Ring")) {
+                    return item;
+                } else if (!isExalted && !item.region.equals("Ring")) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean isExalted(DictionaryItem item) {
+        return getAll(item.name).size() > 1;
+    }
+
+    void replace(DictionaryItem item, DictionaryItem replacement) {
+        ArrayList<DictionaryItem> sameName = itemsByName.get(item.name);
+        for (int i = 0; i < sameName.size(); i++) {
+            if (sameName.get(i) == item) {
+                sameName.set(i, replacement);
+                return;
+            }
+        }
+    }
+
+    // keeps each bucket in the same order as the sorted catalog, so lookups pick the same item a scan would
+    void sort() {
+        for (ArrayList<DictionaryItem> sameName : itemsByName.values()) {
+            if (sameName.size() > 1)
+                sameName.sort(DictionaryItem::compareTo);
+        }
+    }
+}
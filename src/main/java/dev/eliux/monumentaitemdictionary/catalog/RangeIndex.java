@@ -0,0 +1,140 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import java.util.BitSet;
+
+// one numeric column sorted by value, so a comparator filter is two binary searches and a run of set bits
+// instead of a look at every entry. entries without a value (NaN) are left out
+public class RangeIndex {
+    private final double[] values; // ascending
+    private final int[] ordinals; // ordinals[i] is the catalog entry holding values[i]
+    private final double[] column; // by ordinal, for checking a few entries directly
+
+    RangeIndex(double[] column) {
+        this.column = column;
+        int present = 0;
+        for (double value : column) {
+            if (!Double.isNaN(value)) present++;
+        }
+
+        // a stable merge sort of the values with their ordinals alongside, on plain arrays so nothing gets boxed.
+        // equal values keep catalog order
+        double[] sortedValues = new double[present];
+        int[] sortedOrdinals = new int[present];
+        int next = 0;
+        for (int ordinal = 0; ordinal < column.length; ordinal++) {
+            if (Double.isNaN(column[ordinal])) continue;
+            sortedValues[next] = column[ordinal];
+            sortedOrdinals[next++] = ordinal;
+        }
+        double[] valueBuffer = new double[present];
+        int[] ordinalBuffer = new int[present];
+        for (int width = 1; width < present; width *= 2) {
+            for (int from = 0; from < present; from += 2 * width) {
+                int middle = Math.min(from + width, present);
+                int to = Math.min(from + 2 * width, present);
+                int left = from, right = middle, out = from;
+                while (left < middle && right < to) {
+                    int take = sortedValues[right] < sortedValues[left] ? right++ : left++;
+                    valueBuffer[out] = sortedValues[take];
+                    ordinalBuffer[out++] = sortedOrdinals[take];
+                }
+                for (; left < middle; left++, out++) {
+                    valueBuffer[out] = sortedValues[left];
+                    ordinalBuffer[out] = sortedOrdinals[left];
+                }
+                for (; right < to; right++, out++) {
+                    valueBuffer[out] = sortedValues[right];
+                    ordinalBuffer[out] = sortedOrdinals[right];
+                }
+            }
+            double[] mergedValues = valueBuffer;
+            valueBuffer = sortedValues;
+            sortedValues = mergedValues;
+            int[] mergedOrdinals = ordinalBuffer;
+            ordinalBuffer = sortedOrdinals;
+            sortedOrdinals = mergedOrdinals;
+        }
+
+        values = sortedValues;
+        ordinals = sortedOrdinals;
+    }
+
+    // the entries passing comparator 2 to 6 of a Filter against constant, null for any other comparator
+    public BitSet select(int comparator, double constant) {
+        int[] range = range(comparator, constant);
+        if (range == null) return null;
+
+        BitSet selected = new BitSet();
+        for (int i = range[0]; i < range[1]; i++) {
+            selected.set(ordinals[i]);
+        }
+        return selected;
+    }
+
+    // how many entries select would return, known from the two binary searches alone. -1 for any other comparator
+    public int count(int comparator, double constant) {
+        int[] range = range(comparator, constant);
+        return range == null ? -1 : range[1] - range[0];
+    }
+
+    // keeps only the entries in target that pass, or with negated only those that don't (missing values included).
+    // a target smaller than the selection is checked entry by entry against the column instead of building it
+    public void and(BitSet target, int comparator, double constant, boolean negated) {
+        int[] range = range(comparator, constant);
+        if (range == null) return;
+
+        if (target.cardinality() < range[1] - range[0]) {
+            for (int ordinal = target.nextSetBit(0); ordinal >= 0; ordinal = target.nextSetBit(ordinal + 1)) {
+                if (passes(column[ordinal], comparator, constant) == negated) target.clear(ordinal);
+            }
+        } else {
+            BitSet selected = select(comparator, constant);
+            if (negated) target.andNot(selected);
+            else target.and(selected);
+        }
+    }
+
+    // the run of values[] passing the comparator, as {from, to}
+    private int[] range(int comparator, double constant) {
+        return switch (comparator) {
+            case 2 -> new int[] { firstAtLeast(constant), values.length }; // >=
+            case 3 -> new int[] { firstAbove(constant), values.length }; // >
+            case 4 -> new int[] { firstAtLeast(constant), firstAbove(constant) }; // =
+            case 5 -> new int[] { 0, firstAbove(constant) }; // <=
+            case 6 -> new int[] { 0, firstAtLeast(constant) }; // <
+            default -> null;
+        };
+    }
+
+    // a missing value (NaN) fails every comparison, same as it being left out of values[]
+    private static boolean passes(double value, int comparator, double constant) {
+        return switch (comparator) {
+            case 2 -> value >= constant;
+            case 3 -> value > constant;
+            case 4 -> value == constant;
+            case 5 -> value <= constant;
+            case 6 -> value < constant;
+            default -> false;
+        };
+    }
+
+    private int firstAtLeast(double constant) {
+        int low = 0, high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < constant) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private int firstAbove(double constant) {
+        int low = 0, high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= constant) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
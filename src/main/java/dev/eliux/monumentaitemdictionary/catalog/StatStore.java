@@ -0,0 +1,171 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.CharmStat;
+import dev.eliux.monumentaitemdictionary.util.ItemStat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// stat values of a whole catalog list stored by column, so looking a stat up is two array reads instead of
+// a scan comparing stat names. a stat's id is its code in the stat facet, which doubles as the registry.
+// missing stats are NaN, which fails every comparison. the facet's entry bitset says which entries have a stat
+public class StatStore {
+    private final FacetDictionary registry;
+    private final double[][] columns; // [stat id][catalog ordinal]
+    // sorted copies of the columns for range filters, each built the first time its stat is range filtered.
+    // most stats never are, and a catalog read from the cache shouldn't pay for sorting them all.
+    // the slots are set at most once, so the store can still be read from any thread
+    private final AtomicReferenceArray<RangeIndex> rangeIndexes;
+    // and each column's largest magnitude, for weighted scoring
+    private final double[] largest;
+
+    private interface Filler<T> {
+        // writes entry's stat values into columns at ordinal, which start out NaN
+        void fill(T entry, double[][] columns, int ordinal);
+    }
+
+    private StatStore(FacetDictionary registry, int entryCount) {
+        this.registry = registry;
+        columns = new double[registry.size()][entryCount];
+        for (double[] column : columns) {
+            Arrays.fill(column, Double.NaN);
+        }
+        rangeIndexes = new AtomicReferenceArray<>(columns.length);
+        largest = new double[columns.length];
+    }
+
+    // shares every column, range index and largest value with previous. patch copies the columns it changes
+    private StatStore(FacetDictionary registry, StatStore previous) {
+        this.registry = registry;
+        columns = previous.columns.clone();
+        rangeIndexes = new AtomicReferenceArray<>(columns.length);
+        for (int id = 0; id < columns.length; id++) {
+            rangeIndexes.set(id, previous.rangeIndexes.get(id));
+        }
+        largest = previous.largest.clone();
+    }
+
+    // an item's value is its highest over all masterwork levels, what DictionaryItem.getStat gives
+    static StatStore ofItems(List<DictionaryItem> items, FacetDictionary registry, List<DictionaryItem> previousItems, StatStore previous) {
+        return build(items, registry, previousItems, previous, (item, columns, ordinal) -> {
+            for (ArrayList<ItemStat> levelStats : item.stats) {
+                if (levelStats == null) continue;
+                for (ItemStat stat : levelStats) {
+                    int id = registry.getCode(stat.statName);
+                    if (id == -1) continue;
+
+                    double current = columns[id][ordinal];
+                    if (Double.isNaN(current) || stat.statValue > current)
+                        columns[id][ordinal] = stat.statValue;
+                }
+            }
+        });
+    }
+
+    // a charm's value is its first entry for the stat, what DictionaryCharm.getStat gives
+    static StatStore ofCharms(List<DictionaryCharm> charms, FacetDictionary registry, List<DictionaryCharm> previousCharms, StatStore previous) {
+        return build(charms, registry, previousCharms, previous, (charm, columns, ordinal) -> {
+            for (CharmStat stat : charm.stats) {
+                int id = registry.getCode(stat.statNameFull);
+                if (id != -1 && Double.isNaN(columns[id][ordinal]))
+                    columns[id][ordinal] = stat.statValue;
+            }
+        });
+    }
+
+    // a reload mostly hands back the previous catalog's instances at the same ordinals (see CatalogDiff). when the
+    // list is as long as before and the stats are the same ones in the same order, previous is patched at the
+    // ordinals holding another instance, and only the columns that actually changed are copied and lose their index
+    private static <T> StatStore build(List<T> entries, FacetDictionary registry, List<T> previousEntries, StatStore previous, Filler<T> filler) {
+        if (previous == null || previousEntries.size() != entries.size() || !previous.registry.getValues().equals(registry.getValues())) {
+            StatStore store = new StatStore(registry, entries.size());
+            for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+                filler.fill(entries.get(ordinal), store.columns, ordinal);
+            }
+            for (int id = 0; id < store.columns.length; id++) {
+                store.findLargest(id);
+            }
+            return store;
+        }
+
+        StatStore store = new StatStore(registry, previous);
+        double[][] values = new double[store.columns.length][1];
+        boolean[] copied = new boolean[store.columns.length];
+        for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+            if (entries.get(ordinal) == previousEntries.get(ordinal)) continue;
+
+            for (double[] value : values) value[0] = Double.NaN;
+            filler.fill(entries.get(ordinal), values, 0);
+            for (int id = 0; id < values.length; id++) {
+                if (Double.compare(values[id][0], store.columns[id][ordinal]) == 0) continue;
+                if (!copied[id]) {
+                    store.columns[id] = store.columns[id].clone();
+                    store.rangeIndexes.set(id, null);
+                    copied[id] = true;
+                }
+                store.columns[id][ordinal] = values[id][0];
+            }
+        }
+        for (int id = 0; id < copied.length; id++) {
+            if (copied[id]) store.findLargest(id);
+        }
+        return store;
+    }
+
+    private void findLargest(int id) {
+        largest[id] = 0;
+        for (double value : columns[id]) {
+            if (!Double.isNaN(value)) largest[id] = Math.max(largest[id], Math.abs(value));
+        }
+    }
+
+    public int getId(String stat) {
+        return registry.getCode(stat);
+    }
+
+    public String getName(int id) {
+        return registry.getValue(id);
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    public double get(int id, int ordinal) {
+        return columns[id][ordinal];
+    }
+
+    public double get(String stat, int ordinal) {
+        int id = registry.getCode(stat);
+        return id == -1 ? Double.NaN : columns[id][ordinal];
+    }
+
+    public boolean has(int id, int ordinal) {
+        return !Double.isNaN(columns[id][ordinal]);
+    }
+
+    // the live column, read only
+    public double[] getColumn(int id) {
+        return columns[id];
+    }
+
+    public RangeIndex getRangeIndex(int id) {
+        RangeIndex index = rangeIndexes.get(id);
+        if (index == null) {
+            // two threads filtering the same new stat both sort it, and the first one's index is kept
+            rangeIndexes.compareAndSet(id, null, new RangeIndex(columns[id]));
+            index = rangeIndexes.get(id);
+        }
+        return index;
+    }
+
+    // the largest absolute value in the column, 0 when nothing has the stat. dividing by it puts every stat
+    // in -1..1 whatever its unit
+    public double getLargest(int id) {
+        return largest[id];
+    }
+}
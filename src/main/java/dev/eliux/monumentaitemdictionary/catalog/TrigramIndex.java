@@ -0,0 +1,142 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+// substring search over a list of names. names are lowercased once up front, and every three letter run
+// maps to the (ascending) ordinals of the names containing it, so a query only has to check the names
+// sharing its rarest trigram instead of every name.
+// names are indexed with two spaces in front and one behind, so word starts and ends get trigrams of their own.
+// those are what let rankSimilar score a typo'd query against the names it was meant to be
+public class TrigramIndex {
+    private static final int MAX_SIMILAR = 200;
+
+    private final String[] lowerNames;
+    private final HashMap<Long, int[]> postings = new HashMap<>();
+
+    public TrigramIndex(List<String> names) {
+        lowerNames = new String[names.size()];
+        HashMap<Long, Posting> building = new HashMap<>();
+        for (int ordinal = 0; ordinal < lowerNames.length; ordinal++) {
+            String lowerName = names.get(ordinal).toLowerCase();
+            lowerNames[ordinal] = lowerName;
+
+            String padded = pad(lowerName);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                building.computeIfAbsent(trigram(padded, i), k -> new Posting()).add(ordinal);
+            }
+        }
+        building.forEach((trigram, posting) -> postings.put(trigram, Arrays.copyOf(posting.ordinals, posting.size)));
+    }
+
+    public int size() {
+        return lowerNames.length;
+    }
+
+    public String getLowerName(int ordinal) {
+        return lowerNames[ordinal];
+    }
+
+    // ordinals of the names containing lowerQuery
+    public BitSet search(String lowerQuery) {
+        return search(lowerQuery, null);
+    }
+
+    // same, but only looking at the ordinals in within (null for all of them)
+    public BitSet search(String lowerQuery, BitSet within) {
+        BitSet matches = new BitSet(lowerNames.length);
+        if (lowerQuery.length() < 3) {
+            // no trigram to narrow with, just check the (short) candidates directly
+            if (within == null) {
+                for (int ordinal = 0; ordinal < lowerNames.length; ordinal++) {
+                    if (lowerNames[ordinal].contains(lowerQuery)) matches.set(ordinal);
+                }
+            } else {
+                for (int ordinal = within.nextSetBit(0); ordinal >= 0; ordinal = within.nextSetBit(ordinal + 1)) {
+                    if (lowerNames[ordinal].contains(lowerQuery)) matches.set(ordinal);
+                }
+            }
+            return matches;
+        }
+
+        int[] rarest = null;
+        for (int i = 0; i + 3 <= lowerQuery.length(); i++) {
+            int[] posting = postings.get(trigram(lowerQuery, i));
+            if (posting == null) return matches; // some part of the query is in no name at all
+            if (rarest == null || posting.length < rarest.length) rarest = posting;
+        }
+
+        for (int ordinal : rarest) {
+            if ((within == null || within.get(ordinal)) && lowerNames[ordinal].contains(lowerQuery))
+                matches.set(ordinal);
+        }
+        return matches;
+    }
+
+    // ordinals of the names sharing the most trigrams with lowerQuery, best first. a name qualifies when it has
+    // at least minSimilarity of the query's trigrams, ties go to the shorter name (the closer fit), then catalog order
+    public int[] rankSimilar(String lowerQuery, double minSimilarity) {
+        String padded = pad(lowerQuery);
+        ArrayList<int[]> queryPostings = new ArrayList<>();
+        HashSet<Long> seen = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long trigram = trigram(padded, i);
+            if (!seen.add(trigram)) continue;
+
+            int[] posting = postings.get(trigram);
+            queryPostings.add(posting == null ? new int[0] : posting);
+        }
+        int trigramCount = seen.size();
+        if (trigramCount == 0) return new int[0];
+
+        int[] shared = new int[lowerNames.length];
+        int[] touched = new int[lowerNames.length];
+        int touchedCount = 0;
+        for (int[] posting : queryPostings) {
+            for (int ordinal : posting) {
+                if (shared[ordinal]++ == 0) touched[touchedCount++] = ordinal;
+            }
+        }
+
+        // packed so a plain sort puts them in rank order: fewest missing trigrams, then name length, then ordinal
+        int minShared = (int) Math.ceil(minSimilarity * trigramCount);
+        long[] ranked = new long[touchedCount];
+        int rankedCount = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int ordinal = touched[i];
+            if (shared[ordinal] < minShared) continue;
+            long missing = trigramCount - shared[ordinal];
+            ranked[rankedCount++] = (missing << 42) | ((long) Math.min(lowerNames[ordinal].length(), 0xFFFFF) << 21) | ordinal;
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+
+        int[] ordinals = new int[Math.min(rankedCount, MAX_SIMILAR)];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = (int) (ranked[i] & 0x1FFFFF);
+        }
+        return ordinals;
+    }
+
+    private static String pad(String lowerText) {
+        return "  " + lowerText + " ";
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static class Posting {
+        private int[] ordinals = new int[4];
+        private int size = 0;
+
+        private void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) return; // trigram repeats within one name
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+            ordinals[size++] = ordinal;
+        }
+    }
+}
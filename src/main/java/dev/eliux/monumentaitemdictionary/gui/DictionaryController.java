@@ -2,6 +2,11 @@ package dev.eliux.monumentaitemdictionary.gui;
 
 import com.google.gson.*;
 import dev.eliux.monumentaitemdictionary.Mid;
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.CatalogLoader;
+import dev.eliux.monumentaitemdictionary.catalog.FacetDictionary;
+import dev.eliux.monumentaitemdictionary.catalog.StatStore;
+import dev.eliux.monumentaitemdictionary.catalog.TrigramIndex;
 import dev.eliux.monumentaitemdictionary.gui.builder.BuildDictionaryGui;
 import dev.eliux.monumentaitemdictionary.gui.builder.BuildFilterGui;
 import dev.eliux.monumentaitemdictionary.gui.builder.BuilderGui;
@@ -13,11 +18,18 @@ import dev.eliux.monumentaitemdictionary.gui.generator.GeneratorGui;
 import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
 import dev.eliux.monumentaitemdictionary.gui.item.ItemDictionaryGui;
 import dev.eliux.monumentaitemdictionary.gui.item.ItemFilterGui;
+import dev.eliux.monumentaitemdictionary.search.FilterCompiler;
+import dev.eliux.monumentaitemdictionary.search.FilterPipeline;
+import dev.eliux.monumentaitemdictionary.search.NameSearch;
+import dev.eliux.monumentaitemdictionary.search.ResultCache;
+import dev.eliux.monumentaitemdictionary.search.SearchWorker;
+import dev.eliux.monumentaitemdictionary.search.StatScore;
+import dev.eliux.monumentaitemdictionary.search.StatSort;
 import dev.eliux.monumentaitemdictionary.util.*;
 import dev.eliux.monumentaitemdictionary.web.WebManager;
 
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BooleanSupplier;
 
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
@@ -31,6 +43,8 @@ import java.nio.file.Path;
 
 @SuppressWarnings("CallToPrintStackTrace")
 public class DictionaryController {
+    private static final Path ITEM_DATA_PATH = Path.of("config/mid/items.json");
+
     private String itemNameFilter;
     private boolean hasItemNameFilter = false;
     private String charmNameFilter;
@@ -40,26 +54,40 @@ public class DictionaryController {
     private ArrayList<Filter> itemFilters = new ArrayList<>();
     private ArrayList<Filter> charmFilters = new ArrayList<>();
     private ArrayList<Filter> buildFilters = new ArrayList<>();
+    // item and charm searches run on the search thread, only the newest result gets shown
+    private final SearchWorker<ResultCache.Result> itemSearchWorker = new SearchWorker<>();
+    private final SearchWorker<ResultCache.Result> charmSearchWorker = new SearchWorker<>();
+    // only touched on the search thread. compiled from the filter list and catalog next to them,
+    // and compiled again once either of those is replaced
+    private FilterPipeline<DictionaryItem> itemFilterPipeline;
+    private ArrayList<Filter> itemPipelineFilters;
+    private Catalog itemPipelineCatalog;
+    private FilterPipeline<DictionaryCharm> charmFilterPipeline;
+    private ArrayList<Filter> charmPipelineFilters;
+    private Catalog charmPipelineCatalog;
+    private final ResultCache itemResultCache = new ResultCache();
+    private final ResultCache charmResultCache = new ResultCache();
+    // the search bars, each narrowing its previous results while the query only grows.
+    // the item and charm ones are only touched on the search thread
+    private final NameSearch itemNameSearch = new NameSearch();
+    private final NameSearch charmNameSearch = new NameSearch();
+    private final NameSearch buildNameSearch = new NameSearch();
+    private TrigramIndex buildNameSearchIndex; // dropped whenever the builds list changes
+
+    private final CatalogLoader catalogLoader = new CatalogLoader(ITEM_DATA_PATH);
+    // swapped as a whole on the client thread once a load finishes, never edited in place
+    private volatile Catalog catalog = Catalog.EMPTY;
+
+    // typing waits this long for the next key before searching, anything else searches right away
+    public static final long TYPING_DELAY_MILLIS = 75;
+    // with weight filters only the best scoring few are shown, as a shortlist
+    public static final int SCORE_LIMIT = 100;
 
-    private ArrayList<String> allItemTypes;
-    private ArrayList<String> allItemRegions;
-    private ArrayList<String> allItemTiers;
-    private ArrayList<String> allItemLocations;
-    private ArrayList<String> allItemStats;
-    private ArrayList<String> allItemBaseItems;
-
-    private ArrayList<String> allCharmRegions;
-    private ArrayList<String> allCharmTiers;
-    private ArrayList<String> allCharmLocations;
-    private ArrayList<String> allCharmSkillMods;
-    private ArrayList<String> allCharmClasses;
-    private ArrayList<String> allCharmStats;
-    private ArrayList<String> allCharmBaseItems;
-
-    private final ArrayList<DictionaryItem> items;
     private ArrayList<DictionaryItem> validItems;
-    private final ArrayList<DictionaryCharm> charms;
     private ArrayList<DictionaryCharm> validCharms;
+    // the lists are the top SCORE_LIMIT by score and more matched, the screens say so
+    private boolean itemsCapped = false;
+    private boolean charmsCapped = false;
     private ArrayList<DictionaryBuild> builds;
     private ArrayList<DictionaryBuild> validBuilds;
 
@@ -90,17 +118,11 @@ public class DictionaryController {
     public GeneratorGui generatorGui;
 
     public DictionaryController() {
-        items = new ArrayList<>();
         validItems = new ArrayList<>();
-        charms = new ArrayList<>();
         validCharms = new ArrayList<>();
         builds = new ArrayList<>();
         validBuilds = new ArrayList<>();
 
-        loadItems();
-        loadCharms();
-        loadBuilds();
-
         itemGui = new ItemDictionaryGui(Text.literal("Monumenta Item Dictionary"), this);
         itemFilterGui = new ItemFilterGui(Text.literal("Item Filter Menu"), this);
         charmGui = new CharmDictionaryGui(Text.literal("Monumenta Charm Dictionary"), this);
@@ -110,6 +132,9 @@ public class DictionaryController {
         buildFilterGui = new BuildFilterGui(Text.literal("Build Filter Menu"), this);
 
         generatorGui = new GeneratorGui(Text.literal("Item Generator Options"), this);
+
+        // builds are loaded once the catalog is in, since they look items up by name
+        catalogLoader.load().thenAcceptAsync(this::setCatalog, MinecraftClient.getInstance());
     }
 
     public void tick() {
@@ -228,29 +253,6 @@ public class DictionaryController {
         }
     }
 
-    private String readItemData() {
-        try {
-            return Files.readString(Path.of("config/mid/items.json"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return "{}";
-    }
-
-    private void writeItemData(String writeData) {
-        try {
-            File targetFile = new File("config/mid/items.json");
-
-            targetFile.getParentFile().mkdirs();
-            targetFile.createNewFile();
-
-            FileUtils.writeStringToFile(targetFile, writeData, Charset.defaultCharset());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
     public String readJsonBuild() {
         try {
             File buildsFile = new File("config/mid/builds.json");
@@ -281,20 +283,23 @@ public class DictionaryController {
 
         if (isRequesting) return;
         isRequesting = true;
-        WebManager.manageRequestAsynchronous("https://api.playmonumenta.com/itemswithnbt", (data) -> {
-            writeItemData(data);
-            loadItems();
-            itemGui.buildItemList();
-            loadCharms();
-            charmGui.buildCharmList();
+        WebManager.manageConditionalDownloadAsynchronous("https://api.playmonumenta.com/itemswithnbt", ITEM_DATA_PATH, catalogLoader.getValidators(), (validators) -> {
+            catalogLoader.loadDownloaded(validators).thenAcceptAsync(loaded -> {
+                setCatalog(loaded);
+                isRequesting = false;
+
+                Mid.LOGGER.info("Finished Data Request - Success");
+            }, MinecraftClient.getInstance());
+        }, () -> {
+            // items.json is already current, nothing to write or parse
             isRequesting = false;
 
-            Mid.LOGGER.info("Finished Data Request - Success");
+            Mid.LOGGER.info("Finished Data Request - Not Modified");
         }, () -> {
             isRequesting = false;
 
             Mid.LOGGER.info("Finished Data Request - Failure");
-        });
+        }, MinecraftClient.getInstance());
     }
 
     public void loadBuilds() {
@@ -342,272 +347,66 @@ public class DictionaryController {
                  buildsInFile.add(new DictionaryBuild(buildName, buildItems, buildCharms, buildItemToShow, buildRegion, buildClass, buildSpecialization, buildFavorite, id));
             }
             builds = buildsInFile;
+            buildNameSearchIndex = null;
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    public void loadItems() {
-        allItemTypes = new ArrayList<>();
-        allItemRegions = new ArrayList<>();
-        allItemTiers = new ArrayList<>();
-        allItemLocations = new ArrayList<>();
-        allItemStats = new ArrayList<>();
-        allItemBaseItems = new ArrayList<>();
-
-        try {
-            String rawData = readItemData();
-
-            items.clear();
-            JsonObject data = new Gson().fromJson(rawData, JsonObject.class);
-            for (JsonElement itemElement : data.asMap().values()) {
-                JsonObject itemData = (JsonObject) itemElement;
-
-                // Construct item information
-                if (itemData.get("type").getAsString().equals("Charm"))
-                    continue;
-
-                if (!itemData.has("name")) continue; // if this element is not present, skip this item
-                String itemName = itemData.get("name").getAsString();
-
-                if (!itemData.has("type")) continue; // if this element is not present, skip this item
-                String itemType = itemData.get("type").getAsString();
-                if (itemType.equals("Charm"))
-                    continue;
-                if (!allItemTypes.contains(itemType))
-                    allItemTypes.add(itemType);
-
-                String itemRegion = "";
-                JsonPrimitive regionPrimitive = itemData.getAsJsonPrimitive("region");
-                if (regionPrimitive != null) {
-                    itemRegion = regionPrimitive.getAsString();
-
-                    if (!allItemRegions.contains(itemRegion))
-                        allItemRegions.add(itemRegion);
-                }
-
-                String itemTier = "";
-                JsonPrimitive tierPrimitive = itemData.getAsJsonPrimitive("tier");
-                if (tierPrimitive != null) {
-                    List<String> plainSplit = Arrays.asList(tierPrimitive.getAsString().replace("_", " ").split(" ")); // janky code to patch Event Currency appearing as Event_currency and other future similar events
-                    StringBuilder formattedSplit = new StringBuilder();
-                    for (String s : plainSplit) {
-                        if (!s.isEmpty())
-                            formattedSplit.append(s.substring(0, 1).toUpperCase()).append(s.substring(1).toLowerCase());
-                        if (plainSplit.indexOf(s) != plainSplit.size() - 1)
-                            formattedSplit.append(" ");
-                    }
-                    itemTier = formattedSplit.toString();
-
-                    if (!allItemTiers.contains(itemTier))
-                        allItemTiers.add(itemTier);
-                }
-
-                String itemLocation = "";
-                JsonPrimitive locationPrimitive = itemData.getAsJsonPrimitive("location");
-                if (locationPrimitive != null) {
-                    itemLocation = locationPrimitive.getAsString();
-
-                    if (!allItemLocations.contains(itemLocation))
-                        allItemLocations.add(itemLocation);
-                }
-
-                int fishTier = -1;
-                boolean isFish = false;
-                JsonPrimitive fishQualityPrimitive = itemData.getAsJsonPrimitive("fish_quality");
-                if (fishQualityPrimitive != null) {
-                    fishTier = fishQualityPrimitive.getAsInt();
-                    isFish = true;
-                }
-
-                if (!itemData.has("base_item")) continue; // if this element is not present, skip this item
-                String itemBaseItem = itemData.get("base_item").getAsString();
-                if (!allItemBaseItems.contains(itemBaseItem))
-                    allItemBaseItems.add(itemBaseItem);
-
-                String itemLore = "";
-                JsonPrimitive lorePrimitive = itemData.getAsJsonPrimitive("lore");
-                if (lorePrimitive != null) {
-                    itemLore = lorePrimitive.getAsString();
-                }
-
-                ArrayList<ItemStat> itemStats = new ArrayList<>();
-                JsonObject statObject = itemData.get("stats").getAsJsonObject();
-                for (Map.Entry<String, JsonElement> statEntry : statObject.entrySet()) {
-                    String statKey = statEntry.getKey();
-                    if (ItemFormatter.isHiddenStat(statKey)) continue;
-
-                    itemStats.add(new ItemStat(statKey, statEntry.getValue().getAsDouble()));
-
-                    if (!allItemStats.contains(statKey))
-                        allItemStats.add(statKey);
-                }
-
-                String itemNbt = "";
-                JsonPrimitive nbtPrimitive = itemData.getAsJsonPrimitive("nbt");
-                if (nbtPrimitive != null) {
-                    itemNbt = nbtPrimitive.getAsString();
-                }
-
-                // Build the item
-                JsonPrimitive masterworkPrimitive = itemData.getAsJsonPrimitive("masterwork");
-                if (masterworkPrimitive != null) {
-                    // if the item has masterwork
-                    // attempt to add a tier to the item
-                    boolean hasItem = false;
-                    for (DictionaryItem dictionaryItem : items) {
-                        if (dictionaryItem.name.equals(itemName) && masterworkPrimitive.getAsInt() <= ItemFormatter.getMasterworkForRarity(itemTier)) {
-                            // if the item already exists
-                            hasItem = true;
-                            dictionaryItem.addMasterworkTier(itemTier, itemStats, itemNbt, masterworkPrimitive.getAsInt());
-                        }
-                    }
-                    if (!hasItem) {
-                        // if the item does not already exist
-                        ArrayList<String> totalTierList = new ArrayList<>();
-                        ArrayList<ArrayList<ItemStat>> totalStatsList = new ArrayList<>();
-                        ArrayList<String> totalNbtList = new ArrayList<>();
-                        for (int i = 0; i < ItemFormatter.getMasterworkForRarity(itemTier) + 1; i++) {
-                            totalTierList.add(null);
-                            totalStatsList.add(null);
-                            totalNbtList.add(null);
-                        }
-                        int level = masterworkPrimitive.getAsInt();
-                        if (level <= ItemFormatter.getMasterworkForRarity(itemTier)) { // prevent adding a tier above the believed cap
-                            totalTierList.set(level, itemTier);
-                            totalStatsList.set(level, itemStats);
-                            totalNbtList.set(level, itemNbt);
-                            items.add(new DictionaryItem(itemName, itemType, itemRegion, totalTierList, itemLocation, fishTier, isFish, itemBaseItem, itemLore, totalNbtList, totalStatsList, true));
-                        }
-                    }
-                } else {
-                    // if the item does not have masterwork
-                    ArrayList<String> totalTierList = new ArrayList<>();
-                    totalTierList.add(itemTier);
-                    ArrayList<ArrayList<ItemStat>> totalStatsList = new ArrayList<>();
-                    totalStatsList.add(itemStats);
-                    ArrayList<String> totalNbtList = new ArrayList<>();
-                    totalNbtList.add(itemNbt);
-                    items.add(new DictionaryItem(itemName, itemType, itemRegion, totalTierList, itemLocation, fishTier, isFish, itemBaseItem, itemLore, totalNbtList, totalStatsList, false));
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            itemLoadFailed = true;
+    // only ever called on the client thread, so the gui never sees a half built catalog
+    private void setCatalog(Catalog loaded) {
+        boolean firstLoad = catalog == Catalog.EMPTY;
+        catalog = loaded;
+        itemLoadFailed = loaded.itemLoadFailed();
+        charmLoadFailed = loaded.charmLoadFailed();
+
+        // unchanged entries are the same instances as before, so a list the diff doesn't touch is still right, and
+        // the grids keep the widgets of entries that come back at the same place
+        if (!firstLoad) {
+            Mid.LOGGER.info("Item data changed: " + loaded.diff);
+            // the result caches are dropped on the next search anyway, so this is when to say how they did
+            Mid.LOGGER.info("Result cache so far: items " + itemResultCache.getHits() + " hits / " + itemResultCache.getMisses()
+                    + " misses, charms " + charmResultCache.getHits() + " hits / " + charmResultCache.getMisses() + " misses");
+            Mid.LOGGER.info("Icon cache so far: " + ItemFactory.getIconStats());
+            if (loaded.diff.isEmpty()) return;
+            itemGui.forgetChangedLore(loaded.diff);
+            charmGui.forgetChangedLore(loaded.diff);
         }
 
-        items.sort(DictionaryItem::compareTo);
+        if (firstLoad || loaded.diff.hasItemChanges()) itemGui.buildItemList();
+        if (firstLoad || loaded.diff.hasCharmChanges()) charmGui.buildCharmList();
+        if (buildDictionaryGuiPreviouslyOpened)
+            buildDictionaryGui.buildBuildsList(); // reloads the builds itself
+        else
+            loadBuilds();
     }
 
-    public void loadCharms() {
-        allCharmRegions = new ArrayList<>();
-        allCharmTiers = new ArrayList<>();
-        allCharmLocations = new ArrayList<>();
-        allCharmSkillMods = new ArrayList<>();
-        allCharmClasses = new ArrayList<>();
-        allCharmStats = new ArrayList<>();
-        allCharmBaseItems = new ArrayList<>();
-
-        try {
-            String rawData = readItemData();
-
-            charms.clear();
-            JsonObject data = new Gson().fromJson(rawData, JsonObject.class);
-            for (JsonElement charmElement : data.asMap().values()) {
-                JsonObject charmData = (JsonObject) charmElement;
-
-                // Construct charm information
-                if (!charmData.get("type").getAsString().equals("Charm"))
-                    continue;
-
-                if (!charmData.has("name")) continue; // if this element is not present, skip this item
-                String charmName = charmData.get("name").getAsString();
-
-                // only one region for charms, for now
-                String charmRegion = "Architect's Ring";
-                if (!allCharmRegions.contains(charmRegion))
-                    allCharmRegions.add(charmRegion);
-
-                if (!charmData.has("location")) continue; // if this element is not present, skip this item
-                String charmLocation = charmData.get("location").getAsString();
-                if (!allCharmLocations.contains(charmLocation))
-                    allCharmLocations.add(charmLocation);
-
-                if (!charmData.has("tier")) continue; // if this element is not present, skip this item
-                String charmTier = charmData.get("tier").getAsString().replace("_", " ");
-                if (!allCharmTiers.contains(charmTier))
-                    allCharmTiers.add(charmTier);
-
-                if (!charmData.has("power")) continue; // if this element is not present, skip this item
-                int charmPower = charmData.get("power").getAsInt();
-
-
-                if (!charmData.has("class_name")) continue; // if this element is not present, skip this item
-                String charmClass = charmData.get("class_name").getAsString();
-                if (!allCharmClasses.contains(charmClass))
-                    allCharmClasses.add(charmClass);
-
-                if (!charmData.has("base_item")) continue; // if this element is not present, skip this item
-                String charmBaseItem = charmData.get("base_item").getAsString();
-                if (!allCharmBaseItems.contains(charmBaseItem))
-                    allCharmBaseItems.add(charmBaseItem);
-
-                String charmNbt = "";
-                if (charmData.has("nbt")) {
-                    charmNbt = charmData.get("nbt").getAsString();
-                }
-
-                ArrayList<CharmStat> charmStats = new ArrayList<>();
-                JsonObject statObject = charmData.get("stats").getAsJsonObject();
-                for (Map.Entry<String, JsonElement> statEntry : statObject.entrySet()) {
-                    String statKey = statEntry.getKey();
-                    String skillMod = ItemFormatter.getSkillFromCharmStat(statKey);
-                    if (!allCharmSkillMods.contains(skillMod))
-                        allCharmSkillMods.add(skillMod);
-
-                    charmStats.add(new CharmStat(statKey, skillMod, statEntry.getValue().getAsDouble()));
-
-                    if (!allCharmStats.contains(statKey))
-                        allCharmStats.add(statKey);
-                }
-
-                charms.add(new DictionaryCharm(charmName, charmRegion, charmLocation, charmTier, charmPower, charmClass, charmBaseItem, charmNbt, charmStats));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            charmLoadFailed = true;
-        }
-
-        charms.sort((o1, o2) -> {
-            if (!o1.tier.equals(o2.tier)) {
-                return -(ItemFormatter.getNumberForTier(o1.tier) - ItemFormatter.getNumberForTier(o2.tier));
-            }
-            return 0;
-        });
+    public Catalog getCatalog() {
+        return catalog;
     }
 
-    public ArrayList<String> getAllItemTypes() {
-        return allItemTypes;
+    public FacetDictionary getAllItemTypes() {
+        return catalog.getAllItemTypes();
     }
 
-    public ArrayList<String> getAllItemRegions() {
-        return allItemRegions;
+    public FacetDictionary getAllItemRegions() {
+        return catalog.getAllItemRegions();
     }
 
-    public ArrayList<String> getAllItemTiers() {
-        return allItemTiers;
+    public FacetDictionary getAllItemTiers() {
+        return catalog.getAllItemTiers();
     }
 
-    public ArrayList<String> getAllItemLocations() {
-        return allItemLocations;
+    public FacetDictionary getAllItemLocations() {
+        return catalog.getAllItemLocations();
     }
 
-    public ArrayList<String> getAllItemStats() {
-        return allItemStats;
+    public FacetDictionary getAllItemStats() {
+        return catalog.getAllItemStats();
     }
 
-    public ArrayList<String> getAllItemBaseItems() {
-        return allItemBaseItems;
+    public FacetDictionary getAllItemBaseItems() {
+        return catalog.getAllItemBaseItems();
     }
 
     public void setItemNameFilter(String nameFilter) {
@@ -627,26 +426,26 @@ public class DictionaryController {
     }
 
     public void updateItemFilters(ArrayList<Filter> filters) {
-        itemFilters = new ArrayList<>(filters);
+        itemFilters = copyFilters(filters);
     }
     public void updateBuildFilters(ArrayList<Filter> filters){
         buildFilters = new ArrayList<>(filters);
     }
 
-    public ArrayList<String> getAllCharmTiers() {
-        return allCharmTiers;
+    public FacetDictionary getAllCharmTiers() {
+        return catalog.getAllCharmTiers();
     }
 
-    public ArrayList<String> getAllCharmLocations() {
-        return allCharmLocations;
+    public FacetDictionary getAllCharmLocations() {
+        return catalog.getAllCharmLocations();
     }
 
-    public ArrayList<String> getAllCharmSkillMods() {
-        return allCharmSkillMods;
+    public FacetDictionary getAllCharmSkillMods() {
+        return catalog.getAllCharmSkillMods();
     }
 
-    public ArrayList<String> getAllCharmClasses() {
-        return allCharmClasses;
+    public FacetDictionary getAllCharmClasses() {
+        return catalog.getAllCharmClasses();
     }
 
     public ArrayList<String> getAllSpecializations() {
@@ -670,12 +469,12 @@ public class DictionaryController {
         ));
     }
 
-    public ArrayList<String> getAllCharmStats() {
-        return allCharmStats;
+    public FacetDictionary getAllCharmStats() {
+        return catalog.getAllCharmStats();
     }
 
-    public ArrayList<String> getAllCharmBaseItems() {
-        return allCharmBaseItems;
+    public FacetDictionary getAllCharmBaseItems() {
+        return catalog.getAllCharmBaseItems();
     }
 
     public void setCharmNameFilter(String nameFilter) {
@@ -688,210 +487,151 @@ public class DictionaryController {
     }
 
     public void updateCharmFilters(ArrayList<Filter> filters) {
-        charmFilters = new ArrayList<>(filters);
+        charmFilters = copyFilters(filters);
     }
-    public void refreshItems() {
-        ArrayList<DictionaryItem> filteredItems = new ArrayList<>(items);
 
-        for (Filter filter : itemFilters) {
-            if (filter != null) {
-                switch (filter.getOption()) {
-                    case "Stat" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredItems.removeIf(i -> !i.hasStat(filter.value));
-                                case 1 -> filteredItems.removeIf(i -> i.hasStat(filter.value));
-                                case 2 ->
-                                        filteredItems.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) >= filter.constant));
-                                case 3 ->
-                                        filteredItems.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) > filter.constant));
-                                case 4 ->
-                                        filteredItems.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) == filter.constant));
-                                case 5 ->
-                                        filteredItems.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) <= filter.constant));
-                                case 6 ->
-                                        filteredItems.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) < filter.constant));
-                            }
-                        }
-                    }
-                    case "Tier" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredItems.removeIf(i -> !i.hasTier() || !i.tier.contains(filter.value));
-                                case 1 -> filteredItems.removeIf(i -> i.hasTier() && i.tier.contains(filter.value));
-                            }
-                        }
-                    }
-                    case "Region" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredItems.removeIf(i -> !i.hasRegion() || !i.region.equals(filter.value));
-                                case 1 -> filteredItems.removeIf(i -> i.hasRegion() && i.region.equals(filter.value));
-                            }
-                        }
-                    }
-                    case "Type" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredItems.removeIf(i -> !i.type.equals(filter.value));
-                                case 1 -> filteredItems.removeIf(i -> i.type.equals(filter.value));
-                            }
-                        }
-                    }
-                    case "Location" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 ->
-                                        filteredItems.removeIf(i -> !i.hasLocation() || !i.location.equals(filter.value));
-                                case 1 ->
-                                        filteredItems.removeIf(i -> i.hasLocation() && i.location.equals(filter.value));
-                            }
-                        }
-                    }
-                    case "Base Item" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredItems.removeIf(i -> !i.baseItem.equals(filter.value));
-                                case 1 -> filteredItems.removeIf(i -> i.baseItem.equals(filter.value));
-                            }
-                        }
-                    }
-                }
+    // the filter screens edit their filters in place, the search thread must only ever see finished copies
+    private static ArrayList<Filter> copyFilters(ArrayList<Filter> filters) {
+        ArrayList<Filter> copies = new ArrayList<>(filters.size());
+        for (Filter filter : filters) {
+            if (filter == null) {
+                copies.add(null);
+                continue;
             }
+            Filter copy = new Filter(filter.getOption(), filter.value, filter.comparator, filter.constant);
+            copy.or = filter.or;
+            copy.not = filter.not;
+            copies.add(copy);
         }
+        return copies;
+    }
 
-        if (hasItemNameFilter)
-            filteredItems.removeIf(i -> !i.name.toLowerCase().contains(itemNameFilter.toLowerCase()));
+    // everything the search needs is read here on the client thread, the search itself never looks at the controller's fields
+    public void refreshItems(long delayMillis) {
+        Catalog catalog = this.catalog;
+        ArrayList<Filter> filters = itemFilters;
+        String nameFilter = hasItemNameFilter ? itemNameFilter : null;
+        String typeLookingFor = itemGui.isGettingBuildItem ? itemGui.itemTypeLookingFor : null;
 
+        itemSearchWorker.request(delayMillis, stale -> searchItems(catalog, filters, nameFilter, typeLookingFor, stale), result -> {
+            validItems = FilterPipeline.pick(catalog.getItems(), result.ordinals);
+            itemsCapped = result.capped;
+            itemGui.showItemList();
+        }, MinecraftClient.getInstance());
+    }
 
-        if (itemGui.isGettingBuildItem) {
-            if (itemGui.itemTypeLookingFor.equals("Mainhand")) {
-                filteredItems.removeIf(i -> !i.type.equals("Mainhand") && !i.type.equals("Mainhand Sword") && !i.type.equals("Mainhand Shield") && !i.type.equals("Wand") && !i.type.equals("Axe") && !i.type.equals("Pickaxe") && !i.type.equals("Trident") && !i.type.equals("Snowball") && !i.type.equals("Shovel") && !i.type.equals("Scythe") && !i.type.equals("Bow") && !i.type.equals("Crossbow"));
-            } else if (itemGui.itemTypeLookingFor.equals("Offhand")) {
-                filteredItems.removeIf(i -> !i.type.equals("Offhand") && !i.type.equals("Offhand Sword") && !i.type.equals("Offhand Shield"));
-            } else {
-                filteredItems.removeIf(i -> !i.type.equals(itemGui.itemTypeLookingFor));
-            }
-        }
+    private ResultCache.Result searchItems(Catalog catalog, ArrayList<Filter> filters, String nameFilter, String typeLookingFor, BooleanSupplier stale) {
+        String cacheKey = ResultCache.key(filters, nameFilter, typeLookingFor);
+        ResultCache.Result cached = itemResultCache.get(catalog.version, cacheKey);
+        if (cached != null) return cached;
 
-        filteredItems.sort((o1, o2) -> {
-            for (Filter f : itemFilters) {
-                if (f.getOption().equals("Stat")) {
-                    double val = o2.getStat(f.value) - o1.getStat(f.value);
+        if (itemFilterPipeline == null || itemPipelineFilters != filters || itemPipelineCatalog != catalog) {
+            itemFilterPipeline = FilterCompiler.compileItemFilters(filters, catalog);
+            itemPipelineFilters = filters;
+            itemPipelineCatalog = catalog;
+        }
 
-                    if (val == 0)
-                        continue;
+        FilterPipeline<DictionaryItem> pipeline = itemFilterPipeline;
+        int[] similar = null;
+        if (nameFilter != null) {
+            BitSet nameMatches = itemNameSearch.search(catalog.getItemNameSearchIndex(), nameFilter);
+            // no name contains the query, likely a typo, so show the closest names ranked instead
+            if (nameMatches.isEmpty())
+                similar = itemNameSearch.similar(catalog.getItemNameSearchIndex(), nameFilter);
+            else
+                pipeline = pipeline.withOnly(nameMatches);
+        }
 
-                    if (val > 0) return 1;
-                    if (val < 0) return -1;
-                }
+        if (typeLookingFor != null) {
+            if (typeLookingFor.equals("Mainhand")) {
+                pipeline = pipeline.with(FilterPipeline.COST_FIELD, i -> i.type.equals("Mainhand") || i.type.equals("Mainhand Sword") || i.type.equals("Mainhand Shield") || i.type.equals("Wand") || i.type.equals("Axe") || i.type.equals("Pickaxe") || i.type.equals("Trident") || i.type.equals("Snowball") || i.type.equals("Shovel") || i.type.equals("Scythe") || i.type.equals("Bow") || i.type.equals("Crossbow"));
+            } else if (typeLookingFor.equals("Offhand")) {
+                pipeline = pipeline.with(FilterPipeline.COST_FIELD, i -> i.type.equals("Offhand") || i.type.equals("Offhand Sword") || i.type.equals("Offhand Shield"));
+            } else {
+                pipeline = pipeline.with(FilterPipeline.COST_FIELD, i -> i.type.equals(typeLookingFor));
             }
-            return 0;
-        });
+        }
+        if (stale.getAsBoolean()) return null;
 
-        validItems = filteredItems;
+        ResultCache.Result result;
+        if (similar != null) {
+            result = new ResultCache.Result(pipeline.select(catalog.getItems(), similar), false);
+        } else {
+            int[] matching = pipeline.select(catalog.getItems());
+            if (stale.getAsBoolean()) return null;
+            result = sort(matching, catalog.getItemStats(), filters);
+        }
+        itemResultCache.put(cacheKey, result);
+        return result;
     }
 
-    public void refreshCharms() {
-        ArrayList<DictionaryCharm> filteredCharms = new ArrayList<>(charms);
+    public void refreshCharms(long delayMillis) {
+        Catalog catalog = this.catalog;
+        ArrayList<Filter> filters = charmFilters;
+        String nameFilter = hasCharmNameFilter ? charmNameFilter : null;
 
-        for (Filter filter : charmFilters) {
-            if (filter != null) {
-                switch (filter.getOption()) {
-                    case "Stat" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredCharms.removeIf(i -> !i.hasStat(filter.value));
-                                case 1 -> filteredCharms.removeIf(i -> i.hasStat(filter.value));
-                                case 2 ->
-                                        filteredCharms.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) >= filter.constant));
-                                case 3 ->
-                                        filteredCharms.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) > filter.constant));
-                                case 4 ->
-                                        filteredCharms.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) == filter.constant));
-                                case 5 ->
-                                        filteredCharms.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) <= filter.constant));
-                                case 6 ->
-                                        filteredCharms.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) < filter.constant));
-                            }
-                        }
-                    }
-                    case "Tier" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredCharms.removeIf(i -> !i.tier.equals(filter.value));
-                                case 1 -> filteredCharms.removeIf(i -> i.tier.equals(filter.value));
-                            }
-                        }
-                    }
-                    case "Class" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredCharms.removeIf(i -> !i.className.equals(filter.value));
-                                case 1 -> filteredCharms.removeIf(i -> i.className.equals(filter.value));
-                            }
-                        }
-                    }
-                    case "Skill Modifier" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredCharms.removeIf(i -> !i.hasStatModifier(filter.value));
-                                case 1 -> filteredCharms.removeIf(i -> i.hasStatModifier(filter.value));
-                            }
-                        }
-                    }
-                    case "Charm Power" -> {
-                        switch (filter.comparator) {
-                            case 2 -> filteredCharms.removeIf(i -> !(i.power >= filter.constant));
-                            case 3 -> filteredCharms.removeIf(i -> !(i.power > filter.constant));
-                            case 4 -> filteredCharms.removeIf(i -> !(i.power == filter.constant));
-                            case 5 -> filteredCharms.removeIf(i -> !(i.power <= filter.constant));
-                            case 6 -> filteredCharms.removeIf(i -> !(i.power < filter.constant));
-                        }
-                    }
-                    case "Location" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredCharms.removeIf(i -> !i.location.equals(filter.value));
-                                case 1 -> filteredCharms.removeIf(i -> i.location.equals(filter.value));
-                            }
-                        }
-                    }
-                    case "Base Item" -> {
-                        if (!filter.value.isEmpty()) {
-                            switch (filter.comparator) {
-                                case 0 -> filteredCharms.removeIf(i -> !i.baseItem.equals(filter.value));
-                                case 1 -> filteredCharms.removeIf(i -> i.baseItem.equals(filter.value));
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        charmSearchWorker.request(delayMillis, stale -> searchCharms(catalog, filters, nameFilter, stale), result -> {
+            validCharms = FilterPipeline.pick(catalog.getCharms(), result.ordinals);
+            charmsCapped = result.capped;
+            charmGui.showCharmList();
+        }, MinecraftClient.getInstance());
+    }
 
-        if (hasCharmNameFilter)
-            filteredCharms.removeIf(i -> !i.name.toLowerCase().contains(charmNameFilter.toLowerCase()));
+    private ResultCache.Result searchCharms(Catalog catalog, ArrayList<Filter> filters, String nameFilter, BooleanSupplier stale) {
+        String cacheKey = ResultCache.key(filters, nameFilter, null);
+        ResultCache.Result cached = charmResultCache.get(catalog.version, cacheKey);
+        if (cached != null) return cached;
 
-        filteredCharms.sort((o1, o2) -> {
-            for (Filter f : charmFilters) {
-                if (f.getOption().equals("Stat")) {
-                    double val = o2.getStat(f.value) - o1.getStat(f.value);
+        if (charmFilterPipeline == null || charmPipelineFilters != filters || charmPipelineCatalog != catalog) {
+            charmFilterPipeline = FilterCompiler.compileCharmFilters(filters, catalog);
+            charmPipelineFilters = filters;
+            charmPipelineCatalog = catalog;
+        }
 
-                    if (val == 0)
-                        continue;
+        FilterPipeline<DictionaryCharm> pipeline = charmFilterPipeline;
+        int[] similar = null;
+        if (nameFilter != null) {
+            BitSet nameMatches = charmNameSearch.search(catalog.getCharmNameSearchIndex(), nameFilter);
+            if (nameMatches.isEmpty())
+                similar = charmNameSearch.similar(catalog.getCharmNameSearchIndex(), nameFilter);
+            else
+                pipeline = pipeline.withOnly(nameMatches);
+        }
+        if (stale.getAsBoolean()) return null;
 
-                    if (val < 0) return -1;
-                    if (val > 0) return 1;
-                }
-            }
-            return 0;
-        });
+        ResultCache.Result result;
+        if (similar != null) {
+            result = new ResultCache.Result(pipeline.select(catalog.getCharms(), similar), false);
+        } else {
+            int[] matching = pipeline.select(catalog.getCharms());
+            if (stale.getAsBoolean()) return null;
+            result = sort(matching, catalog.getCharmStats(), filters);
+        }
+        charmResultCache.put(cacheKey, result);
+        return result;
+    }
 
-        validCharms = filteredCharms;
+    // weight rows rank by score and keep the best SCORE_LIMIT, otherwise the stat rows decide the order
+    private static ResultCache.Result sort(int[] matching, StatStore stats, ArrayList<Filter> filters) {
+        StatScore score = new StatScore(stats, filters);
+        if (score.isEmpty()) return new ResultCache.Result(new StatSort(matching, stats, filters).sorted(), false);
+        return new ResultCache.Result(score.top(matching, SCORE_LIMIT), matching.length > SCORE_LIMIT);
     }
 
     public void refreshBuilds() {
-        ArrayList<DictionaryBuild> filteredBuilds = new ArrayList<>(builds);
+        ArrayList<DictionaryBuild> filteredBuilds;
+        if (hasBuildNameFilter) {
+            if (buildNameSearchIndex == null)
+                buildNameSearchIndex = new TrigramIndex(builds.stream().map(build -> build.name).toList());
+            BitSet matches = buildNameSearch.search(buildNameSearchIndex, buildNameFilter);
+
+            filteredBuilds = new ArrayList<>();
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                filteredBuilds.add(builds.get(i));
+            }
+        } else {
+            filteredBuilds = new ArrayList<>(builds);
+        }
 
         for (Filter filter : buildFilters) {
             if (filter != null) {
@@ -924,8 +664,6 @@ public class DictionaryController {
             }
         }
 
-        if (hasBuildNameFilter) filteredBuilds.removeIf(build -> !build.name.toLowerCase().contains(buildNameFilter.toLowerCase()));
-
         filteredBuilds.sort((b1, b2) -> {
             if (b1.favorite && b2.favorite) return 0;
             else if (b1.favorite) return -1;
@@ -943,42 +681,46 @@ public class DictionaryController {
         return validCharms;
     }
 
+    public boolean areItemsCapped() {
+        return itemsCapped;
+    }
+
+    public boolean areCharmsCapped() {
+        return charmsCapped;
+    }
+
+    public ResultCache getItemResultCache() {
+        return itemResultCache;
+    }
+
+    public ResultCache getCharmResultCache() {
+        return charmResultCache;
+    }
+
     public ArrayList<DictionaryBuild> getBuilds() {
         return validBuilds;
     }
     public void addBuild(DictionaryBuild build) {
         builds.add(build);
+        buildNameSearchIndex = null;
     }
 
     public boolean anyItems() {
-        return items.isEmpty();
+        return catalog.getItems().isEmpty();
     }
 
     public boolean anyCharms() {
-        return charms.isEmpty();
+        return catalog.getCharms().isEmpty();
     }
 
     public DictionaryItem getItemByName(String itemName, boolean isExalted) {
-        List<DictionaryItem> possibleItems = new ArrayList<>();
-        for (DictionaryItem item : items) {
-            if (item.name.equals(itemName)) {
-                possibleItems.add(item);
-            }
-        }
+        return catalog.getItemNameIndex().find(itemName, isExalted);
+    }
 
-        if (possibleItems.size() == 1) {
-            return possibleItems.get(0);
-        } else if (possibleItems.size() > 1) {
-            for (DictionaryItem item : possibleItems) {
-                if (isExalted && item.region.equals("Ring")) {
-                    return item;
-                } else if (!isExalted && !item.region.equals("Ring")) {
-                    return item;
-                }
-            }
-        }
-        return null;
+    public boolean isItemExalted(DictionaryItem item) {
+        return catalog.getItemNameIndex().isExalted(item);
     }
+
     public DictionaryCharm getCharmByWeirdName(String rawCharm) {
         String[] rawCharmParts = rawCharm.split("-");
 
@@ -987,7 +729,7 @@ public class DictionaryController {
         int power = Integer.parseInt(rawCharmParts[2]);
         String classLetter = rawCharmParts[3];
 
-        for (DictionaryCharm charm : charms) {
+        for (DictionaryCharm charm : catalog.getCharms()) {
             String name = charm.name;
             if (name.substring(0, 3).equals(preffix) && name.contains(suffix) && charm.power == power && charm.className.startsWith(classLetter)) {
                 return charm;
@@ -997,7 +739,7 @@ public class DictionaryController {
     }
 
     public DictionaryCharm getCharmByName(String charmName) {
-        for (DictionaryCharm charm : charms) {
+        for (DictionaryCharm charm : catalog.getCharms()) {
             String name = charm.name;
             if (name.equals(charmName)) {
                 return charm;
@@ -1069,6 +811,7 @@ public class DictionaryController {
 
             FileUtils.writeStringToFile(file, fileBuilds.toString(), Charset.defaultCharset());
             builds.removeIf(build -> build.id == id);
+            buildNameSearchIndex = null;
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -6,7 +6,9 @@ import dev.eliux.monumentaitemdictionary.gui.DictionaryController;
 import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
 import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
 import dev.eliux.monumentaitemdictionary.gui.widgets.BuildButtonWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.GridLayout;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemIconButtonWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.VirtualGrid;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.TextFieldWidget;
@@ -27,7 +29,9 @@ public class BuildDictionaryGui extends Screen {
     private long lastAltPressed = 0;
     public final DictionaryController controller;
     public ArrayList<DictionaryBuild> buildsList;
-    public HashMap<DictionaryBuild, BuildButtonWidget> buildsButtons = new HashMap<>();
+    private final VirtualGrid<DictionaryBuild, BuildButtonWidget> buildGrid = new VirtualGrid<>(new GridLayout(itemSize, itemSize, itemPadding, 0, labelMenuHeight),
+            () -> new BuildButtonWidget(itemSize, b -> buildButtonClicked((BuildButtonWidget) b), this),
+            (button, build, index) -> button.setBuild(build));
     private TextFieldWidget searchBar;
     private ItemIconButtonWidget filterButton;
     public final List<String> itemTypesIndex = Arrays.asList("Mainhand", "Offhand", "Helmet", "Chestplate", "Leggings", "Boots");
@@ -89,32 +93,21 @@ public class BuildDictionaryGui extends Screen {
         controller.refreshBuilds();
         buildsList = controller.getBuilds();
 
-        buildsButtons.clear();
-        for (DictionaryBuild build : buildsList) {
-            BuildButtonWidget button = getBuildButtonWidget(build);
-            buildsButtons.put(build, button);
-        }
+        // widgets only for the builds that fit on screen, bound as the grid updates
+        buildGrid.setWidth(width - sideMenuWidth - 5);
+        buildGrid.setEntries(buildsList);
+        buildGrid.update(0, height - labelMenuHeight);
     }
 
-    private BuildButtonWidget getBuildButtonWidget(DictionaryBuild build) {
-        int index = buildsList.indexOf(build);
-        int row = index / ((width - sideMenuWidth - 5) / (itemSize + itemPadding));
-        int col = index % ((width - sideMenuWidth - 5) / (itemSize + itemPadding));
-
-        int x = (col + 1) * itemPadding + col * itemSize;
-        int y = labelMenuHeight + (row + 1) * itemPadding + row * itemSize;
-
-        return new BuildButtonWidget(x, y, itemSize, Text.literal(build.name), b -> buildButtonClicked(build), build,
-                this);
-    }
+    private void buildButtonClicked(BuildButtonWidget button) {
+        DictionaryBuild build = button.getBuild();
 
-    private void buildButtonClicked(DictionaryBuild build) {
         if (hasShiftDown() && hasControlDown()) {
             controller.deleteBuildFromJson(build.id);
             buildsList.remove(build);
         } else if (hasShiftDown()){
             toggleFavorite(build);
-            buildsButtons.get(build).updateFavorite();
+            button.updateFavorite();
             controller.refreshBuilds();
         }else {
             controller.setBuilderScreen();
@@ -141,9 +134,10 @@ public class BuildDictionaryGui extends Screen {
         drawVerticalLine(matrices, width - sideMenuWidth - 1, labelMenuHeight, height, 0x77AAAAAA); // called twice to make the scroll bar render wider (janky, but I don't really care)
         drawVerticalLine(matrices, width - sideMenuWidth - 2, labelMenuHeight, height, 0x77AAAAAA);
 
-        buildsButtons.forEach((build, button) -> button.renderButton(matrices, mouseX, mouseY, delta));
+        buildGrid.update(0, height - labelMenuHeight);
+        buildGrid.forEachShown(button -> button.renderButton(matrices, mouseX, mouseY, delta));
 
-        if (buildsButtons.isEmpty()) {
+        if (buildGrid.isEmpty()) {
             drawCenteredTextWithShadow(matrices, textRenderer, "Found No Builds", width / 2, labelMenuHeight + 10, 0xFF2222);
         }
 
@@ -166,14 +160,16 @@ public class BuildDictionaryGui extends Screen {
     @Override
     public void resize(MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
-        updateGuiPositions();
+        // same builds, they only move
+        updateWidgetPositions();
     }
 
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
         super.mouseClicked(mouseX, mouseY, button);
 
-        buildsButtons.forEach((build, b) -> b.mouseClicked(mouseX, mouseY, button));
+        BuildButtonWidget clicked = buildGrid.getShownAt(mouseX, mouseY);
+        if (clicked != null) clicked.mouseClicked(mouseX, mouseY, button);
         buildBuildsList();
 
         addBuildButton.mouseClicked(mouseX, mouseY, button);
@@ -187,6 +183,12 @@ public class BuildDictionaryGui extends Screen {
 
     public void updateGuiPositions() {
         buildBuildsList();
+        updateWidgetPositions();
+    }
+
+    private void updateWidgetPositions() {
+        buildGrid.setWidth(width - sideMenuWidth - 5);
+
         showItemsButton.setX(width - sideMenuWidth + 10);
         showItemsButton.setY(labelMenuHeight + 10);
 
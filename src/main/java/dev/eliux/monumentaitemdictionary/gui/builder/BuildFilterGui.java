@@ -2,6 +2,7 @@ package dev.eliux.monumentaitemdictionary.gui.builder;
 
 import dev.eliux.monumentaitemdictionary.gui.DictionaryController;
 import dev.eliux.monumentaitemdictionary.gui.widgets.DropdownWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.GridLayout;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemIconButtonWidget;
 import dev.eliux.monumentaitemdictionary.util.Filter;
 import net.minecraft.client.MinecraftClient;
@@ -28,6 +29,7 @@ public class BuildFilterGui extends Screen {
     private final ArrayList<ItemIconButtonWidget> filterListDelete;
     private final ArrayList<Filter> buildFilters = new ArrayList<>();
     private final int labelMenuHeight = 30;
+    private final GridLayout filterRows = new GridLayout(0, 20, 5, 0, labelMenuHeight); // one column, only the rows are used
     private int removeIndex = -1;
 
     public BuildFilterGui(Text title, DictionaryController controller) {
@@ -87,12 +89,12 @@ public class BuildFilterGui extends Screen {
                 filter.setOption(v);
                 switch (v) {
                     case "Region" -> {
-                        value.setChoices(controller.getAllItemRegions());
+                        value.setChoices(controller.getAllItemRegions().getValues());
                         value.setDefaultText("Select Region");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Class" -> {
-                        value.setChoices(controller.getAllCharmClasses());
+                        value.setChoices(controller.getAllCharmClasses().getValues());
                         value.setDefaultText("Select Class");
                         comparator.setMessage(Text.literal("Matches"));
                     }
@@ -119,13 +121,17 @@ public class BuildFilterGui extends Screen {
 
     private void updateFilterListPositions() {
         if (controller.buildDictionaryGuiPreviouslyOpened) {
-            addFilterButton.setY(labelMenuHeight + 5 + filterListOption.size() * 25);
-
-            filterListOption.forEach(i -> i.setY(labelMenuHeight + 8 + filterListOption.indexOf(i) * 25));
-            filterListValue.forEach(i -> i.setY(labelMenuHeight + 8 + filterListValue.indexOf(i) * 25));
-            filterListComparator.forEach(i -> i.setY(labelMenuHeight + 5 + filterListComparator.indexOf(i) * 25));
-            filterListConstant.forEach(i -> i.setY(labelMenuHeight + 8 + filterListConstant.indexOf(i) * 25));
-            filterListDelete.forEach(i -> i.setY(labelMenuHeight + 5 + filterListDelete.indexOf(i) * 25));
+            addFilterButton.setY(filterRows.getY(filterListOption.size()));
+
+            // the dropdowns and the text field sit a bit lower than the buttons of their row
+            for (int i = 0; i < filterListOption.size(); i++) {
+                int y = filterRows.getY(i);
+                filterListOption.get(i).setY(y + 3);
+                filterListValue.get(i).setY(y + 3);
+                filterListComparator.get(i).setY(y);
+                filterListConstant.get(i).setY(y + 3);
+                filterListDelete.get(i).setY(y);
+            }
         }
     }
 
@@ -218,7 +218,7 @@ public class BuilderGui extends Screen {
             if (item != null) {
                 if (!item.region.equals("Ring")) baseUrl.append(item.name.replace(" ", "%20")).append("&");
                 else {
-                    if (isItemExalted(item)) baseUrl.append("EX ");
+                    if (controller.isItemExalted(item)) baseUrl.append("EX ");
                     baseUrl.append(item.name.replace(" ", "%20")).append(String.format("-%d", item.getMaxMasterwork()-1)).append("&");
                 }
             } else baseUrl.append("None&");
@@ -234,11 +234,6 @@ public class BuilderGui extends Screen {
         statusText = Text.literal("Build Url copied to your clipboard!").setStyle(Style.EMPTY.withColor(0xFF00FF00));
     }
 
-    private boolean isItemExalted(DictionaryItem itemToCheck) {
-        List<DictionaryItem> itemsWithSameName = controller.getItems().stream().filter(item -> item.name.equals(itemToCheck.name)).toList();
-        return itemsWithSameName.size() > 1;
-    }
-
     private ArrayList<String> extractRelevantLetters(String charmName, int n) {
         ArrayList<String> parts = new ArrayList<>();
         parts.add(charmName.substring(0, 3).replace(" ", "_"));
@@ -1,12 +1,16 @@
 package dev.eliux.monumentaitemdictionary.gui.charm;
 
+import dev.eliux.monumentaitemdictionary.catalog.CatalogDiff;
 import dev.eliux.monumentaitemdictionary.gui.DictionaryController;
 import dev.eliux.monumentaitemdictionary.gui.builder.BuilderGui;
 import dev.eliux.monumentaitemdictionary.gui.widgets.CharmButtonWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.GridLayout;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemIconButtonWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.VirtualGrid;
 import dev.eliux.monumentaitemdictionary.util.CharmStat;
 import dev.eliux.monumentaitemdictionary.util.ItemColors;
 import dev.eliux.monumentaitemdictionary.util.ItemFormatter;
+import dev.eliux.monumentaitemdictionary.util.TooltipCache;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.Screen;
@@ -33,7 +37,11 @@ public class CharmDictionaryGui extends Screen {
 
     private final TextRenderer textRenderer = MinecraftClient.getInstance().textRenderer;
 
-    private final ArrayList<CharmButtonWidget> charmButtons = new ArrayList<>();
+    private final VirtualGrid<DictionaryCharm, CharmButtonWidget> charmGrid = new VirtualGrid<>(new GridLayout(itemSize, itemSize, itemPadding, 0, labelMenuHeight),
+            () -> new CharmButtonWidget(itemSize, b -> charmClicked(((CharmButtonWidget) b).getCharm()), this),
+            (button, charm, index) -> button.setCharm(charm, index));
+
+    private final TooltipCache<DictionaryCharm> charmLoreCache = new TooltipCache<>((charm, variant) -> buildCharmLoreText(charm));
 
     private TextFieldWidget searchBar;
     private ItemIconButtonWidget reloadCharmsButton;
@@ -61,8 +69,7 @@ public class CharmDictionaryGui extends Screen {
             if (searchBar.getText().isEmpty())
                 controller.clearCharmNameFilter();
 
-            buildCharmList();
-            updateScrollLimits();
+            controller.refreshCharms(DictionaryController.TYPING_DELAY_MILLIS);
         });
         searchBar.setFocused(true);
 
@@ -126,9 +133,10 @@ public class CharmDictionaryGui extends Screen {
     public void render(MatrixStack matrices, int mouseX, int mouseY, float delta) {
         this.renderBackground(matrices);
 
+        charmGrid.update(scrollPixels, height - labelMenuHeight);
+
         // draw the scroll bar
-        int totalRows = (int) Math.ceil((double)charmButtons.size() / (double)((width - sideMenuWidth - 5) / (itemSize + itemPadding)));
-        int totalPixelHeight = totalRows * itemSize + (totalRows + 1) * itemPadding;
+        int totalPixelHeight = charmGrid.getContentHeight();
         double bottomPercent = (double)scrollPixels / totalPixelHeight;
         double screenPercent = (double)(height - labelMenuHeight) / totalPixelHeight;
         drawVerticalLine(matrices, width - sideMenuWidth - 1, labelMenuHeight, height, 0x77AAAAAA); // called twice to make the scroll bar render wider (janky, but I don't really care)
@@ -141,13 +149,13 @@ public class CharmDictionaryGui extends Screen {
 
         // draw item buttons
         if (!controller.isRequesting) {
-            charmButtons.forEach(b -> {
+            charmGrid.forEachShown(b -> {
                 if (b.getY() - scrollPixels + itemSize >= labelMenuHeight && b.getY() - scrollPixels <= height) {
                     b.renderButton(matrices, mouseX, mouseY, delta);
                 }
             });
 
-            if (charmButtons.isEmpty()) {
+            if (charmGrid.isEmpty()) {
                 drawCenteredTextWithShadow(matrices, textRenderer, "Found No Charms", width / 2, labelMenuHeight + 10, 0xFF2222);
 
                 if (controller.anyCharms()) {
@@ -166,7 +174,13 @@ public class CharmDictionaryGui extends Screen {
         matrices.translate(0, 0, 110);
         fill(matrices, 0, 0, width, labelMenuHeight, 0xFF555555);
         drawHorizontalLine(matrices, 0, width, labelMenuHeight, 0xFFFFFFFF);
-        drawCenteredTextWithShadow(matrices, textRenderer, Text.literal("Monumenta Charm Dictionary").setStyle(Style.EMPTY.withBold(true)), width / 2, (labelMenuHeight - textRenderer.fontHeight) / 2, 0xFFd8b427);
+        if (controller.areCharmsCapped()) {
+            // weight rows only keep the best scoring few, so the title makes room to say the list is cut short
+            drawCenteredTextWithShadow(matrices, textRenderer, Text.literal("Monumenta Charm Dictionary").setStyle(Style.EMPTY.withBold(true)), width / 2, 5, 0xFFd8b427);
+            drawCenteredTextWithShadow(matrices, textRenderer, "Top " + DictionaryController.SCORE_LIMIT + " by score", width / 2, 17, 0xFFAAAAAA);
+        } else {
+            drawCenteredTextWithShadow(matrices, textRenderer, Text.literal("Monumenta Charm Dictionary").setStyle(Style.EMPTY.withBold(true)), width / 2, (labelMenuHeight - textRenderer.fontHeight) / 2, 0xFFd8b427);
+        }
         matrices.pop();
 
         // draw gui elements
@@ -194,37 +208,32 @@ public class CharmDictionaryGui extends Screen {
         }
     }
 
+    // searches again in the background, the list is rebuilt by showCharmList once the result is in
     public void buildCharmList() {
-        controller.refreshCharms();
-        ArrayList<DictionaryCharm> toBuildCharms = controller.getCharms();
-
-        charmButtons.clear();
-        for (DictionaryCharm charm : toBuildCharms) {
-            int index = toBuildCharms.indexOf(charm);
-            int row = index / ((width - sideMenuWidth - 5) / (itemSize + itemPadding));
-            int col = index % ((width - sideMenuWidth - 5) / (itemSize + itemPadding));
-
-            int x = (col + 1) * itemPadding + col * itemSize;
-            int y = labelMenuHeight + (row + 1) * itemPadding + row * itemSize;
-
-            CharmButtonWidget button = new CharmButtonWidget(x, y, itemSize, index, Text.literal(charm.name), (b) -> {
-                if (hasShiftDown() && hasControlDown()) {
-                    String wikiFormatted = charm.name.replace(" ", "_").replace("'", "%27");
-                    Util.getOperatingSystem().open("https://monumenta.wiki.gg/wiki/" + wikiFormatted);
-                } else if (isGettingBuildCharm) {
-                    if (!(charm.power + controller.builderGui.charms.size() >= 13)) {
-                        returnCharm(charm);
-                    }
-                }
+        controller.refreshCharms(0);
+    }
 
-                ClientPlayerEntity player = MinecraftClient.getInstance().player;
-                if (player != null && hasAltDown() && player.getAbilities().creativeMode) {
-                    //ItemGenerator.giveItemToClientPlayer(charm.name);
-                    controller.setGeneratorScreen().setCharm(charm);
-                }
-            }, charm, () -> generateCharmLoreText(charm), this);
+    public void showCharmList() {
+        // same as the item list, only the rows on screen get widgets
+        charmGrid.setWidth(width - sideMenuWidth - 5);
+        charmGrid.setEntries(controller.getCharms());
+        updateScrollLimits();
+    }
 
-            charmButtons.add(button);
+    private void charmClicked(DictionaryCharm charm) {
+        if (hasShiftDown() && hasControlDown()) {
+            String wikiFormatted = charm.name.replace(" ", "_").replace("'", "%27");
+            Util.getOperatingSystem().open("https://monumenta.wiki.gg/wiki/" + wikiFormatted);
+        } else if (isGettingBuildCharm) {
+            if (!(charm.power + controller.builderGui.charms.size() >= 13)) {
+                returnCharm(charm);
+            }
+        }
+
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+        if (player != null && hasAltDown() && player.getAbilities().creativeMode) {
+            //ItemGenerator.giveItemToClientPlayer(charm.name);
+            controller.setGeneratorScreen().setCharm(charm);
         }
     }
 
@@ -284,7 +293,8 @@ public class CharmDictionaryGui extends Screen {
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
         super.mouseClicked(mouseX, mouseY, button);
 
-        charmButtons.forEach((b) -> b.mouseClicked(mouseX, mouseY + scrollPixels, button));
+        CharmButtonWidget clicked = charmGrid.getShownAt(mouseX, mouseY + scrollPixels);
+        if (clicked != null) clicked.mouseClicked(mouseX, mouseY + scrollPixels, button);
 
         searchBar.mouseClicked(mouseX, mouseY, button);
         reloadCharmsButton.mouseClicked(mouseX, mouseY, button);
@@ -302,7 +312,20 @@ public class CharmDictionaryGui extends Screen {
         return true;
     }
 
+    public void forgetChangedLore(CatalogDiff diff) {
+        charmLoreCache.forget(diff.replacedCharms);
+        charmLoreCache.forget(diff.removedCharms);
+    }
+
+    // same as item tooltips, only built again when creative mode or the screen changed or a reload changed the charm
     public List<Text> generateCharmLoreText(DictionaryCharm charm) {
+        Screen currentScreen = MinecraftClient.getInstance().currentScreen;
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+        int flags = player != null && player.getAbilities().creativeMode ? 2 : 0;
+        return charmLoreCache.get(charm, 0, flags, currentScreen == null ? null : currentScreen.getClass());
+    }
+
+    private List<Text> buildCharmLoreText(DictionaryCharm charm) {
         List<Text> lines = new ArrayList<>();
 
         lines.add(Text.literal(charm.name).setStyle(Style.EMPTY
@@ -360,11 +383,17 @@ public class CharmDictionaryGui extends Screen {
     public void resize(MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
 
-        updateGuiPositions();
+        // same results, they only move
+        updateWidgetPositions();
     }
 
     public void updateGuiPositions() {
-        buildCharmList();
+        updateWidgetPositions();
+        buildCharmList(); // the filters may have changed while the screen was closed
+    }
+
+    private void updateWidgetPositions() {
+        charmGrid.setWidth(width - sideMenuWidth - 5);
         updateScrollLimits();
 
         searchBar.setX(width / 2 + 90);
@@ -384,7 +413,8 @@ public class CharmDictionaryGui extends Screen {
         super.mouseScrolled(mouseX, mouseY, amount);
 
         if (Screen.hasControlDown()) {
-            charmButtons.forEach((b) -> b.scrolled(mouseX, mouseY, amount));
+            CharmButtonWidget hovered = charmGrid.getShownAt(mouseX, mouseY + scrollPixels);
+            if (hovered != null) hovered.scrolled(mouseX, mouseY, amount);
         } else {
             if (mouseX >= 0 && mouseX < width - sideMenuWidth && mouseY >= labelMenuHeight && mouseY < height) {
                 scrollPixels += (int) (-amount * 22); // scaled
@@ -397,8 +427,7 @@ public class CharmDictionaryGui extends Screen {
     }
 
     private void updateScrollLimits() {
-        int rows = (int) Math.ceil((double)charmButtons.size() / (double)((width - sideMenuWidth - 5) / (itemSize + itemPadding)));
-        int maxScroll = rows * itemSize + (rows + 1) * itemPadding - height + labelMenuHeight;
+        int maxScroll = charmGrid.getContentHeight() - height + labelMenuHeight;
         if (scrollPixels > maxScroll) scrollPixels = maxScroll;
 
         if (scrollPixels < 0) scrollPixels = 0;
@@ -1,7 +1,9 @@
 package dev.eliux.monumentaitemdictionary.gui.charm;
 
+import dev.eliux.monumentaitemdictionary.catalog.FacetDictionary;
 import dev.eliux.monumentaitemdictionary.gui.DictionaryController;
 import dev.eliux.monumentaitemdictionary.gui.widgets.DropdownWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.GridLayout;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemIconButtonWidget;
 import dev.eliux.monumentaitemdictionary.util.Filter;
 import dev.eliux.monumentaitemdictionary.util.ItemFormatter;
@@ -21,6 +23,7 @@ import java.util.List;
 
 public class CharmFilterGui extends Screen {
     private final int labelMenuHeight = 30;
+    private final GridLayout filterRows = new GridLayout(0, 20, 5, 0, labelMenuHeight); // one column, only the rows are used
 
     private final TextRenderer textRenderer = MinecraftClient.getInstance().textRenderer;
 
@@ -30,6 +33,7 @@ public class CharmFilterGui extends Screen {
     private final ArrayList<DropdownWidget> filterListValue;
     private final ArrayList<ButtonWidget> filterListComparator;
     private final ArrayList<TextFieldWidget> filterListConstant;
+    private final ArrayList<ButtonWidget> filterListJoin;
     private final ArrayList<ItemIconButtonWidget> filterListDelete;
     //private ArrayList<ItemIconButtonWidget> filterListDuplicate;
     private final ArrayList<Filter> charmFilters = new ArrayList<>();
@@ -43,6 +47,7 @@ public class CharmFilterGui extends Screen {
         filterListValue = new ArrayList<>();
         filterListComparator = new ArrayList<>();
         filterListConstant = new ArrayList<>();
+        filterListJoin = new ArrayList<>();
         filterListDelete = new ArrayList<>();
         //filterListDuplicate = new ArrayList<>();
     }
@@ -72,6 +77,7 @@ public class CharmFilterGui extends Screen {
                             case 4: yield "=";
                             case 5: yield "<=";
                             case 6: yield "<";
+                            case 7: yield "Weight";
                             default: yield "Error";
                         }
                 ));
@@ -96,42 +102,51 @@ public class CharmFilterGui extends Screen {
                 }
                 updateFilterOutput();
             });
+            ButtonWidget join = ButtonWidget.builder(Text.literal(filter.getJoinLabel(index == 0)), b -> {
+                boolean first = charmFilters.indexOf(filter) == 0;
+                filter.cycleJoin(first);
+                b.setMessage(Text.literal(filter.getJoinLabel(first)));
+
+                updateFilterOutput();
+            }).position(410, labelMenuHeight + 5 + index * 25).size(50, 20).tooltip(Tooltip.of(Text.literal("How this filter joins the ones above it, click to cycle. And goes before Or"))).build();
             DropdownWidget options = new DropdownWidget(textRenderer, 30, labelMenuHeight + 7 + index * 25, 90, Text.literal(""), "Select Sort Type", Arrays.asList("Tier", "Location", "Skill Modifier", "Class", "Charm Power", "Stat", "Base Item"), (v) -> {
                 filter.setOption(v);
 
                 switch (v) {
                     case "Tier" -> {
-                        value.setChoices(controller.getAllCharmTiers());
+                        FacetDictionary facet = controller.getAllCharmTiers();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Tier");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Location" -> {
-                        value.setChoices(controller.getAllCharmLocations());
+                        FacetDictionary facet = controller.getAllCharmLocations();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Location");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Skill Modifier" -> {
-                        ArrayList<String> vc = new ArrayList<>();
-                        for (String s : controller.getAllCharmSkillMods()) vc.add(ItemFormatter.formatCharmSkill(s));
-                        value.setChoices(controller.getAllCharmSkillMods(), vc);
+                        FacetDictionary facet = controller.getAllCharmSkillMods();
+                        value.setChoices(facet.getValues(), facet.getLabels(ItemFormatter::formatCharmSkill));
                         value.setDefaultText("Select Skill Modifiers");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Class" -> {
-                        value.setChoices(controller.getAllCharmClasses());
+                        FacetDictionary facet = controller.getAllCharmClasses();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Class");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Charm Power" -> comparator.setMessage(Text.literal(">="));
                     case "Stat" -> {
-                        ArrayList<String> vc = new ArrayList<>();
-                        for (String s : controller.getAllCharmStats()) vc.add(ItemFormatter.formatCharmStat(s));
-                        value.setChoices(controller.getAllCharmStats(), vc);
+                        FacetDictionary facet = controller.getAllCharmStats();
+                        value.setChoices(facet.getValues(), facet.getLabels(ItemFormatter::formatCharmStat));
                         value.setDefaultText("Select Stat");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Base Item" -> {
-                        value.setChoices(controller.getAllCharmBaseItems());
+                        FacetDictionary facet = controller.getAllCharmBaseItems();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Base Item");
                         comparator.setMessage(Text.literal("Matches"));
                     }
@@ -152,6 +167,7 @@ public class CharmFilterGui extends Screen {
             filterListValue.add(value);
             filterListComparator.add(comparator);
             filterListConstant.add(constant);
+            filterListJoin.add(join);
             filterListDelete.add(delete);
             //filterListDuplicate.add(duplicate);
 
@@ -164,6 +180,7 @@ public class CharmFilterGui extends Screen {
         filterListValue.clear();
         filterListComparator.clear();
         filterListConstant.clear();
+        filterListJoin.clear();
         filterListDelete.clear();
         //filterListDuplicate.clear();
         charmFilters.clear();
@@ -174,13 +191,20 @@ public class CharmFilterGui extends Screen {
 
     private void updateFilterListPositions() {
         if (controller.charmFilterGuiPreviouslyOpened) {
-            addFilterButton.setY(labelMenuHeight + 5 + filterListOption.size() * 25);
-
-            filterListOption.forEach(i -> i.setY(labelMenuHeight + 8 + filterListOption.indexOf(i) * 25));
-            filterListValue.forEach(i -> i.setY(labelMenuHeight + 8 + filterListValue.indexOf(i) * 25));
-            filterListComparator.forEach(i -> i.setY(labelMenuHeight + 5 + filterListComparator.indexOf(i) * 25));
-            filterListConstant.forEach(i -> i.setY(labelMenuHeight + 8 + filterListConstant.indexOf(i) * 25));
-            filterListDelete.forEach(i -> i.setY(labelMenuHeight + 5 + filterListDelete.indexOf(i) * 25));
+            addFilterButton.setY(filterRows.getY(filterListOption.size()));
+
+            // the dropdowns and the text field sit a bit lower than the buttons of their row
+            for (int i = 0; i < filterListOption.size(); i++) {
+                int y = filterRows.getY(i);
+                filterListOption.get(i).setY(y + 3);
+                filterListValue.get(i).setY(y + 3);
+                filterListComparator.get(i).setY(y);
+                filterListConstant.get(i).setY(y + 3);
+                filterListJoin.get(i).setY(y);
+                // a delete can make a row the first one, which has no or
+                filterListJoin.get(i).setMessage(Text.literal(charmFilters.get(i).getJoinLabel(i == 0)));
+                filterListDelete.get(i).setY(y);
+            }
             //filterListDuplicate.forEach(i -> i.y = labelMenuHeight + 5 + filterListDuplicate.indexOf(i) * 25);
         }
     }
@@ -217,6 +241,10 @@ public class CharmFilterGui extends Screen {
             if (!filterListOption.get(filterListComparator.indexOf(c)).getLastChoice().isEmpty())
                 c.render(matrices, mouseX, mouseY, delta);
         }
+        for (ButtonWidget j : filterListJoin) {
+            if (!filterListOption.get(filterListJoin.indexOf(j)).getLastChoice().isEmpty())
+                j.render(matrices, mouseX, mouseY, delta);
+        }
         filterListDelete.forEach(i -> i.render(matrices, mouseX, mouseY, delta));
         //filterListDuplicate.forEach(i -> i.render(matrices, mouseX, mouseY, delta));
 
@@ -275,6 +303,10 @@ public class CharmFilterGui extends Screen {
             if (!filterListOption.get(filterListComparator.indexOf(c)).getLastChoice().isEmpty())
                 c.mouseClicked(mouseX, mouseY, button);
         }
+        for (ButtonWidget j : filterListJoin) {
+            if (!filterListOption.get(filterListJoin.indexOf(j)).getLastChoice().isEmpty())
+                j.mouseClicked(mouseX, mouseY, button);
+        }
         for (TextFieldWidget c : filterListConstant) {
             if (filterListOption.get(filterListConstant.indexOf(c)).getLastChoice().equals("Stat") && !(charmFilters.get(filterListConstant.indexOf(c)).comparator < 2) || filterListOption.get(filterListConstant.indexOf(c)).getLastChoice().equals("Charm Power"))
                 c.mouseClicked(mouseX, mouseY, button);
@@ -289,6 +321,7 @@ public class CharmFilterGui extends Screen {
             filterListValue.remove(removeIndex);
             filterListComparator.remove(removeIndex);
             filterListConstant.remove(removeIndex);
+            filterListJoin.remove(removeIndex);
             filterListDelete.remove(removeIndex);
             //filterListDuplicate.remove(removeIndex);
             charmFilters.remove(removeIndex);
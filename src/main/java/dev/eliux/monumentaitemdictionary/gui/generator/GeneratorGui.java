@@ -286,6 +286,13 @@ public class GeneratorGui extends Screen {
         return true;
     }
 
+    // another screen (or none) took over. postInit makes a new picker the next time this one opens, so this picker's
+    // popup textures are done with
+    @Override
+    public void removed() {
+        if (colorPicker != null) colorPicker.releaseTextures();
+    }
+
     @Override
     public void resize(MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
@@ -1,15 +1,18 @@
 package dev.eliux.monumentaitemdictionary.gui.item;
 
+import dev.eliux.monumentaitemdictionary.catalog.CatalogDiff;
 import dev.eliux.monumentaitemdictionary.gui.DictionaryController;
 import dev.eliux.monumentaitemdictionary.gui.builder.BuilderGui;
 import dev.eliux.monumentaitemdictionary.gui.charm.CharmDictionaryGui;
+import dev.eliux.monumentaitemdictionary.gui.widgets.GridLayout;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemButtonWidget;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemIconButtonWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.VirtualGrid;
 import dev.eliux.monumentaitemdictionary.util.ItemColors;
 import dev.eliux.monumentaitemdictionary.util.ItemFormatter;
 import dev.eliux.monumentaitemdictionary.util.ItemStat;
+import dev.eliux.monumentaitemdictionary.util.TooltipCache;
 import java.util.HashMap;
-import java.util.TreeMap;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.Screen;
@@ -36,8 +39,16 @@ public class ItemDictionaryGui extends Screen {
 
     private final TextRenderer textRenderer = MinecraftClient.getInstance().textRenderer;
 
-    private final TreeMap<Integer, ArrayList<ItemButtonWidget>> itemButtons = new TreeMap<>();
-    private final HashMap<DictionaryItem, ItemButtonWidget> widgetByItem = new HashMap<>();
+    private final VirtualGrid<DictionaryItem, ItemButtonWidget> itemGrid = new VirtualGrid<>(new GridLayout(itemSize, itemSize, itemPadding, 0, labelMenuHeight),
+            () -> new ItemButtonWidget(itemSize, b -> itemClicked(((ItemButtonWidget) b).getItem()), this),
+            (button, item, index) -> button.setItem(item, index));
+
+    // masterwork tiers picked with ctrl + scroll, anything not in here shows the min (or max) tier
+    private final HashMap<DictionaryItem, Integer> shownMasterworkTiers = new HashMap<>();
+    private boolean showingMaximumMasterwork = false;
+
+    private final TooltipCache<DictionaryItem> itemLoreCache = new TooltipCache<>(this::buildItemLoreText);
+    private static final List<Text> EMPTY_SLOT_LORE = List.of(Text.literal("Click to add an item."));
 
     private TextFieldWidget searchBar;
     private ItemIconButtonWidget reloadItemsButton;
@@ -67,8 +78,7 @@ public class ItemDictionaryGui extends Screen {
             if (searchBar.getText().isEmpty())
                 controller.clearItemNameFilter();
 
-            buildItemList();
-            updateScrollLimits();
+            controller.refreshItems(DictionaryController.TYPING_DELAY_MILLIS);
         });
         searchBar.setFocused(true);
 
@@ -118,9 +128,8 @@ public class ItemDictionaryGui extends Screen {
                 width - sideMenuWidth + 10, height - 120, 20, 20,
                 Text.literal(""),
                 (button) -> {
-                    for (List<ItemButtonWidget> row : itemButtons.values()) {
-                        row.forEach(ItemButtonWidget::setMinimumMasterwork);
-                    }
+                    shownMasterworkTiers.clear();
+                    showingMaximumMasterwork = false;
                     },
                 Text.literal("Show Minimum Masterwork").setStyle(Style.EMPTY.withColor(0xFFAA00AA)), "netherite_scrap", "");
 
@@ -128,9 +137,8 @@ public class ItemDictionaryGui extends Screen {
                 width - sideMenuWidth + 10, height - 90, 20, 20,
                 Text.literal(""),
                 (button) -> {
-                    for (List<ItemButtonWidget> row : itemButtons.values()) {
-                        row.forEach(ItemButtonWidget::setMaximumMasterwork);
-                    }
+                    shownMasterworkTiers.clear();
+                    showingMaximumMasterwork = true;
                     },
                 Arrays.asList(
                         Text.literal("Show Maximum Masterwork").setStyle(Style.EMPTY.withColor(0xFFAA00AA)),
@@ -159,9 +167,10 @@ public class ItemDictionaryGui extends Screen {
     public void render(MatrixStack matrices, int mouseX, int mouseY, float delta) {
         this.renderBackground(matrices);
 
+        itemGrid.update(scrollPixels, height - labelMenuHeight);
+
         // draw the scroll bar
-        int totalRows = itemButtons.size();
-        int totalPixelHeight = totalRows * itemSize + (totalRows + 1) * itemPadding;
+        int totalPixelHeight = itemGrid.getContentHeight();
         double bottomPercent = (double)scrollPixels / totalPixelHeight;
         double screenPercent = (double)(height - labelMenuHeight) / totalPixelHeight;
         drawVerticalLine(matrices, width - sideMenuWidth - 1, labelMenuHeight, height, 0x77AAAAAA); // called twice to make the scroll bar render wider (janky, but I don't really care)
@@ -174,14 +183,13 @@ public class ItemDictionaryGui extends Screen {
 
         // draw item buttons
         if (!controller.isRequesting) {
-            for (List<ItemButtonWidget> row : itemButtons
-                    .subMap(labelMenuHeight + scrollPixels - itemSize, true,
-                            height + scrollPixels, true)
-                    .values()) {
-                row.forEach(b -> b.renderButton(matrices, mouseX, mouseY, delta));
-            }
+            itemGrid.forEachShown(b -> {
+                if (b.getY() - scrollPixels + itemSize >= labelMenuHeight && b.getY() - scrollPixels <= height) {
+                    b.renderButton(matrices, mouseX, mouseY, delta);
+                }
+            });
 
-            if (itemButtons.isEmpty()) {
+            if (itemGrid.isEmpty()) {
                 drawCenteredTextWithShadow(matrices, textRenderer, "Found No Items", width / 2, labelMenuHeight + 10, 0xFF2222);
 
                 if (controller.anyItems()) {
@@ -200,7 +208,13 @@ public class ItemDictionaryGui extends Screen {
         matrices.translate(0, 0, 110);
         fill(matrices, 0, 0, width, labelMenuHeight, 0xFF555555);
         drawHorizontalLine(matrices, 0, width, labelMenuHeight, 0xFFFFFFFF);
-        drawCenteredTextWithShadow(matrices, textRenderer, Text.literal("Monumenta Item Dictionary").setStyle(Style.EMPTY.withBold(true)), width / 2, (labelMenuHeight - textRenderer.fontHeight) / 2, 0xFF2ca9d3);
+        if (controller.areItemsCapped()) {
+            // weight rows only keep the best scoring few, so the title makes room to say the list is cut short
+            drawCenteredTextWithShadow(matrices, textRenderer, Text.literal("Monumenta Item Dictionary").setStyle(Style.EMPTY.withBold(true)), width / 2, 5, 0xFF2ca9d3);
+            drawCenteredTextWithShadow(matrices, textRenderer, "Top " + DictionaryController.SCORE_LIMIT + " by score", width / 2, 17, 0xFFAAAAAA);
+        } else {
+            drawCenteredTextWithShadow(matrices, textRenderer, Text.literal("Monumenta Item Dictionary").setStyle(Style.EMPTY.withBold(true)), width / 2, (labelMenuHeight - textRenderer.fontHeight) / 2, 0xFF2ca9d3);
+        }
         matrices.pop();
 
         // draw gui elements
@@ -230,48 +244,57 @@ public class ItemDictionaryGui extends Screen {
         }
     }
 
+    // searches again in the background, the list is rebuilt by showItemList once the result is in
     public void buildItemList() {
-        controller.refreshItems();
-        ArrayList<DictionaryItem> toBuildItems = controller.getItems();
-
-        itemButtons.clear();
-        widgetByItem.clear();
-        for (DictionaryItem item : toBuildItems) {
-            int index = toBuildItems.indexOf(item);
-            int row = index / ((width - sideMenuWidth - 5) / (itemSize + itemPadding));
-            int col = index % ((width - sideMenuWidth - 5) / (itemSize + itemPadding));
-
-            int x = (col + 1) * itemPadding + col * itemSize;
-            int y = labelMenuHeight + (row + 1) * itemPadding + row * itemSize;
-
-            ItemButtonWidget button = new ItemButtonWidget(x, y, itemSize, index, Text.literal(item.name), (b) -> {
-                if (hasShiftDown() && hasControlDown()) {
-                    String wikiFormatted = item.name.replace(" ", "_").replace("'", "%27");
-                    Util.getOperatingSystem().open("https://monumenta.wiki.gg/wiki/" + wikiFormatted);
-
-                } else if (isGettingBuildItem) {
-                    returnItem(item);
-                }
+        controller.refreshItems(0);
+    }
 
-                ClientPlayerEntity player = MinecraftClient.getInstance().player;
-                if (player != null && hasAltDown() && player.getAbilities().creativeMode) {
-                    //ItemGenerator.giveItemToClientPlayer(item.name + (item.hasMasterwork ? "-" + button.shownMasterworkTier : ""));
-                    controller.setGeneratorScreen().setItem(item);
-                }
-            }, item, () -> generateItemLoreText(item), this);
+    public void showItemList() {
+        // only the rows on screen get widgets, bound once render updates the grid
+        itemGrid.setWidth(width - sideMenuWidth - 5);
+        itemGrid.setEntries(controller.getItems());
+
+        // same masterwork tiers a fresh list always started with
+        shownMasterworkTiers.clear();
+        showingMaximumMasterwork = isGettingBuildItem;
+        updateScrollLimits();
+    }
 
-            itemButtons.computeIfAbsent(y, k -> new ArrayList<>())
-                    .add(button);
-            widgetByItem.put(item, button);
+    private void itemClicked(DictionaryItem item) {
+        if (hasShiftDown() && hasControlDown()) {
+            String wikiFormatted = item.name.replace(" ", "_").replace("'", "%27");
+            Util.getOperatingSystem().open("https://monumenta.wiki.gg/wiki/" + wikiFormatted);
+
+        } else if (isGettingBuildItem) {
+            returnItem(item);
         }
 
-        if (isGettingBuildItem) {
-            for (List<ItemButtonWidget> row : itemButtons.values()) {
-                row.forEach(ItemButtonWidget::setMaximumMasterwork);
-            }
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+        if (player != null && hasAltDown() && player.getAbilities().creativeMode) {
+            //ItemGenerator.giveItemToClientPlayer(item.name + (item.hasMasterwork ? "-" + getShownMasterworkTier(item) : ""));
+            controller.setGeneratorScreen().setItem(item);
         }
     }
 
+    public int getShownMasterworkTier(DictionaryItem item) {
+        Integer tier = shownMasterworkTiers.get(item);
+        if (tier != null) return tier;
+        return showingMaximumMasterwork ? getMaximumMasterwork(item) : item.getMinMasterwork();
+    }
+
+    public void setShownMasterworkTier(DictionaryItem item, int tier) {
+        shownMasterworkTiers.put(item, tier);
+    }
+
+    private int getMaximumMasterwork(DictionaryItem item) {
+        // return item.getMaxMasterwork();
+        int max = 0;
+        for (ArrayList<ItemStat> stats : item.stats) {
+            if (stats != null) max = item.stats.indexOf(stats);
+        }
+        return max;
+    }
+
     private void returnItem(DictionaryItem item) {
         BuilderGui builderGui = controller.builderGui;
 
@@ -340,12 +363,8 @@ public class ItemDictionaryGui extends Screen {
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
         super.mouseClicked(mouseX, mouseY, button);
 
-        for (List<ItemButtonWidget> row : itemButtons
-                .subMap((int) mouseY + scrollPixels - itemSize, true,
-                        (int) mouseY + scrollPixels, true)
-                .values()) {
-            row.forEach(b -> b.mouseClicked(mouseX, mouseY + scrollPixels, button));
-        }
+        ItemButtonWidget clicked = itemGrid.getShownAt(mouseX, mouseY + scrollPixels);
+        if (clicked != null) clicked.mouseClicked(mouseX, mouseY + scrollPixels, button);
 
         searchBar.mouseClicked(mouseX, mouseY, button);
         reloadItemsButton.mouseClicked(mouseX, mouseY, button);
@@ -365,14 +384,29 @@ public class ItemDictionaryGui extends Screen {
         return true;
     }
 
+    // drops the tooltips of the items a reload changed or removed, the other items are the same instances as before
+    public void forgetChangedLore(CatalogDiff diff) {
+        itemLoreCache.forget(diff.replacedItems);
+        itemLoreCache.forget(diff.removedItems);
+    }
+
+    // built again only when the tier, shift, creative mode or screen changed or a reload changed the item, hovering
+    // reuses the lines
     public List<Text> generateItemLoreText(DictionaryItem item) {
         // this is scuffed
-        if (item == null) return new ArrayList<>(List.of(Text.literal("Click to add an item.")));
+        if (item == null) return EMPTY_SLOT_LORE;
+        Screen currentScreen = MinecraftClient.getInstance().currentScreen;
         int masterworkTier = item.getMaxMasterwork() - 1;
-        ItemButtonWidget itemButton = widgetByItem.get(item);
-        if (itemButton != null && !(MinecraftClient.getInstance().currentScreen instanceof BuilderGui)) {
-            masterworkTier = itemButton.shownMasterworkTier;
+        if (!(currentScreen instanceof BuilderGui)) {
+            masterworkTier = getShownMasterworkTier(item);
         }
+
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+        int flags = (hasShiftDown() ? 1 : 0) | (player != null && player.getAbilities().creativeMode ? 2 : 0);
+        return itemLoreCache.get(item, masterworkTier, flags, currentScreen == null ? null : currentScreen.getClass());
+    }
+
+    private List<Text> buildItemLoreText(DictionaryItem item, int masterworkTier) {
         String itemTier = item.hasMasterwork ? item.getTierFromMasterwork(Math.max(masterworkTier, item.getMinMasterwork())) : item.getTierNoMasterwork();
 
         List<Text> lines = new ArrayList<>();
@@ -498,11 +532,17 @@ public class ItemDictionaryGui extends Screen {
     public void resize(MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
 
-        updateGuiPositions();
+        // same results, they only move
+        updateWidgetPositions();
     }
 
     public void updateGuiPositions() {
-        buildItemList();
+        updateWidgetPositions();
+        buildItemList(); // the filters may have changed while the screen was closed
+    }
+
+    private void updateWidgetPositions() {
+        itemGrid.setWidth(width - sideMenuWidth - 5);
         updateScrollLimits();
 
         searchBar.setX(width / 2 + 90);
@@ -527,12 +567,8 @@ public class ItemDictionaryGui extends Screen {
         super.mouseScrolled(mouseX, mouseY, amount);
 
         if (Screen.hasControlDown() && !isGettingBuildItem) {
-            for (List<ItemButtonWidget> row : itemButtons
-                    .subMap(labelMenuHeight + scrollPixels - itemSize, true,
-                            height + scrollPixels, true)
-                    .values()) {
-                row.forEach(b -> b.scrolled(mouseX, mouseY, amount));
-            }
+            ItemButtonWidget hovered = itemGrid.getShownAt(mouseX, mouseY + scrollPixels);
+            if (hovered != null) hovered.scrolled(mouseX, mouseY, amount);
         } else {
             if (mouseX >= 0 && mouseX < width - sideMenuWidth && mouseY >= labelMenuHeight && mouseY < height) {
                 scrollPixels += (int) (-amount * 22); // scaled
@@ -545,8 +581,7 @@ public class ItemDictionaryGui extends Screen {
     }
 
     private void updateScrollLimits() {
-        int rows = itemButtons.size();
-        int maxScroll = rows * itemSize + (rows + 1) * itemPadding - height + labelMenuHeight;
+        int maxScroll = itemGrid.getContentHeight() - height + labelMenuHeight;
         if (scrollPixels > maxScroll) scrollPixels = maxScroll;
 
         if (scrollPixels < 0) scrollPixels = 0;
@@ -1,7 +1,9 @@
 package dev.eliux.monumentaitemdictionary.gui.item;
 
+import dev.eliux.monumentaitemdictionary.catalog.FacetDictionary;
 import dev.eliux.monumentaitemdictionary.gui.DictionaryController;
 import dev.eliux.monumentaitemdictionary.gui.widgets.DropdownWidget;
+import dev.eliux.monumentaitemdictionary.gui.widgets.GridLayout;
 import dev.eliux.monumentaitemdictionary.gui.widgets.ItemIconButtonWidget;
 import dev.eliux.monumentaitemdictionary.util.Filter;
 import dev.eliux.monumentaitemdictionary.util.ItemFormatter;
@@ -22,6 +24,7 @@ import java.util.List;
 
 public class ItemFilterGui extends Screen {
     private final int labelMenuHeight = 30;
+    private final GridLayout filterRows = new GridLayout(0, 20, 5, 0, labelMenuHeight); // one column, only the rows are used
 
     private final TextRenderer textRenderer = MinecraftClient.getInstance().textRenderer;
 
@@ -31,6 +34,7 @@ public class ItemFilterGui extends Screen {
     private final ArrayList<DropdownWidget> filterListValue;
     private final ArrayList<ButtonWidget> filterListComparator;
     private final ArrayList<TextFieldWidget> filterListConstant;
+    private final ArrayList<ButtonWidget> filterListJoin;
     private final ArrayList<ItemIconButtonWidget> filterListDelete;
     //private ArrayList<ItemIconButtonWidget> filterListDuplicate;
 
@@ -50,6 +54,7 @@ public class ItemFilterGui extends Screen {
         filterListValue = new ArrayList<>();
         filterListComparator = new ArrayList<>();
         filterListConstant = new ArrayList<>();
+        filterListJoin = new ArrayList<>();
         filterListDelete = new ArrayList<>();
         //filterListDuplicate = new ArrayList<>();
     }
@@ -74,6 +79,7 @@ public class ItemFilterGui extends Screen {
                             case 4: yield "=";
                             case 5: yield "<=";
                             case 6: yield "<";
+                            case 7: yield "Weight";
                             default: yield "Error";
                         }
                 ));
@@ -95,38 +101,48 @@ public class ItemFilterGui extends Screen {
                 }
                 updateFilterOutput();
             });
+            ButtonWidget join = ButtonWidget.builder(Text.literal(filter.getJoinLabel(index == 0)), b -> {
+                boolean first = itemFilters.indexOf(filter) == 0;
+                filter.cycleJoin(first);
+                b.setMessage(Text.literal(filter.getJoinLabel(first)));
+
+                updateFilterOutput();
+            }).position(380, labelMenuHeight + 5 + index * 25).size(50, 20).tooltip(Tooltip.of(Text.literal("How this filter joins the ones above it, click to cycle. And goes before Or"))).build();
             DropdownWidget options = new DropdownWidget(textRenderer, 30, labelMenuHeight + 7 + index * 25, 90, Text.literal(""), "Select Sort Type", Arrays.asList("Tier", "Region", "Location", "Type", "Stat", "Base Item"), (v) -> {
                 filter.setOption(v);
                     switch (v) {
                     case "Tier" -> {
-                        value.setChoices(controller.getAllItemTiers());
+                        FacetDictionary facet = controller.getAllItemTiers();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Tier");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Region" -> {
-                        value.setChoices(controller.getAllItemRegions());
+                        FacetDictionary facet = controller.getAllItemRegions();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Region");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Location" -> {
-                        value.setChoices(controller.getAllItemLocations());
+                        FacetDictionary facet = controller.getAllItemLocations();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Location");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Stat" -> {
-                        ArrayList<String> vc = new ArrayList<>();
-                        for (String s : controller.getAllItemStats()) vc.add(ItemFormatter.formatStat(s));
-                        value.setChoices(controller.getAllItemStats(), vc);
+                        FacetDictionary facet = controller.getAllItemStats();
+                        value.setChoices(facet.getValues(), facet.getLabels(ItemFormatter::formatStat));
                         value.setDefaultText("Select Stat");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Base Item" -> {
-                        value.setChoices(controller.getAllItemBaseItems());
+                        FacetDictionary facet = controller.getAllItemBaseItems();
+                        value.setChoices(facet.getValues(), facet.getLabels());
                         value.setDefaultText("Select Base Item");
                         comparator.setMessage(Text.literal("Matches"));
                     }
                     case "Type" -> {
-                        ArrayList<String> allTypes = controller.getAllItemTypes();
+                        FacetDictionary allTypes = controller.getAllItemTypes();
                         ArrayList<String> mainhandTypes = new ArrayList<>(Arrays.asList("Mainhand",
                                 "Mainhand Sword", "Mainhand Shield", "Wand", "Axe", "Pickaxe", "Trident",
                                 "Snowball", "Shovel", "Scythe", "Bow", "Crossbow"));
@@ -136,7 +152,7 @@ public class ItemFilterGui extends Screen {
                         if (itemGui.isGettingBuildItem && itemGui.itemTypeLookingFor.equals("Mainhand")) value.setChoices(mainhandTypes);
                         else if (itemGui.isGettingBuildItem && itemGui.itemTypeLookingFor.equals("Offhand")) value.setChoices(offhandTypes);
                         else if (itemGui.isGettingBuildItem) value.setChoices(oneType);
-                        else value.setChoices(allTypes);
+                        else value.setChoices(allTypes.getValues(), allTypes.getLabels());
                         value.setDefaultText("Select Type");
                         comparator.setMessage(Text.literal("Matches"));
                     }
@@ -157,6 +173,7 @@ public class ItemFilterGui extends Screen {
             filterListValue.add(value);
             filterListComparator.add(comparator);
             filterListConstant.add(constant);
+            filterListJoin.add(join);
             filterListDelete.add(delete);
             //filterListDuplicate.add(duplicate);
 
@@ -169,6 +186,7 @@ public class ItemFilterGui extends Screen {
         filterListValue.clear();
         filterListComparator.clear();
         filterListConstant.clear();
+        filterListJoin.clear();
         filterListDelete.clear();
         //filterListDuplicate.clear();
         itemFilters.clear();
@@ -179,13 +197,20 @@ public class ItemFilterGui extends Screen {
 
     private void updateFilterListPositions() {
         if (controller.itemFilterGuiPreviouslyOpened) {
-            addFilterButton.setY(labelMenuHeight + 5 + filterListOption.size() * 25);
-
-            filterListOption.forEach(i -> i.setY(labelMenuHeight + 8 + filterListOption.indexOf(i) * 25));
-            filterListValue.forEach(i -> i.setY(labelMenuHeight + 8 + filterListValue.indexOf(i) * 25));
-            filterListComparator.forEach(i -> i.setY(labelMenuHeight + 5 + filterListComparator.indexOf(i) * 25));
-            filterListConstant.forEach(i -> i.setY(labelMenuHeight + 8 + filterListConstant.indexOf(i) * 25));
-            filterListDelete.forEach(i -> i.setY(labelMenuHeight + 5 + filterListDelete.indexOf(i) * 25));
+            addFilterButton.setY(filterRows.getY(filterListOption.size()));
+
+            // the dropdowns and the text field sit a bit lower than the buttons of their row
+            for (int i = 0; i < filterListOption.size(); i++) {
+                int y = filterRows.getY(i);
+                filterListOption.get(i).setY(y + 3);
+                filterListValue.get(i).setY(y + 3);
+                filterListComparator.get(i).setY(y);
+                filterListConstant.get(i).setY(y + 3);
+                filterListJoin.get(i).setY(y);
+                // a delete can make a row the first one, which has no or
+                filterListJoin.get(i).setMessage(Text.literal(itemFilters.get(i).getJoinLabel(i == 0)));
+                filterListDelete.get(i).setY(y);
+            }
             //filterListDuplicate.forEach(i -> i.y = labelMenuHeight + 5 + filterListDuplicate.indexOf(i) * 25);
         }
     }
@@ -222,6 +247,10 @@ public class ItemFilterGui extends Screen {
             if (!filterListOption.get(filterListComparator.indexOf(c)).getLastChoice().isEmpty())
                 c.render(matrices, mouseX, mouseY, delta);
         }
+        for (ButtonWidget j : filterListJoin) {
+            if (!filterListOption.get(filterListJoin.indexOf(j)).getLastChoice().isEmpty())
+                j.render(matrices, mouseX, mouseY, delta);
+        }
         filterListDelete.forEach(i -> i.render(matrices, mouseX, mouseY, delta));
         //filterListDuplicate.forEach(i -> i.render(matrices, mouseX, mouseY, delta));
 
@@ -280,6 +309,10 @@ public class ItemFilterGui extends Screen {
             if (!filterListOption.get(filterListComparator.indexOf(c)).getLastChoice().isEmpty())
                 c.mouseClicked(mouseX, mouseY, button);
         }
+        for (ButtonWidget j : filterListJoin) {
+            if (!filterListOption.get(filterListJoin.indexOf(j)).getLastChoice().isEmpty())
+                j.mouseClicked(mouseX, mouseY, button);
+        }
         for (TextFieldWidget c : filterListConstant) {
             if (filterListOption.get(filterListConstant.indexOf(c)).getLastChoice().equals("Stat") && !(itemFilters.get(filterListConstant.indexOf(c)).comparator < 2))
                 c.mouseClicked(mouseX, mouseY, button);
@@ -294,6 +327,7 @@ public class ItemFilterGui extends Screen {
             filterListValue.remove(removeIndex);
             filterListComparator.remove(removeIndex);
             filterListConstant.remove(removeIndex);
+            filterListJoin.remove(removeIndex);
             filterListDelete.remove(removeIndex);
             //filterListDuplicate.remove(removeIndex);
             itemFilters.remove(removeIndex);
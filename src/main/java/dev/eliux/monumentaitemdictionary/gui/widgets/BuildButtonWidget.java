@@ -11,7 +11,6 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.text.Style;
 import net.minecraft.text.Text;
 
@@ -20,33 +19,37 @@ import java.util.List;
 import java.util.Objects;
 
 public class BuildButtonWidget extends ButtonWidget {
-    private final DictionaryBuild build;
+    private DictionaryBuild build;
     private final BuildDictionaryGui gui;
-    private final ItemStack builtItem;
+    private ItemStack builtItem;
     private boolean favorite;
+    private List<Text> tooltip; // built on the first hover after a bind, it only depends on the build
 
-    public BuildButtonWidget(int x, int y, int itemSize, Text message, PressAction onPress, DictionaryBuild build, BuildDictionaryGui gui) {
-        super(x, y, itemSize, itemSize, message, onPress, DEFAULT_NARRATION_SUPPLIER);
-        this.build = build;
+    // starts out empty, the build grid binds it with setBuild before it is ever shown
+    public BuildButtonWidget(int itemSize, PressAction onPress, BuildDictionaryGui gui) {
+        super(0, 0, itemSize, itemSize, Text.literal(""), onPress, DEFAULT_NARRATION_SUPPLIER);
         this.gui = gui;
+    }
+
+    public void setBuild(DictionaryBuild build) {
+        this.build = build;
         this.favorite = build.favorite;
+        this.tooltip = null;
+        setMessage(Text.literal(build.name));
 
         DictionaryItem displayingItem = build.itemOnButton;
 
         if (displayingItem != null) {
-            builtItem = ItemFactory.fromEncoding(displayingItem.baseItem.split("/")[0].trim().toLowerCase().replace(" ", "_"));
-            NbtCompound baseNbt = builtItem.getOrCreateNbt();
-            NbtCompound plain = new NbtCompound();
-            NbtCompound display = new NbtCompound();
-            display.putString("Name", displayingItem.name.split("\\(")[0].trim());
-            plain.put("display", display);
-            baseNbt.put("plain", plain);
-            builtItem.setNbt(baseNbt);
+            builtItem = ItemFactory.getIcon(displayingItem.baseItem, displayingItem.name);
         } else {
             builtItem = ItemFactory.fromEncoding("barrier");
         }
     }
 
+    public DictionaryBuild getBuild() {
+        return build;
+    }
+
     @Override
     public void onClick(double mouseX, double mouseY) {
         super.onClick(mouseX, mouseY);
@@ -76,24 +79,29 @@ public class BuildButtonWidget extends ButtonWidget {
         MinecraftClient.getInstance().getItemRenderer().renderGuiItemIcon(matrices, builtItem, minX + (width / 2) - 7, minY + (height / 2) - 7);
 
         if (hovered) {
-            List<Text> lines = new ArrayList<>();
-            lines.add(Text.literal(build.name).setStyle(Style.EMPTY.withBold(true)));
-
-            for (DictionaryItem item : build.allItems) {
-                if (item == null) continue;
-                String itemTier = item.hasMasterwork ? item.getTierFromMasterwork(item.getMaxMasterwork() - 1) : item.getTierNoMasterwork();
-                lines.add(Text.literal(item.name).setStyle(Style.EMPTY
-                        .withColor(0xFF000000 + ItemColors.getColorForLocation(item.location))
-                        .withBold(ItemFormatter.shouldBold(itemTier))
-                        .withUnderline(ItemFormatter.shouldUnderline(itemTier))));
-            }
-
-            lines.add(Text.literal("SHIFT + Click to toggle favorite on this build").setStyle(Style.EMPTY.withColor(ItemColors.TEXT_COLOR)));
-            lines.add(Text.literal("CTRL + SHIFT + Click to delete this build").setStyle(Style.EMPTY.withColor(ItemColors.TEXT_COLOR)));
-            gui.renderTooltip(matrices, lines, mouseX, mouseY);
+            if (tooltip == null) tooltip = buildTooltip();
+            gui.renderTooltip(matrices, tooltip, mouseX, mouseY);
         }
     }
 
+    private List<Text> buildTooltip() {
+        List<Text> lines = new ArrayList<>();
+        lines.add(Text.literal(build.name).setStyle(Style.EMPTY.withBold(true)));
+
+        for (DictionaryItem item : build.allItems) {
+            if (item == null) continue;
+            String itemTier = item.hasMasterwork ? item.getTierFromMasterwork(item.getMaxMasterwork() - 1) : item.getTierNoMasterwork();
+            lines.add(Text.literal(item.name).setStyle(Style.EMPTY
+                    .withColor(0xFF000000 + ItemColors.getColorForLocation(item.location))
+                    .withBold(ItemFormatter.shouldBold(itemTier))
+                    .withUnderline(ItemFormatter.shouldUnderline(itemTier))));
+        }
+
+        lines.add(Text.literal("SHIFT + Click to toggle favorite on this build").setStyle(Style.EMPTY.withColor(ItemColors.TEXT_COLOR)));
+        lines.add(Text.literal("CTRL + SHIFT + Click to delete this build").setStyle(Style.EMPTY.withColor(ItemColors.TEXT_COLOR)));
+        return lines;
+    }
+
     public void updateFavorite() {
         favorite = !favorite;
     }
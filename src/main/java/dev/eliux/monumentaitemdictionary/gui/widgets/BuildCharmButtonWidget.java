@@ -9,9 +9,6 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtList;
-import net.minecraft.nbt.NbtString;
 import net.minecraft.text.Text;
 
 import javax.annotation.Nullable;
@@ -39,43 +36,8 @@ public class BuildCharmButtonWidget extends ButtonWidget {
     }
 
     private ItemStack getItemStack(@Nullable DictionaryCharm charm) {
-        if (charm == null) {
-            ItemStack builtItem = ItemFactory.fromEncoding("barrier");
-            NbtCompound baseNbt = builtItem.getOrCreateNbt();
-            NbtCompound plain = new NbtCompound();
-            NbtCompound display = new NbtCompound();
-            display.putString("Name", "No Item");
-            plain.put("display", display);
-            baseNbt.put("plain", plain);
-            builtItem.setNbt(baseNbt);
-
-            return builtItem;
-        }
-        ItemStack builtItem = ItemFactory.fromEncoding(charm.baseItem.split("/")[0].trim().toLowerCase().replace(" ", "_"));
-        NbtCompound baseNbt = builtItem.getOrCreateNbt();
-
-        NbtCompound monumenta = new NbtCompound();
-        monumenta.putInt("CharmPower", charm.power);
-        monumenta.putString("Tier", switch(charm.tier) {
-            case "Base": yield "charm";
-            case "Rare": yield "rarecharm";
-            case "Epic": yield "epiccharm";
-            default: yield "";
-        });
-        baseNbt.put("Monumenta", monumenta);
-
-        NbtCompound plain = new NbtCompound();
-        NbtCompound display = new NbtCompound();
-        NbtList lore = new NbtList();
-        lore.add(0, NbtString.of("Charm Power :  - " + charm.className));
-        display.putString("Name", charm.name.split("\\(")[0].trim());
-        display.put("Lore", lore);
-        plain.put("display", display);
-
-        baseNbt.put("plain", plain);
-
-        builtItem.setNbt(baseNbt);
-        return builtItem;
+        if (charm == null) return ItemFactory.getIcon("barrier", "No Item");
+        return ItemFactory.getCharmIcon(charm.baseItem, charm.name, charm.power, charm.tier, charm.className);
     }
 
     @Override
@@ -9,7 +9,6 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.text.Text;
 
 import java.util.ArrayList;
@@ -33,14 +32,7 @@ public class BuildItemButtonWidget extends ButtonWidget {
         this.scale = (float) width/18;
 
 
-        builtItem = ItemFactory.fromEncoding(item != null ? (item.baseItem.split("/")[0].trim().toLowerCase().replace(" ", "_")) : "barrier");
-        NbtCompound baseNbt = builtItem.getOrCreateNbt();
-        NbtCompound plain = new NbtCompound();
-        NbtCompound display = new NbtCompound();
-        display.putString("Name", item != null ? (item.name.split("\\(")[0].trim()) : "No Item");
-        plain.put("display", display);
-        baseNbt.put("plain", plain);
-        builtItem.setNbt(baseNbt);
+        builtItem = item != null ? ItemFactory.getIcon(item.baseItem, item.name) : ItemFactory.getIcon("barrier", "No Item");
     }
 
     @Override
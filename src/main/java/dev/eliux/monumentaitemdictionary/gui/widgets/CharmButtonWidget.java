@@ -5,58 +5,38 @@ import dev.eliux.monumentaitemdictionary.gui.charm.CharmDictionaryGui;
 import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
 import dev.eliux.monumentaitemdictionary.util.ItemColors;
 import dev.eliux.monumentaitemdictionary.util.ItemFactory;
-import java.util.List;
-import java.util.function.Supplier;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtList;
-import net.minecraft.nbt.NbtString;
 import net.minecraft.text.Text;
 
 public class CharmButtonWidget extends ButtonWidget {
-    private final DictionaryCharm charm;
-    private final ItemStack builtItem;
-    public final int index;
-    private final Supplier<List<Text>> tooltipTextSupplier;
+    private DictionaryCharm charm;
+    private ItemStack builtItem;
+    public int index;
 
     private final CharmDictionaryGui gui;
 
-    public CharmButtonWidget(int x, int y, int charmSize, int index, Text message, PressAction onPress, DictionaryCharm charm, Supplier<List<Text>> tooltipTextSupplier, CharmDictionaryGui gui) {
-        super(x, y, charmSize, charmSize, message, onPress, DEFAULT_NARRATION_SUPPLIER);
-        this.tooltipTextSupplier = tooltipTextSupplier;
-        this.charm = charm;
+    // starts out empty, the charm grid binds it with setCharm before it is ever shown
+    public CharmButtonWidget(int charmSize, PressAction onPress, CharmDictionaryGui gui) {
+        super(0, 0, charmSize, charmSize, Text.literal(""), onPress, DEFAULT_NARRATION_SUPPLIER);
+        this.gui = gui;
+    }
+
+    public void setCharm(DictionaryCharm charm, int index) {
         this.index = index;
+        if (this.charm == charm) return;
 
-        this.gui = gui;
+        this.charm = charm;
+        setMessage(Text.literal(charm.name));
 
         // dummy itemstack for rendering item icon
-        builtItem = ItemFactory.fromEncoding(charm.baseItem.split("/")[0].trim().toLowerCase().replace(" ", "_"));
-        NbtCompound baseNbt = builtItem.getOrCreateNbt();
-
-        NbtCompound monumenta = new NbtCompound();
-        monumenta.putInt("CharmPower", charm.power);
-        monumenta.putString("Tier", switch(charm.tier) {
-            case "Base": yield "charm";
-            case "Rare": yield "rarecharm";
-            case "Epic": yield "epiccharm";
-            default: yield "";
-        });
-        baseNbt.put("Monumenta", monumenta);
-
-        NbtCompound plain = new NbtCompound();
-        NbtCompound display = new NbtCompound();
-        NbtList lore = new NbtList();
-        lore.add(0, NbtString.of("Charm Power :  - " + charm.className));
-        display.putString("Name", charm.name.split("\\(")[0].trim());
-        display.put("Lore", lore);
-        plain.put("display", display);
-
-        baseNbt.put("plain", plain);
-
-        builtItem.setNbt(baseNbt);
+        builtItem = ItemFactory.getCharmIcon(charm.baseItem, charm.name, charm.power, charm.tier, charm.className);
+    }
+
+    public DictionaryCharm getCharm() {
+        return charm;
     }
 
     @Override
@@ -93,7 +73,7 @@ public class CharmButtonWidget extends ButtonWidget {
         MinecraftClient.getInstance().getItemRenderer().renderGuiItemIcon(matrices, builtItem, minX + (width / 2) - 7, minY + (height / 2) - 7);
 
         if (hovered) {
-            gui.renderTooltip(matrices, tooltipTextSupplier.get(), mouseX, mouseY);
+            gui.renderTooltip(matrices, gui.generateCharmLoreText(charm), mouseX, mouseY);
         }
     }
 }
@@ -1,9 +1,13 @@
 package dev.eliux.monumentaitemdictionary.gui.widgets;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.widget.ButtonWidget;
+import net.minecraft.client.texture.NativeImage;
+import net.minecraft.client.texture.NativeImageBackedTexture;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
 
 import java.awt.Color;
 import java.util.function.Consumer;
@@ -21,6 +25,16 @@ public class ColorPickerWidget extends ButtonWidget {
     private float saturation = 1;
     private float brightness = 1;
 
+    // the saturation/brightness box and the hue strip are drawn into textures, so a frame is two quads instead of a fill
+    // per pixel. the box only gets drawn again when the hue changes, the strip never does.
+    // each picker has its own, made the first time its popup is drawn. the screen holding the picker lets go of them
+    // with releaseTextures when it closes, and they're made again if the popup is drawn after that
+    private NativeImageBackedTexture fieldTexture;
+    private Identifier fieldTextureId;
+    private float fieldTextureHue = Float.NaN;
+    private NativeImageBackedTexture hueTexture;
+    private Identifier hueTextureId;
+
     public ColorPickerWidget(int x, int y, int width, int height, int popupWidth, int popupHeight, Consumer<Integer> onSelect) {
         super(x, y, width, height, Text.literal(""), (b) -> {}, DEFAULT_NARRATION_SUPPLIER);
         this.onSelect = onSelect;
@@ -51,24 +65,21 @@ public class ColorPickerWidget extends ButtonWidget {
     public void renderPopup(MatrixStack matrices, int mouseX, int mouseY, float delta) {
         if (!visible || !isOpen) return;
 
-        // main box
-        for (int x = 0; x < popupWidth; x++) {
-            for (int y = 0; y < popupHeight; y++) {
-                int color = Color.HSBtoRGB(hue, (float)x / popupWidth, 1f - ((float)y / popupHeight));
-                fill(matrices, getX() + x, getY() + getHeight() + y, getX() + x + 1, getY() + getHeight() + y + 1, color);
-            }
-        }
+        updateTextures();
+
+        // main box. the textures already hold the final colors, so nothing a previous draw left behind may tint them
+        RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+        RenderSystem.setShaderTexture(0, fieldTextureId);
+        drawTexture(matrices, getX(), getY() + getHeight(), 0, 0, popupWidth, popupHeight, popupWidth, popupHeight);
 
         drawHorizontalLine(matrices, getX() - 1, getX() + popupWidth, getY() + getHeight(), 0xFFFFFFFF);
         drawHorizontalLine(matrices, getX() - 1, getX() + popupWidth, getY() + getHeight() + popupHeight, 0xFFFFFFFF);
         drawVerticalLine(matrices, getX() - 1, getY() + getHeight(), getY() + getHeight() + popupHeight, 0xFFFFFFFF);
         drawVerticalLine(matrices, getX() + popupWidth, getY() + getHeight(), getY() + getHeight() + popupHeight, 0xFFFFFFFF);
 
-        // hue box
-        for (int x = 0; x < popupWidth; x++) {
-            int color = Color.HSBtoRGB((float)x / popupWidth, 1, 1);
-            fill(matrices, getX() + x, getY() + getHeight() + popupHeight + 4, getX() + x + 1, getY() + getHeight() + popupHeight + 10, color);
-        }
+        // hue box, the one pixel tall strip stretched to 6
+        RenderSystem.setShaderTexture(0, hueTextureId);
+        drawTexture(matrices, getX(), getY() + getHeight() + popupHeight + 4, popupWidth, 6, 0, 0, popupWidth, 1, popupWidth, 1);
 
         drawHorizontalLine(matrices, getX() - 1, getX() + popupWidth, getY() + getHeight() + popupHeight + 4, 0xFFFFFFFF);
         drawHorizontalLine(matrices, getX() - 1, getX() + popupWidth, getY() + getHeight() + popupHeight + 10, 0xFFFFFFFF);
@@ -76,6 +87,71 @@ public class ColorPickerWidget extends ButtonWidget {
         drawVerticalLine(matrices, getX() + popupWidth, getY() + getHeight() + popupHeight + 4, getY() + getHeight() + popupHeight + 10, 0xFFFFFFFF);
     }
 
+    private void updateTextures() {
+        if (fieldTexture == null) {
+            // registering a dynamic texture numbers its id, so every picker gets its own
+            fieldTexture = new NativeImageBackedTexture(popupWidth, popupHeight, false);
+            fieldTextureId = MinecraftClient.getInstance().getTextureManager().registerDynamicTexture("mid_color_picker", fieldTexture);
+            fieldTextureHue = Float.NaN;
+
+            hueTexture = new NativeImageBackedTexture(popupWidth, 1, false);
+            copyPixels(huePixels(popupWidth), hueTexture.getImage(), popupWidth, 1);
+            hueTexture.upload();
+            hueTextureId = MinecraftClient.getInstance().getTextureManager().registerDynamicTexture("mid_color_picker_hue", hueTexture);
+        }
+
+        if (hue != fieldTextureHue) {
+            copyPixels(fieldPixels(hue, popupWidth, popupHeight), fieldTexture.getImage(), popupWidth, popupHeight);
+            fieldTexture.upload();
+            fieldTextureHue = hue;
+        }
+    }
+
+    // frees the popup's textures, for when the screen holding the picker closes. drawing the popup again makes new ones
+    public void releaseTextures() {
+        if (fieldTexture != null) MinecraftClient.getInstance().getTextureManager().destroyTexture(fieldTextureId);
+        if (hueTexture != null) MinecraftClient.getInstance().getTextureManager().destroyTexture(hueTextureId);
+        fieldTexture = null;
+        fieldTextureId = null;
+        fieldTextureHue = Float.NaN;
+        hueTexture = null;
+        hueTextureId = null;
+    }
+
+    private static void copyPixels(int[] pixels, NativeImage image, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setColor(x, y, pixels[y * width + x]);
+            }
+        }
+    }
+
+    // the saturation/brightness box for hue, row by row in NativeImage's ABGR. the same colors the popup used to fill
+    // pixel by pixel: saturation across, brightness down
+    static int[] fieldPixels(float hue, int width, int height) {
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = toAbgr(Color.HSBtoRGB(hue, (float)x / width, 1f - ((float)y / height)));
+            }
+        }
+        return pixels;
+    }
+
+    // the hue strip, one row in ABGR
+    static int[] huePixels(int width) {
+        int[] pixels = new int[width];
+        for (int x = 0; x < width; x++) {
+            pixels[x] = toAbgr(Color.HSBtoRGB((float)x / width, 1, 1));
+        }
+        return pixels;
+    }
+
+    // native images are ABGR, awt colors are ARGB
+    static int toAbgr(int argb) {
+        return (argb & 0xFF00FF00) | ((argb >> 16) & 0xFF) | ((argb & 0xFF) << 16);
+    }
+
     public boolean willClick(double mouseX, double mouseY) {
         return (isOpen && visible && (mouseY >= getY() + getHeight() && mouseY <= getY() + getHeight() + popupHeight + 11 && mouseX > getX() && mouseX < getX() + popupWidth));
     }
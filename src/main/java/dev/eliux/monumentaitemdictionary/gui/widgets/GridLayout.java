@@ -0,0 +1,74 @@
+package dev.eliux.monumentaitemdictionary.gui.widgets;
+
+// where the cells of a grid (or a list, with one column) go, worked out from the index alone.
+// cells are laid out left to right and wrap at the width, with padding before every cell and row
+public class GridLayout {
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int padding;
+    private final int left;
+    private final int top;
+    private int columns = 1;
+
+    public GridLayout(int cellWidth, int cellHeight, int padding, int left, int top) {
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.padding = padding;
+        this.left = left;
+        this.top = top;
+    }
+
+    // fits as many columns as there is room for (at least one), true when that changed
+    public boolean setWidth(int width) {
+        int columns = Math.max(1, width / (cellWidth + padding));
+        if (columns == this.columns) return false;
+
+        this.columns = columns;
+        return true;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getX(int index) {
+        int col = index % columns;
+        return left + (col + 1) * padding + col * cellWidth;
+    }
+
+    public int getY(int index) {
+        int row = index / columns;
+        return top + (row + 1) * padding + row * cellHeight;
+    }
+
+    public int getRowHeight() {
+        return cellHeight + padding;
+    }
+
+    public int getRows(int count) {
+        return (count + columns - 1) / columns;
+    }
+
+    // from top to the padding below the last row
+    public int getContentHeight(int count) {
+        int rows = getRows(count);
+        return rows * cellHeight + (rows + 1) * padding;
+    }
+
+    // the index of the cell under x, y (same space as getX and getY), -1 for padding or past the last of count cells
+    public int indexAt(double x, double y, int count) {
+        int col = cellAt(x - left, cellWidth);
+        int row = cellAt(y - top, cellHeight);
+        if (col == -1 || row == -1 || col >= columns) return -1;
+
+        int index = row * columns + col;
+        return index < count ? index : -1;
+    }
+
+    private int cellAt(double offset, int cellSize) {
+        int stride = cellSize + padding;
+        int at = (int) Math.floor(offset) - padding;
+        if (at < 0 || at % stride >= cellSize) return -1;
+        return at / stride;
+    }
+}
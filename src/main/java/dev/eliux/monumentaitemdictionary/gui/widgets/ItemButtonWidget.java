@@ -5,47 +5,38 @@ import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
 import dev.eliux.monumentaitemdictionary.gui.item.ItemDictionaryGui;
 import dev.eliux.monumentaitemdictionary.util.ItemColors;
 import dev.eliux.monumentaitemdictionary.util.ItemFactory;
-import dev.eliux.monumentaitemdictionary.util.ItemStat;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Supplier;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.text.Text;
 
 public class ItemButtonWidget extends ButtonWidget {
-    private final int itemSize;
-    private final DictionaryItem item;
-    private final ItemStack builtItem;
-    public final int index;
-    private final Supplier<List<Text>> tooltipTextSupplier;
-
-    public int shownMasterworkTier;
+    private DictionaryItem item;
+    private ItemStack builtItem;
+    public int index;
 
     private final ItemDictionaryGui gui;
 
-    public ItemButtonWidget(int x, int y, int itemSize, int index, Text message, PressAction onPress, DictionaryItem item, Supplier<List<Text>> tooltipTextSupplier, ItemDictionaryGui gui) {
-        super(x, y, itemSize, itemSize, message, onPress, DEFAULT_NARRATION_SUPPLIER);
-        this.tooltipTextSupplier = tooltipTextSupplier;
-        this.itemSize = itemSize;
-        this.item = item;
+    // starts out empty, the item grid binds it with setItem before it is ever shown
+    public ItemButtonWidget(int itemSize, PressAction onPress, ItemDictionaryGui gui) {
+        super(0, 0, itemSize, itemSize, Text.literal(""), onPress, DEFAULT_NARRATION_SUPPLIER);
+        this.gui = gui;
+    }
+
+    public void setItem(DictionaryItem item, int index) {
         this.index = index;
-        shownMasterworkTier = item.getMinMasterwork();
+        if (this.item == item) return;
 
-        this.gui = gui;
+        this.item = item;
+        setMessage(Text.literal(item.name));
 
         // dummy itemstack for rendering item icon
-        builtItem = ItemFactory.fromEncoding(item.baseItem.split("/")[0].trim().toLowerCase().replace(" ", "_"));
-        NbtCompound baseNbt = builtItem.getOrCreateNbt();
-        NbtCompound plain = new NbtCompound();
-        NbtCompound display = new NbtCompound();
-        display.putString("Name", item.name.split("\\(")[0].trim());
-        plain.put("display", display);
-        baseNbt.put("plain", plain);
-        builtItem.setNbt(baseNbt);
+        builtItem = ItemFactory.getIcon(item.baseItem, item.name);
+    }
+
+    public DictionaryItem getItem() {
+        return item;
     }
 
     @Override
@@ -57,24 +48,13 @@ public class ItemButtonWidget extends ButtonWidget {
         return this.item == item;
     }
 
-    public void setMinimumMasterwork() {
-        shownMasterworkTier = item.getMinMasterwork();
-    }
-
-    public void setMaximumMasterwork() {
-        // shownMasterworkTier = item.getMaxMasterwork();
-        int max = 0;
-        for (ArrayList<ItemStat> stats : item.stats) {
-            if (stats != null) max = item.stats.indexOf(stats);
-        }
-        shownMasterworkTier = max;
-    }
-
+    // the shown tier lives in the gui, so it stays with the item when this widget gets rebound
     public void scrolled(double mouseX, double mouseY, double amount) {
         if (mouseX >= getX() && mouseX <= getX() + width && mouseY >= getY() - gui.getScrollPixels() && mouseY <= getY() + height - gui.getScrollPixels() && item.hasMasterwork) {
-            shownMasterworkTier += amount;
+            int shownMasterworkTier = gui.getShownMasterworkTier(item) + (int) amount;
             if (shownMasterworkTier < 0) shownMasterworkTier = 0;
             if (shownMasterworkTier > item.getMaxMasterwork() - 1) shownMasterworkTier = item.getMaxMasterwork() - 1;
+            gui.setShownMasterworkTier(item, shownMasterworkTier);
         }
     }
 
@@ -104,7 +84,7 @@ public class ItemButtonWidget extends ButtonWidget {
         MinecraftClient.getInstance().getItemRenderer().renderGuiItemIcon(matrices, builtItem, minX + (width / 2) - 7, minY + (height / 2) - 7);
 
         if (hovered) {
-            gui.renderTooltip(matrices, tooltipTextSupplier.get(), mouseX, mouseY);
+            gui.renderTooltip(matrices, gui.generateItemLoreText(item), mouseX, mouseY);
         }
     }
 }
@@ -0,0 +1,131 @@
+package dev.eliux.monumentaitemdictionary.gui.widgets;
+
+import net.minecraft.client.gui.widget.ClickableWidget;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// a scrolling grid of buttons that only has widgets for the rows on screen (plus a row of overscan on each side).
+// positions come from the layout, so nothing has to be laid out for entries that aren't shown, and widgets of rows
+// scrolled away are kept in a pool and bound to the entries scrolling in. a new list costs a screenful of binds,
+// however long the list is, and a new width only moves the widgets that stay on screen.
+// widget y values are in content space, same as before (subtract the scroll when rendering)
+public class VirtualGrid<T, W extends ClickableWidget> {
+    private static final int OVERSCAN_ROWS = 1;
+
+    public interface Binder<T, W> {
+        // points widget at entry, which sits at index in the list
+        void bind(W widget, T entry, int index);
+    }
+
+    private final GridLayout layout;
+    private final Supplier<W> factory;
+    private final Binder<T, W> binder;
+
+    private List<T> entries = new ArrayList<>();
+    private boolean moved = false; // the layout changed, the widgets kept by the next update need new positions
+
+    private final ArrayList<W> shown = new ArrayList<>(); // shown.get(i) is bound to entries.get(shownFrom + i)
+    private int shownFrom = 0;
+    private final ArrayDeque<W> pool = new ArrayDeque<>();
+
+    public VirtualGrid(GridLayout layout, Supplier<W> factory, Binder<T, W> binder) {
+        this.layout = layout;
+        this.factory = factory;
+        this.binder = binder;
+    }
+
+    // widgets whose entry is the same instance at the same index in the new list stay bound, the rest of the rows on
+    // screen are bound again. a reload that changed a few entries, or the same results coming back, binds only those
+    public void setEntries(List<T> entries) {
+        List<T> previous = this.entries;
+        this.entries = entries;
+
+        int keep = Math.max(0, Math.min(shown.size(), entries.size() - shownFrom));
+        while (shown.size() > keep) {
+            pool.push(shown.remove(shown.size() - 1));
+        }
+        for (int i = 0; i < shown.size(); i++) {
+            int index = shownFrom + i;
+            if (entries.get(index) != previous.get(index)) binder.bind(shown.get(i), entries.get(index), index);
+        }
+        if (shown.isEmpty()) shownFrom = 0;
+    }
+
+    // width is the space the grid can use, the columns are however many cells fit (at least one)
+    public void setWidth(int width) {
+        if (layout.setWidth(width)) moved = true;
+    }
+
+    // binds the rows between scrollPixels and scrollPixels + viewHeight (below the grid's top), keeping the widgets
+    // of entries that stay on screen as they are
+    public void update(int scrollPixels, int viewHeight) {
+        int rowHeight = layout.getRowHeight();
+        int columns = layout.getColumns();
+        int firstRow = Math.max(0, scrollPixels / rowHeight - OVERSCAN_ROWS);
+        int lastRow = Math.max(0, (scrollPixels + viewHeight) / rowHeight + OVERSCAN_ROWS);
+        int from = Math.min(entries.size(), firstRow * columns);
+        int to = Math.min(entries.size(), (lastRow + 1) * columns);
+
+        int shownTo = shownFrom + shown.size();
+        if (from == shownFrom && to == shownTo && !moved) return;
+
+        for (int index = shownFrom; index < shownTo; index++) {
+            if (index < from || index >= to) pool.push(shown.get(index - shownFrom));
+        }
+
+        ArrayList<W> next = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            W widget;
+            if (index >= shownFrom && index < shownTo) {
+                widget = shown.get(index - shownFrom);
+                if (!moved) {
+                    next.add(widget);
+                    continue;
+                }
+            } else {
+                widget = pool.isEmpty() ? factory.get() : pool.pop();
+                binder.bind(widget, entries.get(index), index);
+            }
+            widget.setX(layout.getX(index));
+            widget.setY(layout.getY(index));
+            next.add(widget);
+        }
+
+        shown.clear();
+        shown.addAll(next);
+        shownFrom = from;
+        moved = false;
+    }
+
+    // the widget under x, y (content space, like the widgets' own positions), null if there is none
+    public W getShownAt(double x, double y) {
+        int index = layout.indexAt(x, y, entries.size());
+        if (index < shownFrom || index >= shownFrom + shown.size()) return null;
+        return shown.get(index - shownFrom);
+    }
+
+    // the widgets bound by the last update, in list order. runs every frame, so it goes over the live list:
+    // action must not set new entries (clicks go through getShownAt, which hands out one widget)
+    public void forEachShown(Consumer<W> action) {
+        for (int i = 0; i < shown.size(); i++) {
+            action.accept(shown.get(i));
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int getRows() {
+        return layout.getRows(entries.size());
+    }
+
+    // from the grid's top to below the last row
+    public int getContentHeight() {
+        return layout.getContentHeight(entries.size());
+    }
+}
@@ -0,0 +1,90 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.FacetDictionary;
+import dev.eliux.monumentaitemdictionary.catalog.StatStore;
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+
+import java.util.BitSet;
+import java.util.List;
+
+// turns the rows of the filter screens into pipelines. this only runs when the filters or the catalog change,
+// so the rows become a FilterPlan over the catalog's facets and range indexes right here, and what it selects
+// is all that's left for the pipeline to visit
+public class FilterCompiler {
+    public static FilterPipeline<DictionaryItem> compileItemFilters(List<Filter> filters, Catalog catalog) {
+        FilterPlan plan = new FilterPlan(catalog.getItems().size());
+
+        for (Filter filter : filters) {
+            if (filter == null || filter.isWeight()) continue;
+            if (filter.or) plan.or();
+            if (filter.value.isEmpty()) continue;
+
+            switch (filter.getOption()) {
+                case "Stat" -> addStat(plan, catalog.getAllItemStats(), catalog.getItemStats(), filter);
+                case "Tier" -> addMatch(plan, catalog.getAllItemTiers(), filter);
+                case "Region" -> addMatch(plan, catalog.getAllItemRegions(), filter);
+                case "Type" -> addMatch(plan, catalog.getAllItemTypes(), filter);
+                case "Location" -> addMatch(plan, catalog.getAllItemLocations(), filter);
+                case "Base Item" -> addMatch(plan, catalog.getAllItemBaseItems(), filter);
+            }
+        }
+
+        return toPipeline(plan, catalog.getItems().size());
+    }
+
+    public static FilterPipeline<DictionaryCharm> compileCharmFilters(List<Filter> filters, Catalog catalog) {
+        FilterPlan plan = new FilterPlan(catalog.getCharms().size());
+
+        for (Filter filter : filters) {
+            if (filter == null || filter.isWeight()) continue;
+            if (filter.or) plan.or();
+
+            if (filter.getOption().equals("Charm Power")) {
+                plan.addRange(catalog.getCharmPowerIndex(), filter.comparator, filter.constant, filter.not);
+                continue;
+            }
+            if (filter.value.isEmpty()) continue;
+
+            switch (filter.getOption()) {
+                case "Stat" -> addStat(plan, catalog.getAllCharmStats(), catalog.getCharmStats(), filter);
+                case "Tier" -> addMatch(plan, catalog.getAllCharmTiers(), filter);
+                case "Class" -> addMatch(plan, catalog.getAllCharmClasses(), filter);
+                case "Skill Modifier" -> addMatch(plan, catalog.getAllCharmSkillMods(), filter);
+                case "Location" -> addMatch(plan, catalog.getAllCharmLocations(), filter);
+                case "Base Item" -> addMatch(plan, catalog.getAllCharmBaseItems(), filter);
+            }
+        }
+
+        return toPipeline(plan, catalog.getCharms().size());
+    }
+
+    private static <T> FilterPipeline<T> toPipeline(FilterPlan plan, int size) {
+        FilterPipeline<T> pipeline = new FilterPipeline<>(size);
+        BitSet matches = plan.evaluate();
+        if (matches != null) pipeline.intersect(matches);
+        return pipeline;
+    }
+
+    // Matches / Excludes, a value nothing has selects nothing. a Not row flips either
+    private static void addMatch(FilterPlan plan, FacetDictionary facet, Filter filter) {
+        switch (filter.comparator) {
+            case 0 -> plan.addFacet(facet, filter.value, filter.not);
+            case 1 -> plan.addFacet(facet, filter.value, !filter.not);
+        }
+    }
+
+    // exists / not exists use the stat facet's entry sets, comparisons the stat's range index
+    private static void addStat(FilterPlan plan, FacetDictionary facet, StatStore stats, Filter filter) {
+        switch (filter.comparator) {
+            case 0, 1 -> addMatch(plan, facet, filter);
+            default -> {
+                int id = stats.getId(filter.value);
+                if (id == -1) plan.addNothing(filter.not);
+                else plan.addRange(stats.getRangeIndex(id), filter.comparator, filter.constant, filter.not);
+            }
+        }
+    }
+}
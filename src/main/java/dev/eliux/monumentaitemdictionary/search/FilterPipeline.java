@@ -0,0 +1,132 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+// a filter list compiled into one pass over the catalog.
+// categorical and range filters (type, region, stat >= x...) are bitset operations on the catalog's indexes, done
+// once at compile time, so only entries that survive all of them (and the name search) are visited.
+// the remaining checks are ordered cheapest first, so an entry is usually thrown out before anything expensive runs
+public class FilterPipeline<T> {
+    public static final int COST_FIELD = 0; // compares a single field or stat column value
+
+    private final int size;
+    private BitSet candidates; // null while every entry is still a candidate
+    private final ArrayList<Step<T>> steps = new ArrayList<>();
+
+    // size is the number of entries in the catalog list this pipeline is run on
+    public FilterPipeline(int size) {
+        this.size = size;
+    }
+
+    // only entries in the set pass, e.g. what a range index selected
+    public void intersect(BitSet entries) {
+        getCandidates().and(entries);
+    }
+
+    public void add(int cost, Predicate<T> test) {
+        addStep(new Step<>(cost, (entry, ordinal) -> test.test(entry)));
+    }
+
+    // for checks against per ordinal data, like the catalog's stat columns
+    public void addByOrdinal(int cost, IntPredicate test) {
+        addStep(new Step<>(cost, (entry, ordinal) -> test.test(ordinal)));
+    }
+
+    private void addStep(Step<T> step) {
+        int at = steps.size();
+        while (at > 0 && steps.get(at - 1).cost > step.cost) at--;
+        steps.add(at, step);
+    }
+
+    // a copy with one more check, for the per refresh parts (the builder's slot type) on top of the compiled filters
+    public FilterPipeline<T> with(int cost, Predicate<T> test) {
+        FilterPipeline<T> pipeline = new FilterPipeline<>(size);
+        if (candidates != null) pipeline.candidates = (BitSet) candidates.clone();
+        pipeline.steps.addAll(steps);
+        pipeline.add(cost, test);
+        return pipeline;
+    }
+
+    // a copy that only lets the entries in the set through, for the per keystroke name search
+    public FilterPipeline<T> withOnly(BitSet entries) {
+        FilterPipeline<T> pipeline = new FilterPipeline<>(size);
+        pipeline.candidates = (BitSet) getCandidates().clone();
+        pipeline.candidates.and(entries);
+        pipeline.steps.addAll(steps);
+        return pipeline;
+    }
+
+    // entries has to be the same list the facets were counted on, candidates are positions in it
+    public ArrayList<T> filter(List<T> entries) {
+        return pick(entries, select(entries));
+    }
+
+    // the ordinals of the matching entries, ascending
+    public int[] select(List<T> entries) {
+        int[] matching = new int[candidates == null ? entries.size() : candidates.cardinality()];
+        int count = 0;
+        if (candidates == null) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (matches(entries.get(i), i)) matching[count++] = i;
+            }
+        } else {
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (matches(entries.get(i), i)) matching[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matching, count);
+    }
+
+    // the ordinals in order that match, keeping their order. for ranked name search results
+    public int[] select(List<T> entries, int[] order) {
+        int[] matching = new int[order.length];
+        int count = 0;
+        for (int ordinal : order) {
+            if ((candidates == null || candidates.get(ordinal)) && matches(entries.get(ordinal), ordinal))
+                matching[count++] = ordinal;
+        }
+        return Arrays.copyOf(matching, count);
+    }
+
+    public static <T> ArrayList<T> pick(List<T> entries, int[] ordinals) {
+        ArrayList<T> picked = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            picked.add(entries.get(ordinal));
+        }
+        return picked;
+    }
+
+    private boolean matches(T entry, int ordinal) {
+        for (Step<T> step : steps) {
+            if (!step.test.test(entry, ordinal)) return false;
+        }
+        return true;
+    }
+
+    private BitSet getCandidates() {
+        if (candidates == null) {
+            candidates = new BitSet(size);
+            candidates.set(0, size);
+        }
+        return candidates;
+    }
+
+    private static class Step<T> {
+        private final int cost;
+        private final EntryTest<T> test;
+
+        private Step(int cost, EntryTest<T> test) {
+            this.cost = cost;
+            this.test = test;
+        }
+    }
+
+    private interface EntryTest<T> {
+        boolean test(T entry, int ordinal);
+    }
+}
@@ -0,0 +1,123 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.FacetDictionary;
+import dev.eliux.monumentaitemdictionary.catalog.RangeIndex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+
+// the filter rows as or'd groups of and'd clauses. every clause is a bitset operation on the catalog's indexes
+// and how many entries it lets through is known before running it (facet counts, range index bounds), so each
+// group runs its most selective clause first and stops once nothing is left, and the groups stop once everything matched
+public class FilterPlan {
+    private final int size;
+    private final ArrayList<ArrayList<Clause>> groups = new ArrayList<>();
+
+    // size is the number of entries in the catalog list the clauses are over
+    public FilterPlan(int size) {
+        this.size = size;
+        groups.add(new ArrayList<>());
+    }
+
+    // starts the next group. an or with nothing before it (first row, unfinished rows) just keeps the current one
+    public void or() {
+        if (!groups.get(groups.size() - 1).isEmpty())
+            groups.add(new ArrayList<>());
+    }
+
+    // entries with value, or with negated the ones without it
+    public void addFacet(FacetDictionary facet, String value, boolean negated) {
+        int count = facet.getCount(value);
+        add(new Clause(negated ? size - count : count) {
+            @Override
+            void and(BitSet target) {
+                if (negated) facet.andNot(target, value);
+                else facet.and(target, value);
+            }
+        });
+    }
+
+    // entries passing comparator 2 to 6 against constant, or with negated the ones that don't
+    public void addRange(RangeIndex index, int comparator, double constant, boolean negated) {
+        int count = index.count(comparator, constant);
+        if (count == -1) {
+            addAll();
+            return;
+        }
+        add(new Clause(negated ? size - count : count) {
+            @Override
+            void and(BitSet target) {
+                index.and(target, comparator, constant, negated);
+            }
+        });
+    }
+
+    // for a row that can't match anything in this catalog, e.g. a stat no item has
+    public void addNothing(boolean negated) {
+        if (negated) {
+            addAll();
+            return;
+        }
+        add(new Clause(0) {
+            @Override
+            void and(BitSet target) {
+                target.clear();
+            }
+        });
+    }
+
+    // a row that lets everything through still counts, it makes its group match everything
+    private void addAll() {
+        add(new Clause(size) {
+            @Override
+            void and(BitSet target) {
+            }
+        });
+    }
+
+    private void add(Clause clause) {
+        groups.get(groups.size() - 1).add(clause);
+    }
+
+    // the entries passing the rows, null when there were no rows to pass
+    public BitSet evaluate() {
+        BitSet matched = null;
+        for (ArrayList<Clause> group : groups) {
+            if (group.isEmpty()) continue;
+
+            BitSet groupMatches = evaluate(group);
+            if (matched == null) matched = groupMatches;
+            else matched.or(groupMatches);
+            if (matched.cardinality() == size) break;
+        }
+        return matched;
+    }
+
+    private BitSet evaluate(ArrayList<Clause> group) {
+        ArrayList<Clause> ordered = new ArrayList<>(group);
+        ordered.sort(Comparator.comparingInt(clause -> clause.estimate));
+
+        BitSet matches = new BitSet(size);
+        if (ordered.get(0).estimate == 0) return matches;
+
+        matches.set(0, size);
+        for (Clause clause : ordered) {
+            if (clause.estimate == size) break; // it and everything after it lets every entry through
+            clause.and(matches);
+            if (matches.isEmpty()) break;
+        }
+        return matches;
+    }
+
+    private abstract static class Clause {
+        private final int estimate; // entries passing on their own
+
+        private Clause(int estimate) {
+            this.estimate = estimate;
+        }
+
+        // keeps only the entries in target that pass
+        abstract void and(BitSet target);
+    }
+}
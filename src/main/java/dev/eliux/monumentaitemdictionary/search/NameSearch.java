@@ -0,0 +1,49 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.TrigramIndex;
+
+import java.util.BitSet;
+
+// search-as-you-type over one search bar. a query containing the previous one (another letter typed)
+// can only match a subset of what that one matched, so only those are rechecked.
+// when nothing contains the query, similar() ranks the names closest to it, to get past typos
+public class NameSearch {
+    private static final double MIN_SIMILARITY = 0.5; // share of the query's trigrams a name needs
+
+    private TrigramIndex lastIndex;
+    private String lastQuery;
+    private BitSet lastMatches;
+
+    private TrigramIndex lastSimilarIndex;
+    private String lastSimilarQuery;
+    private int[] lastSimilar;
+
+    // the returned set is kept for narrowing the next query, so it must not be modified
+    public BitSet search(TrigramIndex index, String query) {
+        String lowerQuery = query.toLowerCase();
+        if (index == lastIndex && lowerQuery.equals(lastQuery))
+            return lastMatches;
+
+        BitSet matches;
+        if (index == lastIndex && lastQuery != null && lowerQuery.contains(lastQuery))
+            matches = index.search(lowerQuery, lastMatches);
+        else
+            matches = index.search(lowerQuery);
+
+        lastIndex = index;
+        lastQuery = lowerQuery;
+        lastMatches = matches;
+        return matches;
+    }
+
+    // ordinals of the closest names, best first. the returned array must not be modified
+    public int[] similar(TrigramIndex index, String query) {
+        String lowerQuery = query.toLowerCase();
+        if (index != lastSimilarIndex || !lowerQuery.equals(lastSimilarQuery)) {
+            lastSimilarIndex = index;
+            lastSimilarQuery = lowerQuery;
+            lastSimilar = index.rankSimilar(lowerQuery, MIN_SIMILARITY);
+        }
+        return lastSimilar;
+    }
+}
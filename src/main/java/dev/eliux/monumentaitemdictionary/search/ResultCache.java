@@ -0,0 +1,102 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.util.Filter;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// the last few results of one list, keyed by everything that decides them, so flipping back to a filter setup
+// or search from a moment ago is a lookup instead of a search. results are ordinals into one catalog, so
+// everything is dropped as soon as a lookup comes in for a different catalog version.
+// only touched on the search thread, the counters can be read from anywhere
+public class ResultCache {
+    private static final int CAPACITY = 32;
+
+    // ordinals into the catalog list in display order. capped when they are only the best few by score of more matches
+    public static class Result {
+        public final int[] ordinals;
+        public final boolean capped;
+
+        public Result(int[] ordinals, boolean capped) {
+            this.ordinals = ordinals;
+            this.capped = capped;
+        }
+    }
+
+    // access ordered, so the eldest entry is always the least recently used one
+    private final LinkedHashMap<String, Result> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+    private int catalogVersion = -1;
+    private volatile long hits = 0;
+    private volatile long misses = 0;
+
+    // the returned ordinals are shared with the cache, so they must not be modified
+    public Result get(int catalogVersion, String key) {
+        if (catalogVersion != this.catalogVersion) {
+            results.clear();
+            this.catalogVersion = catalogVersion;
+        }
+
+        Result result = results.get(key);
+        if (result == null) misses++;
+        else hits++;
+        return result;
+    }
+
+    public void put(String key, Result result) {
+        results.put(key, result);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // each or group of filters is an unordered set of conditions and the groups an unordered set of those, so the
+    // same rows in another order share an entry. Stat filters also decide the sort, earliest first, so their stats
+    // are kept in order after that
+    public static String key(List<Filter> filters, String nameQuery, String typeLookingFor) {
+        TreeSet<String> groups = new TreeSet<>();
+        TreeSet<String> conditions = new TreeSet<>();
+        LinkedHashSet<String> sortStats = new LinkedHashSet<>();
+        TreeSet<String> weights = new TreeSet<>(); // a score is a sum, so these are unordered too
+        for (Filter filter : filters) {
+            if (filter == null) continue;
+            if (filter.isWeight()) {
+                if (!filter.value.isEmpty()) weights.add(filter.value + '\0' + filter.constant);
+                continue;
+            }
+            if (filter.or && !conditions.isEmpty()) {
+                groups.add(String.join("\1", conditions));
+                conditions = new TreeSet<>();
+            }
+            if (filter.value.isEmpty() && !filter.getOption().equals("Charm Power")) continue;
+            if (filter.getOption().equals("Stat")) sortStats.add(filter.value);
+
+            // the constant only matters to the comparisons
+            conditions.add(filter.getOption() + '\0' + filter.value + '\0' + filter.comparator
+                    + (filter.comparator >= 2 ? "\0" + filter.constant : "") + (filter.not ? "\0not" : ""));
+        }
+        if (!conditions.isEmpty()) groups.add(String.join("\1", conditions));
+
+        StringBuilder key = new StringBuilder();
+        for (String group : groups) key.append(group).append('\3');
+        key.append('\2');
+        for (String stat : sortStats) key.append(stat).append('\1');
+        key.append('\2');
+        for (String weight : weights) key.append(weight).append('\1');
+        key.append('\2').append(nameQuery == null ? "" : "?" + nameQuery.toLowerCase());
+        key.append('\2').append(typeLookingFor == null ? "" : typeLookingFor);
+        return key.toString();
+    }
+}
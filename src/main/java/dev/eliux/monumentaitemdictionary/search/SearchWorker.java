@@ -0,0 +1,55 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// runs one list's searches off the render thread. every request replaces the one before it:
+// one still waiting out its delay never starts, one already running gives up at its next stale check,
+// and a result only gets handed back if nothing newer was asked for in the meantime
+@SuppressWarnings("CallToPrintStackTrace")
+public class SearchWorker<R> {
+    // shared by every list and a single thread, so search state (pipelines, name searches) is only touched there
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "MID Search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public interface Search<R> {
+        // returns null when it gave up because stale turned true
+        R run(BooleanSupplier stale);
+    }
+
+    private final AtomicInteger generation = new AtomicInteger();
+    private ScheduledFuture<?> pending; // only touched on the client thread
+
+    // onResult runs on resultExecutor (pass the client to land on the render thread)
+    public void request(long delayMillis, Search<R> search, Consumer<R> onResult, Executor resultExecutor) {
+        int requested = generation.incrementAndGet();
+        BooleanSupplier stale = () -> generation.get() != requested;
+
+        if (pending != null) pending.cancel(false);
+        pending = EXECUTOR.schedule(() -> {
+            if (stale.getAsBoolean()) return;
+
+            R result;
+            try {
+                result = search.run(stale);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return;
+            }
+            if (result == null || stale.getAsBoolean()) return;
+
+            resultExecutor.execute(() -> {
+                if (!stale.getAsBoolean()) onResult.accept(result);
+            });
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,112 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.StatStore;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ranks filter results by the weighted sum of their stats, for shortlisting gear. each weight is divided by its
+// stat's largest magnitude (so a weight means the same for armor and for a percentage), a missing stat adds
+// nothing, and only the best k results are kept in a heap while scoring, nothing else gets sorted. ties keep catalog order
+public class StatScore {
+    private final ArrayList<double[]> columns = new ArrayList<>();
+    private final ArrayList<Double> weights = new ArrayList<>();
+
+    public StatScore(StatStore stats, List<Filter> filters) {
+        for (Filter filter : filters) {
+            if (filter == null || !filter.isWeight() || filter.constant == 0) continue;
+            int id = stats.getId(filter.value);
+            if (id == -1 || stats.getLargest(id) == 0) continue; // it adds nothing to anyone
+
+            columns.add(stats.getColumn(id));
+            weights.add(filter.constant / stats.getLargest(id));
+        }
+    }
+
+    // true when there are no weights, and the results should be sorted the usual way
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    // the k best scoring of ordinals (which come in catalog order), best first
+    public int[] top(int[] ordinals, int k) {
+        double[][] weightedColumns = columns.toArray(new double[0][]);
+        double[] weightValues = new double[weights.size()];
+        for (int i = 0; i < weightValues.length; i++) {
+            weightValues[i] = weights.get(i);
+        }
+
+        k = Math.min(k, ordinals.length);
+        // min heap on score, so the root is always the worst of the best k seen so far
+        int[] heap = new int[k];
+        double[] heapScores = new double[k];
+        int size = 0;
+        for (int position = 0; position < ordinals.length && k > 0; position++) {
+            double score = 0;
+            for (int i = 0; i < weightedColumns.length; i++) {
+                double value = weightedColumns[i][ordinals[position]];
+                if (!Double.isNaN(value)) score += weightValues[i] * value;
+            }
+
+            if (size < k) {
+                heap[size] = position;
+                heapScores[size] = score;
+                siftUp(heap, heapScores, size++);
+            } else if (score > heapScores[0]) { // an equal score came later, so it loses the tie
+                heap[0] = position;
+                heapScores[0] = score;
+                siftDown(heap, heapScores, 0, size);
+            }
+        }
+
+        // popping the root k times leaves the heap array sorted front to back
+        for (int end = size - 1; end > 0; end--) {
+            swap(heap, heapScores, 0, end);
+            siftDown(heap, heapScores, 0, end);
+        }
+
+        int[] top = new int[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = ordinals[heap[i]];
+        }
+        return top;
+    }
+
+    // positive when a comes after b: a lower score, or the same score further down the catalog
+    private static int compare(int[] heap, double[] scores, int a, int b) {
+        int byScore = Double.compare(scores[b], scores[a]);
+        if (byScore != 0) return byScore;
+        return Integer.compare(heap[a], heap[b]);
+    }
+
+    private static void siftUp(int[] heap, double[] scores, int at) {
+        while (at > 0) {
+            int parent = (at - 1) / 2;
+            if (compare(heap, scores, at, parent) <= 0) return;
+            swap(heap, scores, at, parent);
+            at = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] scores, int at, int size) {
+        while (true) {
+            int worst = at;
+            int left = 2 * at + 1, right = left + 1;
+            if (left < size && compare(heap, scores, left, worst) > 0) worst = left;
+            if (right < size && compare(heap, scores, right, worst) > 0) worst = right;
+            if (worst == at) return;
+            swap(heap, scores, at, worst);
+            at = worst;
+        }
+    }
+
+    private static void swap(int[] heap, double[] scores, int a, int b) {
+        int position = heap[a];
+        heap[a] = heap[b];
+        heap[b] = position;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
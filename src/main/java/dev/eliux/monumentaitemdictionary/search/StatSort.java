@@ -0,0 +1,140 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.StatStore;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// orders filter results by their Stat filters, highest first, earlier filters deciding first, ties keeping
+// catalog order. every result's key vector is read out of the stat columns once up front, so comparing two
+// results is a few array reads instead of two stat scans per filter
+public class StatSort {
+    private final int[] ordinals;
+    private final double[][] keys; // [stat filter][position in ordinals]
+
+    public StatSort(int[] ordinals, StatStore stats, List<Filter> filters) {
+        this.ordinals = ordinals;
+
+        ArrayList<double[]> keyColumns = new ArrayList<>();
+        for (Filter filter : filters) {
+            if (filter == null || !filter.getOption().equals("Stat") || filter.isWeight()) continue;
+            int id = stats.getId(filter.value);
+            if (id == -1) continue; // nobody has it, every key would tie
+
+            double[] column = stats.getColumn(id);
+            double[] key = new double[ordinals.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                double value = column[ordinals[i]];
+                key[i] = Double.isNaN(value) ? -1.0 : value; // missing sorts like the old getStat's -1
+            }
+            keyColumns.add(key);
+        }
+        keys = keyColumns.toArray(new double[0][]);
+    }
+
+    // every result, in order
+    public int[] sorted() {
+        int[] positions = positions(ordinals.length);
+        if (keys.length > 0)
+            mergeSort(positions, new int[positions.length], 0, positions.length);
+        return toOrdinals(positions, positions.length);
+    }
+
+    // just the first k results, in order, without sorting the rest. for when only a screenful is shown
+    public int[] top(int k) {
+        k = Math.min(k, ordinals.length);
+        if (keys.length == 0) return toOrdinals(positions(k), k);
+
+        // max heap on "comes later", so the root is always the worst of the best k seen so far
+        int[] heap = new int[k];
+        int size = 0;
+        for (int position = 0; position < ordinals.length && k > 0; position++) {
+            if (size < k) {
+                heap[size] = position;
+                siftUp(heap, size++);
+            } else if (compare(position, heap[0]) < 0) {
+                heap[0] = position;
+                siftDown(heap, 0, size);
+            }
+        }
+
+        // popping the root k times leaves the heap array sorted front to back
+        for (int end = size - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end);
+        }
+        return toOrdinals(heap, size);
+    }
+
+    // positions are indexes into ordinals, which come in catalog order, so breaking ties on them keeps it
+    private int compare(int a, int b) {
+        for (double[] key : keys) {
+            int byKey = Double.compare(key[b], key[a]);
+            if (byKey != 0) return byKey;
+        }
+        return Integer.compare(a, b);
+    }
+
+    private void mergeSort(int[] positions, int[] buffer, int from, int to) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        mergeSort(positions, buffer, from, mid);
+        mergeSort(positions, buffer, mid, to);
+        if (compare(positions[mid - 1], positions[mid]) <= 0) return; // already in order
+
+        System.arraycopy(positions, from, buffer, from, to - from);
+        int left = from, right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compare(buffer[left], buffer[right]) <= 0))
+                positions[i] = buffer[left++];
+            else
+                positions[i] = buffer[right++];
+        }
+    }
+
+    private void siftUp(int[] heap, int at) {
+        while (at > 0) {
+            int parent = (at - 1) / 2;
+            if (compare(heap[at], heap[parent]) <= 0) return;
+            swap(heap, at, parent);
+            at = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int at, int size) {
+        while (true) {
+            int worst = at;
+            int left = 2 * at + 1, right = left + 1;
+            if (left < size && compare(heap[left], heap[worst]) > 0) worst = left;
+            if (right < size && compare(heap[right], heap[worst]) > 0) worst = right;
+            if (worst == at) return;
+            swap(heap, at, worst);
+            at = worst;
+        }
+    }
+
+    private static void swap(int[] array, int a, int b) {
+        int swapped = array[a];
+        array[a] = array[b];
+        array[b] = swapped;
+    }
+
+    private static int[] positions(int count) {
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = i;
+        }
+        return positions;
+    }
+
+    private int[] toOrdinals(int[] positions, int count) {
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = ordinals[positions[i]];
+        }
+        return sorted;
+    }
+}
@@ -5,6 +5,10 @@ public class Filter {
     public String value;
     public int comparator;
     public double constant;
+    // how the row joins the rows above it. "and" binds tighter than "or", so the rows are groups split at every
+    // or, an entry has to pass all of some group. not flips the row, the first row's or does nothing
+    public boolean or = false;
+    public boolean not = false;
 
     // comparator info:
     // 0 -> Exists
@@ -14,6 +18,7 @@ public class Filter {
     // 4 -> =
     // 5 -> <=
     // 6 -> <
+    // 7 -> Weight (stats only, the constant is the stat's weight in the score)
 
     public Filter() {
         this.option = "";
@@ -39,10 +44,30 @@ public class Filter {
         return option;
     }
 
+    // weight rows don't filter, they turn the sort into a weighted score
+    public boolean isWeight() {
+        return option.equals("Stat") && comparator == 7;
+    }
+
+    public void cycleJoin(boolean first) {
+        if (first) {
+            not = !not;
+            return;
+        }
+        // And -> Or -> And Not -> Or Not
+        if (or) not = !not;
+        or = !or;
+    }
+
+    public String getJoinLabel(boolean first) {
+        if (first) return not ? "Not" : "Where";
+        return (or ? "Or" : "And") + (not ? " Not" : "");
+    }
+
     public void incrementComparator() {
         comparator ++;
         if (option.equals("Stat")) {
-            if (comparator > 6) comparator = 0;
+            if (comparator > 7) comparator = 0;
         } else if (option.equals("Charm Power")) {
             if (comparator > 6) comparator = 0;
             if (comparator < 2) comparator = 2;
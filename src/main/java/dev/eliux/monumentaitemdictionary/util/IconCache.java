@@ -0,0 +1,59 @@
+package dev.eliux.monumentaitemdictionary.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// the least recently used icons up to a capacity, keyed by everything an icon is drawn from, so two entries that
+// look the same share one and an entry that changed gets a new one. kept out of ItemFactory so it doesn't need
+// minecraft's registries. not synchronized, ItemFactory only uses it on the client thread
+public class IconCache<T> {
+    // access ordered, so the eldest entry is always the least recently used one
+    private final LinkedHashMap<String, T> icons;
+    private long hits = 0;
+    private long misses = 0;
+
+    public IconCache(int capacity) {
+        icons = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static String itemKey(String baseItem, String name) {
+        return baseItem + '\0' + name;
+    }
+
+    // a charm's texture can also depend on its power, tier and class
+    public static String charmKey(String baseItem, String name, int power, String tier, String className) {
+        return baseItem + '\0' + name + '\0' + power + '\0' + tier + '\0' + className;
+    }
+
+    // the icon under key, built by build the first time
+    public T get(String key, Supplier<T> build) {
+        T icon = icons.get(key);
+        if (icon != null) {
+            hits++;
+            return icon;
+        }
+        misses++;
+
+        icon = build.get();
+        icons.put(key, icon);
+        return icon;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return icons.size();
+    }
+}
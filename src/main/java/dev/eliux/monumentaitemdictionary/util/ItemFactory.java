@@ -5,6 +5,8 @@ import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.nbt.StringNbtReader;
 import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
@@ -12,6 +14,10 @@ import net.minecraft.util.Identifier;
 public class ItemFactory {
     private static final ItemStack ERROR_ITEM = fromEncoding("minecraft:red_concrete");
 
+    // the dummy stacks the dictionary and builder buttons draw as icons. the same item shows up again on every list
+    // rebuild and in several screens, so each one is built once and then shared. only touched on the client thread
+    private static final IconCache<ItemStack> ICONS = new IconCache<>(2048);
+
     public static ItemStack fromEncoding(String encoding) {
         try {
             Item item = Registries.ITEM.get(new Identifier(encoding));
@@ -52,6 +58,58 @@ public class ItemFactory {
         return fromEncodingWithNbt(encoding, compound);
     }
 
+    // an icon for an item or build: the base item named after the item (resource packs pick textures by name).
+    // the stack is shared by every button showing it, so it is only for drawing: copy it before changing it or
+    // handing it out (giveItemToClientPlayer does). client thread only
+    public static ItemStack getIcon(String baseItem, String name) {
+        return ICONS.get(IconCache.itemKey(baseItem, name), () -> newIcon(baseItem, name));
+    }
+
+    // same as getIcon, with the charm power, tier and class a charm's texture can depend on. shared the same way,
+    // only for drawing and only on the client thread
+    public static ItemStack getCharmIcon(String baseItem, String name, int power, String tier, String className) {
+        return ICONS.get(IconCache.charmKey(baseItem, name, power, tier, className), () -> {
+            ItemStack icon = newIcon(baseItem, name);
+            NbtCompound baseNbt = icon.getOrCreateNbt();
+
+            NbtCompound monumenta = new NbtCompound();
+            monumenta.putInt("CharmPower", power);
+            monumenta.putString("Tier", switch(tier) {
+                case "Base": yield "charm";
+                case "Rare": yield "rarecharm";
+                case "Epic": yield "epiccharm";
+                default: yield "";
+            });
+            baseNbt.put("Monumenta", monumenta);
+
+            NbtList lore = new NbtList();
+            lore.add(0, NbtString.of("Charm Power :  - " + className));
+            baseNbt.getCompound("plain").getCompound("display").put("Lore", lore);
+
+            icon.setNbt(baseNbt);
+            return icon;
+        });
+    }
+
+    private static ItemStack newIcon(String baseItem, String name) {
+        ItemStack icon = fromEncoding(baseItem.split("/")[0].trim().toLowerCase().replace(" ", "_"));
+        if (icon == ERROR_ITEM) icon = icon.copy(); // the nbt below would end up on every error item
+
+        NbtCompound baseNbt = icon.getOrCreateNbt();
+        NbtCompound plain = new NbtCompound();
+        NbtCompound display = new NbtCompound();
+        display.putString("Name", name.split("\\(")[0].trim());
+        plain.put("display", display);
+        baseNbt.put("plain", plain);
+        icon.setNbt(baseNbt);
+        return icon;
+    }
+
+    // how the icon cache is doing, for the log. read on the client thread like the cache itself
+    public static String getIconStats() {
+        return ICONS.size() + " icons, " + ICONS.getHits() + " hits / " + ICONS.getMisses() + " misses";
+    }
+
     public static void giveItemToClientPlayer(ItemStack item, int count) {
         if (MinecraftClient.getInstance().player != null) {
             ItemStack finalItem = item.copy();
@@ -0,0 +1,70 @@
+package dev.eliux.monumentaitemdictionary.util;
+
+import net.minecraft.text.Text;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// tooltips are drawn every frame while something is hovered, so the lines are only built when something they
+// depend on changed. each entry keeps its last tooltip along with what it was built for: a variant (e.g. the masterwork
+// tier), flags (held keys, creative mode) and the screen it was shown on. a hit compares those and allocates nothing.
+// entries are keyed by instance and a reload keeps the instances of unchanged entries, so only what the reload
+// changed or removed has to be forgotten
+public class TooltipCache<T> {
+    private static final int CAPACITY = 64;
+
+    public interface Generator<T> {
+        List<Text> generate(T entry, int variant);
+    }
+
+    private static class Tooltip {
+        private int variant;
+        private int flags;
+        private Class<?> context;
+        private List<Text> lines;
+    }
+
+    private final Generator<T> generator;
+    // access ordered, so the eldest entry is always the least recently hovered one
+    private final LinkedHashMap<T, Tooltip> tooltips = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<T, Tooltip> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    public TooltipCache(Generator<T> generator) {
+        this.generator = generator;
+    }
+
+    // the returned lines are shared between frames, so they can't be modified
+    public List<Text> get(T entry, int variant, int flags, Class<?> context) {
+        Tooltip tooltip = tooltips.get(entry);
+        if (tooltip != null && tooltip.variant == variant && tooltip.flags == flags && tooltip.context == context)
+            return tooltip.lines;
+
+        if (tooltip == null) {
+            tooltip = new Tooltip();
+            tooltips.put(entry, tooltip);
+        }
+        tooltip.variant = variant;
+        tooltip.flags = flags;
+        tooltip.context = context;
+        tooltip.lines = Collections.unmodifiableList(generator.generate(entry, variant));
+        return tooltip.lines;
+    }
+
+    // for a reload, with the previous instances of the entries it changed or removed
+    public void forget(Collection<? extends T> entries) {
+        for (T entry : entries) {
+            tooltips.remove(entry);
+        }
+    }
+
+    public int size() {
+        return tooltips.size();
+    }
+}
@@ -0,0 +1,61 @@
+package dev.eliux.monumentaitemdictionary.web;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// the ETag / Last-Modified of the last full response, sent back so the server can answer 304 when nothing changed
+@SuppressWarnings("CallToPrintStackTrace")
+public class ResponseValidators {
+    public static final ResponseValidators NONE = new ResponseValidators(null, null);
+
+    public final String etag;
+    public final String lastModified;
+
+    public ResponseValidators(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public static ResponseValidators fromResponse(HttpResponse<?> response) {
+        return new ResponseValidators(
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+    }
+
+    public static ResponseValidators load(Path file) {
+        if (!Files.exists(file)) return NONE;
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return NONE;
+        }
+        return new ResponseValidators(properties.getProperty("etag"), properties.getProperty("last-modified"));
+    }
+
+    public void save(Path file) {
+        Properties properties = new Properties();
+        if (etag != null) properties.setProperty("etag", etag);
+        if (lastModified != null) properties.setProperty("last-modified", lastModified);
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void applyTo(HttpRequest.Builder request) {
+        if (etag != null) request.header("If-None-Match", etag);
+        if (lastModified != null) request.header("If-Modified-Since", lastModified);
+    }
+}
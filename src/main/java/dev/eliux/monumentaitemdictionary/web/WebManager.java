@@ -1,20 +1,46 @@
 package dev.eliux.monumentaitemdictionary.web;
 
+import dev.eliux.monumentaitemdictionary.Mid;
+
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 public class WebManager {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(1);
+    // shared so every request reuses the same connection pool and worker threads
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    private static final ExecutorService DOWNLOAD_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "MID Download");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static String getRequestSynchronous(String targetUrl) throws IOException {
         URL url = new URL(targetUrl);
         HttpURLConnection con = (HttpURLConnection) url.openConnection();
@@ -30,27 +56,128 @@ public class WebManager {
     }
 
     public static void manageRequestAsynchronous(String targetUrl, Consumer<String> onSuccess, Runnable onFailure) {
-        Thread thread = new Thread(() -> {
+        manageRequestAsynchronous(targetUrl, onSuccess, onFailure, Runnable::run);
+    }
+
+    // callbacks run on callbackExecutor (pass the client to land on the render thread).
+    // cancelling the returned future also aborts the request, and neither callback runs afterwards
+    public static CompletableFuture<Void> manageRequestAsynchronous(String targetUrl, Consumer<String> onSuccess, Runnable onFailure, Executor callbackExecutor) {
+        return manageRequestAsynchronous(targetUrl, onSuccess, onFailure, callbackExecutor, REQUEST_TIMEOUT);
+    }
+
+    // timeout is for the tests, so they don't have to wait a minute for one
+    static CompletableFuture<Void> manageRequestAsynchronous(String targetUrl, Consumer<String> onSuccess, Runnable onFailure, Executor callbackExecutor, Duration timeout) {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(targetUrl)).timeout(timeout).GET().build();
+        return sendAsynchronous(request, HttpResponse.BodyHandlers.ofString(), r -> {
+            if (r.statusCode() == 200) {
+                // REQUEST SUCCEEDED
+                onSuccess.accept(r.body());
+            } else {
+                // REQUEST FAILED
+                Mid.LOGGER.warn("Request to " + targetUrl + " failed with status " + r.statusCode());
+                onFailure.run();
+            }
+        }, onFailure, callbackExecutor, timeout);
+    }
+
+    // asks for a gzipped body and replays the validators of the last download, so an unchanged resource
+    // comes back as a bodiless 304 and onNotModified runs instead of onDownloaded.
+    // a 200 body is streamed (and gunzipped) into a temp file next to targetFile, then moved over it in one step,
+    // so the whole body is never held in memory and a failed download never leaves a truncated file behind
+    public static CompletableFuture<Void> manageConditionalDownloadAsynchronous(String targetUrl, Path targetFile, ResponseValidators validators, Consumer<ResponseValidators> onDownloaded, Runnable onNotModified, Runnable onFailure, Executor callbackExecutor) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder().uri(URI.create(targetUrl)).timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        validators.applyTo(requestBuilder);
+
+        CompletableFuture<HttpResponse<InputStream>> exchange = CLIENT.sendAsync(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        // reading the body blocks, so it gets its own thread instead of the http client's or the caller's
+        CompletableFuture<HttpResponse<InputStream>> response = exchange.thenApplyAsync(r -> saveBody(r, targetFile), DOWNLOAD_EXECUTOR);
+
+        return handleAsynchronous(exchange, response, r -> {
+            if (r.statusCode() == 200) {
+                // REQUEST SUCCEEDED
+                onDownloaded.accept(ResponseValidators.fromResponse(r));
+            } else if (r.statusCode() == 304) {
+                // NOTHING CHANGED
+                onNotModified.run();
+            } else {
+                // REQUEST FAILED
+                Mid.LOGGER.warn("Request to " + targetUrl + " failed with status " + r.statusCode());
+                onFailure.run();
+            }
+        }, onFailure, callbackExecutor, REQUEST_TIMEOUT);
+    }
+
+    private static <T> CompletableFuture<Void> sendAsynchronous(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, Consumer<HttpResponse<T>> onResponse, Runnable onFailure, Executor callbackExecutor, Duration timeout) {
+        CompletableFuture<HttpResponse<T>> exchange = CLIENT.sendAsync(request, bodyHandler);
+        return handleAsynchronous(exchange, exchange, onResponse, onFailure, callbackExecutor, timeout);
+    }
+
+    // exchange is the raw http future, response is whatever finishes once the body has been dealt with
+    private static <T> CompletableFuture<Void> handleAsynchronous(CompletableFuture<HttpResponse<T>> exchange, CompletableFuture<HttpResponse<T>> response, Consumer<HttpResponse<T>> onResponse, Runnable onFailure, Executor callbackExecutor, Duration timeout) {
+        CompletableFuture<Void> handled = new CompletableFuture<>();
+        // the request timeout only covers waiting for headers, this one covers the whole body too
+        response.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenCompleteAsync((r, e) -> {
+            if (handled.isDone()) return; // cancelled while this was queued
+
             try {
-                HttpRequest request = HttpRequest.newBuilder().uri(URI.create(targetUrl)).timeout(Duration.ofMinutes(1)).GET().build();
-                CompletableFuture<HttpResponse<String>> response = HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString());
-                int iterations = 0;
-                while (!response.isDone() || iterations > 2000) { // timeout after 20 seconds
-                    if (response.isCompletedExceptionally() || response.isCancelled()) {
-                        // REQUEST FAILED
-                        onFailure.run();
-                    }
-                    Thread.sleep(10);
-                    iterations++;
+                if (e == null) {
+                    onResponse.accept(r);
+                } else {
+                    // REQUEST FAILED
+                    e.printStackTrace();
+                    abort(exchange);
+                    onFailure.run();
                 }
-                if (response.isDone()) {
-                    // REQUEST SUCCEEDED
-                    onSuccess.accept(response.get().body());
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+            } catch (Exception callbackException) {
+                callbackException.printStackTrace();
             }
+            handled.complete(null);
+        }, callbackExecutor);
+        handled.whenComplete((v, e) -> {
+            if (handled.isCancelled()) abort(exchange);
         });
-        thread.start();
+        return handled;
+    }
+
+    private static <T> void abort(CompletableFuture<HttpResponse<T>> exchange) {
+        exchange.cancel(true);
+        // once the headers are in, cancelling does nothing, so close a streamed body to stop whoever is reading it
+        if (exchange.isDone() && !exchange.isCompletedExceptionally() && exchange.join().body() instanceof Closeable body) {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static HttpResponse<InputStream> saveBody(HttpResponse<InputStream> response, Path targetFile) {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) return response;
+
+            boolean gzipped = response.headers().firstValue("Content-Encoding").map(encoding -> encoding.equalsIgnoreCase("gzip")).orElse(false);
+            try (InputStream decoded = gzipped ? new GZIPInputStream(body, 64 * 1024) : body) {
+                writeAtomically(decoded, targetFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return response;
+    }
+
+    private static void writeAtomically(InputStream data, Path targetFile) throws IOException {
+        Files.createDirectories(targetFile.getParent());
+        Path tempFile = Files.createTempFile(targetFile.getParent(), targetFile.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(data, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package dev.eliux.monumentaitemdictionary.benchmark;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.TestCatalogs;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// times parsing and building the catalog at the usual size and at ten times that. everything in the load is
+// meant to be linear (no scans of the items built so far per record), so ten times the data should take about
+// ten times as long. the bound is loose enough for a noisy machine but still far below the ~100x of a quadratic step.
+// tagged so it only runs with ./gradlew benchmark, never as part of the normal test task
+@Tag("benchmark")
+class CatalogLoadBenchmarkTest {
+    private static final int RUNS = 3;
+    private static final double MAX_GROWTH = 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadScalesLinearly() throws Exception {
+        Path small = TestCatalogs.write(dir.resolve("items1.json"), 1);
+        Path large = TestCatalogs.write(dir.resolve("items10.json"), 10);
+
+        Catalog smallCatalog = TestCatalogs.load(small);
+        Catalog largeCatalog = TestCatalogs.load(large);
+        assertFalse(largeCatalog.itemLoadFailed());
+        assertFalse(largeCatalog.charmLoadFailed());
+        assertEquals(smallCatalog.getItems().size() * 10, largeCatalog.getItems().size());
+
+        // warm up, so the small run isn't timed in the interpreter
+        for (int i = 0; i < RUNS; i++) TestCatalogs.load(small);
+
+        long smallNanos = medianLoadNanos(small);
+        long largeNanos = medianLoadNanos(large);
+        double growth = (double) largeNanos / smallNanos;
+        System.out.printf("catalog load: %d items %.1fms, %d items %.1fms, %.1fx%n",
+                smallCatalog.getItems().size(), smallNanos / 1e6, largeCatalog.getItems().size(), largeNanos / 1e6, growth);
+
+        assertTrue(growth < MAX_GROWTH, "10x the data took " + growth + "x as long");
+    }
+
+    private static long medianLoadNanos(Path file) throws Exception {
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            TestCatalogs.load(file);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2];
+    }
+}
@@ -0,0 +1,57 @@
+package dev.eliux.monumentaitemdictionary.benchmark;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.TestCatalogs;
+import dev.eliux.monumentaitemdictionary.search.RowPasses;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// item filter refreshes on the 10x catalog, compiled pipeline against the per row removeIf passes it replaced.
+// each refresh includes compiling the filters, the same as the first refresh after the filters change.
+// only prints the timings, FilterCompilerTest checks that both give the same items
+@Tag("benchmark")
+class FilterBenchmarkTest {
+    private static final int REFRESHES = 100;
+
+    private static Catalog catalog;
+
+    @BeforeAll
+    static void loadCatalog(@TempDir Path dir) throws Exception {
+        catalog = TestCatalogs.load(TestCatalogs.write(dir.resolve("items10.json"), 10));
+    }
+
+    @Test
+    void compiledFiltersAgainstRowPasses() {
+        long rowNanos = 0;
+        long compiledNanos = 0;
+
+        for (List<Filter> filters : RowPasses.FILTER_SETS) {
+            for (String name : RowPasses.NAMES) {
+                // warm up both before timing
+                for (int i = 0; i < REFRESHES / 2; i++) {
+                    RowPasses.filter(catalog, filters, name);
+                    RowPasses.compiled(catalog, filters, name);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < REFRESHES; i++) RowPasses.filter(catalog, filters, name);
+                long rowEnd = System.nanoTime();
+                for (int i = 0; i < REFRESHES; i++) RowPasses.compiled(catalog, filters, name);
+                long compiledEnd = System.nanoTime();
+
+                rowNanos += rowEnd - start;
+                compiledNanos += compiledEnd - rowEnd;
+                System.out.printf("filters=%d name=\"%s\" rows=%.3fms compiled=%.3fms%n", filters.size(), name,
+                        (rowEnd - start) / 1e6 / REFRESHES, (compiledEnd - rowEnd) / 1e6 / REFRESHES);
+            }
+        }
+
+        System.out.printf("total: rows=%.1fms compiled=%.1fms%n", rowNanos / 1e6, compiledNanos / 1e6);
+    }
+}
@@ -0,0 +1,221 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.CharmStat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+    // a masterwork item missing a level, one with no region, non ascii text and a charm
+    private static final String ITEMS_JSON = """
+            {
+              "a-0": {"name": "Ærthen Crown", "type": "Helmet", "region": "Ring", "tier": "rare", "location": "Sanctum", "base_item": "Golden Helmet",
+                      "lore": "first line\\nsecond — line", "stats": {"armor": 4.5, "agility": 1}, "nbt": "{a:0}", "masterwork": 0},
+              "a-2": {"name": "Ærthen Crown", "type": "Helmet", "region": "Ring", "tier": "rare", "location": "Sanctum", "base_item": "Golden Helmet",
+                      "lore": "first line\\nsecond — line", "stats": {"armor": 6.25, "speed_percent": -0.05}, "nbt": "{a:2}", "masterwork": 2},
+              "b": {"name": "Plain Boots", "type": "Boots", "tier": "uncommon", "base_item": "Leather Boots", "stats": {"armor": 1}},
+              "c": {"name": "Ærthen Crown", "type": "Helmet", "region": "Valley", "tier": "epic", "location": "Keep", "base_item": "Golden Helmet",
+                    "stats": {"armor": 3}, "nbt": "{c}"},
+              "charm": {"name": "Spark", "type": "Charm", "location": "Forum", "tier": "Rare", "power": 3, "class_name": "Mage", "base_item": "Stone",
+                        "stats": {"spellshock_damage_percent": 3.5, "agility_cooldown": -1}, "nbt": "{charm}"}
+            }
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEverything() throws Exception {
+        Path itemsFile = dir.resolve("items.json");
+        Files.writeString(itemsFile, ITEMS_JSON, StandardCharsets.UTF_8);
+        Catalog parsed = TestCatalogs.load(itemsFile);
+        Catalog cached = roundTrip(itemsFile, parsed);
+
+        assertSameCatalog(parsed, cached);
+
+        DictionaryItem crown = cached.getItemNameIndex().get("Ærthen Crown", "Ring");
+        assertTrue(crown.hasMasterwork);
+        assertEquals(5, crown.stats.size());
+        assertEquals("{a:2}", crown.nbt.get(2));
+        assertNull(crown.stats.get(1));
+        assertNull(crown.tier.get(1));
+        assertNull(crown.nbt.get(1));
+        assertEquals("first line\nsecond — line", crown.lore);
+    }
+
+    @Test
+    void stringsAreStoredOnce() throws Exception {
+        Path itemsFile = dir.resolve("items.json");
+        Files.writeString(itemsFile, ITEMS_JSON, StandardCharsets.UTF_8);
+        Catalog cached = roundTrip(itemsFile, TestCatalogs.load(itemsFile));
+
+        // every use of a string comes back as the same instance from the string table
+        List<DictionaryItem> crowns = cached.getItemNameIndex().getAll("Ærthen Crown");
+        assertEquals(2, crowns.size());
+        assertSame(crowns.get(0).name, crowns.get(1).name);
+        assertSame(crowns.get(0).baseItem, crowns.get(1).baseItem);
+        DictionaryItem ring = cached.getItemNameIndex().get("Ærthen Crown", "Ring");
+        assertSame(ring.tier.get(0), ring.tier.get(2));
+        assertSame(ring.stats.get(0).get(0).statName, cached.getItemNameIndex().get("Plain Boots", "").stats.get(0).get(0).statName);
+    }
+
+    @Test
+    void roundTripOfSyntheticCatalog() throws Exception {
+        Path itemsFile = TestCatalogs.write(dir.resolve("items.json"), 1);
+        Catalog parsed = TestCatalogs.load(itemsFile);
+        assertSameCatalog(parsed, roundTrip(itemsFile, parsed));
+    }
+
+    @Test
+    void otherItemsJsonIsNotRead() throws Exception {
+        Path itemsFile = dir.resolve("items.json");
+        Files.writeString(itemsFile, ITEMS_JSON, StandardCharsets.UTF_8);
+        Path cacheFile = dir.resolve("items.bin");
+        long checksum = CatalogCache.checksum(itemsFile);
+        CatalogCache.write(cacheFile, checksum, TestCatalogs.load(itemsFile));
+
+        assertNull(CatalogCache.read(cacheFile, checksum + 1, 2, null));
+        assertNull(CatalogCache.read(dir.resolve("missing.bin"), checksum, 2, null));
+    }
+
+    @Test
+    void failedWriteLeavesNoTempFileBehind() throws Exception {
+        Path itemsFile = dir.resolve("items.json");
+        Files.writeString(itemsFile, ITEMS_JSON, StandardCharsets.UTF_8);
+        Catalog parsed = TestCatalogs.load(itemsFile);
+        Catalog cached = roundTrip(itemsFile, parsed);
+
+        // a charm without a class can't be written, the string table fails once the body is already out
+        CharmCatalogBuilder charmBuilder = new CharmCatalogBuilder();
+        charmBuilder.restoreCharm(new DictionaryCharm("Broken", "", "", "Rare", 1, null, "Stone", "", new ArrayList<>()));
+        Catalog broken = new Catalog(3, new ItemCatalogBuilder(), charmBuilder, false, null);
+        long checksum = CatalogCache.checksum(itemsFile);
+        assertThrows(NullPointerException.class, () -> CatalogCache.write(dir.resolve("items.bin"), checksum, broken));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of("items.bin", "items.json"), files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        // and the cache written before is still there
+        assertSameCatalog(cached, CatalogCache.read(dir.resolve("items.bin"), checksum, 4, null));
+    }
+
+    @Test
+    void truncatedCacheIsNotRead() throws Exception {
+        Path itemsFile = dir.resolve("items.json");
+        Files.writeString(itemsFile, ITEMS_JSON, StandardCharsets.UTF_8);
+        Path cacheFile = dir.resolve("items.bin");
+        long checksum = CatalogCache.checksum(itemsFile);
+        CatalogCache.write(cacheFile, checksum, TestCatalogs.load(itemsFile));
+
+        byte[] bytes = Files.readAllBytes(cacheFile);
+        Files.write(cacheFile, Arrays.copyOf(bytes, 12));
+        assertNull(CatalogCache.read(cacheFile, checksum, 2, null));
+        // cut inside the table offset, which then points anywhere. the loader parses the json again after an exception
+        for (int cut = 1; cut < 40; cut++) {
+            Files.write(cacheFile, Arrays.copyOf(bytes, bytes.length - cut));
+            Catalog cached;
+            try {
+                cached = CatalogCache.read(cacheFile, checksum, 2, null);
+            } catch (Exception e) {
+                cached = null;
+            }
+            assertNull(cached, "cut " + cut);
+        }
+    }
+
+    private Catalog roundTrip(Path itemsFile, Catalog catalog) throws Exception {
+        Path cacheFile = dir.resolve("items.bin");
+        long checksum = CatalogCache.checksum(itemsFile);
+        CatalogCache.write(cacheFile, checksum, catalog);
+        Catalog cached = CatalogCache.read(cacheFile, checksum, 2, null);
+        assertNotNull(cached);
+        assertEquals(2, cached.version);
+        return cached;
+    }
+
+    private static void assertSameCatalog(Catalog expected, Catalog actual) {
+        assertEquals(expected.getItems().size(), actual.getItems().size());
+        for (int i = 0; i < expected.getItems().size(); i++) {
+            assertSameItem(expected.getItems().get(i), actual.getItems().get(i));
+        }
+        assertEquals(expected.getCharms().size(), actual.getCharms().size());
+        for (int i = 0; i < expected.getCharms().size(); i++) {
+            assertSameCharm(expected.getCharms().get(i), actual.getCharms().get(i));
+        }
+
+        assertSameFacet(expected.getAllItemTypes(), actual.getAllItemTypes());
+        assertSameFacet(expected.getAllItemRegions(), actual.getAllItemRegions());
+        assertSameFacet(expected.getAllItemTiers(), actual.getAllItemTiers());
+        assertSameFacet(expected.getAllItemLocations(), actual.getAllItemLocations());
+        assertSameFacet(expected.getAllItemStats(), actual.getAllItemStats());
+        assertSameFacet(expected.getAllItemBaseItems(), actual.getAllItemBaseItems());
+        assertSameFacet(expected.getAllCharmRegions(), actual.getAllCharmRegions());
+        assertSameFacet(expected.getAllCharmTiers(), actual.getAllCharmTiers());
+        assertSameFacet(expected.getAllCharmLocations(), actual.getAllCharmLocations());
+        assertSameFacet(expected.getAllCharmSkillMods(), actual.getAllCharmSkillMods());
+        assertSameFacet(expected.getAllCharmClasses(), actual.getAllCharmClasses());
+        assertSameFacet(expected.getAllCharmStats(), actual.getAllCharmStats());
+        assertSameFacet(expected.getAllCharmBaseItems(), actual.getAllCharmBaseItems());
+    }
+
+    private static void assertSameItem(DictionaryItem expected, DictionaryItem actual) {
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.type, actual.type);
+        assertEquals(expected.region, actual.region);
+        assertEquals(expected.location, actual.location);
+        assertEquals(expected.fishTier, actual.fishTier);
+        assertEquals(expected.isFish, actual.isFish);
+        assertEquals(expected.baseItem, actual.baseItem);
+        assertEquals(expected.lore, actual.lore);
+        assertEquals(expected.hasMasterwork, actual.hasMasterwork);
+        assertEquals(expected.tier, actual.tier);
+        assertEquals(expected.nbt, actual.nbt);
+        assertEquals(expected.stats.size(), actual.stats.size());
+        for (int level = 0; level < expected.stats.size(); level++) {
+            assertEquals(describe(expected.stats.get(level), s -> s.statName + "=" + s.statValue),
+                    describe(actual.stats.get(level), s -> s.statName + "=" + s.statValue), expected.name + " level " + level);
+        }
+    }
+
+    private static void assertSameCharm(DictionaryCharm expected, DictionaryCharm actual) {
+        assertEquals(expected.name, actual.name);
+        assertEquals(expected.region, actual.region);
+        assertEquals(expected.location, actual.location);
+        assertEquals(expected.tier, actual.tier);
+        assertEquals(expected.power, actual.power);
+        assertEquals(expected.className, actual.className);
+        assertEquals(expected.baseItem, actual.baseItem);
+        assertEquals(expected.nbt, actual.nbt);
+        assertEquals(describe(expected.stats, CatalogCacheTest::describeCharmStat), describe(actual.stats, CatalogCacheTest::describeCharmStat), expected.name);
+    }
+
+    private static void assertSameFacet(FacetDictionary expected, FacetDictionary actual) {
+        assertEquals(expected.getValues(), actual.getValues());
+        for (String value : expected.getValues()) {
+            assertEquals(expected.getCount(value), actual.getCount(value), value);
+        }
+    }
+
+    private static <S> List<String> describe(List<S> stats, Function<S, String> describe) {
+        if (stats == null) return null;
+        List<String> described = new ArrayList<>();
+        for (S stat : stats) described.add(describe.apply(stat));
+        return described;
+    }
+
+    private static String describeCharmStat(CharmStat stat) {
+        return stat.statNameFull + "/" + stat.modifiedSkill + "=" + stat.statValue;
+    }
+}
@@ -0,0 +1,235 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.charm.DictionaryCharm;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogDiffTest {
+    @Test
+    void findsAddedRemovedAndChangedEntries() {
+        Catalog first = TestCatalogs.parse(json(
+                items(item("Axe", "armor", 1), item("Bow", "armor", 2), item("Cap", "agility", 3)),
+                charms(charm("Xylo", 1, "agility_cooldown", -2), charm("Yew", 2, "agility_cooldown", -1))));
+        Catalog second = TestCatalogs.parse(json(
+                items(item("Axe", "armor", 1), item("Bow", "armor", 5), item("Dart", "agility", 1)),
+                charms(charm("Xylo", 1, "agility_cooldown", -2), charm("Yew", 3, "agility_cooldown", -1), charm("Zest", 1, "agility_cooldown", -4))),
+                2, first);
+        CatalogDiff diff = second.diff;
+
+        assertEquals(List.of("Dart"), itemNames(diff.addedItems));
+        assertEquals(List.of("Cap"), itemNames(diff.removedItems));
+        assertEquals(List.of("Bow"), itemNames(diff.changedItems));
+        assertEquals(List.of("Zest"), charmNames(diff.addedCharms));
+        assertEquals(List.of(), charmNames(diff.removedCharms));
+        assertEquals(List.of("Yew"), charmNames(diff.changedCharms));
+        assertEquals("items +1 -1 ~1, charms +1 -0 ~1", diff.toString());
+        assertTrue(diff.hasItemChanges());
+        assertTrue(diff.hasCharmChanges());
+        assertFalse(diff.isEmpty());
+
+        // removed and replaced entries are the previous catalog's, added and changed ones the new catalog's
+        assertSame(item(first, "Cap"), diff.removedItems.get(0));
+        assertSame(item(second, "Bow"), diff.changedItems.get(0));
+        assertSame(item(first, "Bow"), diff.replacedItems.get(0));
+        assertSame(item(second, "Dart"), diff.addedItems.get(0));
+        assertSame(charm(second, "Yew"), diff.changedCharms.get(0));
+        assertSame(charm(first, "Yew"), diff.replacedCharms.get(0));
+    }
+
+    @Test
+    void unchangedEntriesAreThePreviousInstances() {
+        Catalog first = TestCatalogs.parse(json(items(item("Axe", "armor", 1), item("Bow", "armor", 2)),
+                charms(charm("Xylo", 1, "agility_cooldown", -2), charm("Yew", 2, "agility_cooldown", -1))));
+        Catalog second = TestCatalogs.parse(json(items(item("Axe", "armor", 1), item("Bow", "armor", 3)),
+                charms(charm("Xylo", 1, "agility_cooldown", -2), charm("Yew", 2, "agility_cooldown", -5))), 2, first);
+
+        assertSame(item(first, "Axe"), item(second, "Axe"));
+        assertNotSame(item(first, "Bow"), item(second, "Bow"));
+        assertSame(charm(first, "Xylo"), charm(second, "Xylo"));
+        assertNotSame(charm(first, "Yew"), charm(second, "Yew"));
+        // the name index hands out the kept instance too
+        assertSame(item(first, "Axe"), second.getItemNameIndex().getAll("Axe").get(0));
+        assertSame(item(second, "Bow"), second.getItemNameIndex().getAll("Bow").get(0));
+    }
+
+    @Test
+    void identicalReloadReusesEverything() {
+        String dump = json(items(item("Axe", "armor", 1), item("Bow", "agility", 2)), charms(charm("Xylo", 1, "agility_cooldown", -2)));
+        Catalog first = TestCatalogs.parse(dump);
+        RangeIndex armorIndex = first.getItemStats().getRangeIndex(first.getItemStats().getId("armor"));
+        RangeIndex powerIndex = first.getCharmPowerIndex();
+        Catalog second = TestCatalogs.parse(dump, 2, first);
+
+        assertTrue(second.diff.isEmpty());
+        assertFalse(second.diff.hasItemChanges());
+        assertFalse(second.diff.hasCharmChanges());
+        assertEquals("items +0 -0 ~0, charms +0 -0 ~0", second.diff.toString());
+        for (int i = 0; i < first.getItems().size(); i++) assertSame(first.getItems().get(i), second.getItems().get(i));
+        assertSame(first.getCharms().get(0), second.getCharms().get(0));
+
+        assertSame(first.getItemNameSearchIndex(), second.getItemNameSearchIndex());
+        assertSame(first.getCharmNameSearchIndex(), second.getCharmNameSearchIndex());
+        for (int id = 0; id < first.getItemStats().size(); id++)
+            assertSame(first.getItemStats().getColumn(id), second.getItemStats().getColumn(id));
+        assertSame(armorIndex, second.getItemStats().getRangeIndex(second.getItemStats().getId("armor")));
+        assertSame(powerIndex, second.getCharmPowerIndex());
+    }
+
+    @Test
+    void changedStatOnlyRebuildsItsColumn() {
+        Catalog first = TestCatalogs.parse(json(items(item("Axe", "armor", 1, "agility", 4), item("Bow", "armor", 2, "agility", 1)), charms()));
+        StatStore firstStats = first.getItemStats();
+        RangeIndex armorIndex = firstStats.getRangeIndex(firstStats.getId("armor"));
+        RangeIndex agilityIndex = firstStats.getRangeIndex(firstStats.getId("agility"));
+
+        Catalog second = TestCatalogs.parse(json(items(item("Axe", "armor", 1, "agility", 4), item("Bow", "armor", 7, "agility", 1)), charms()), 2, first);
+        StatStore secondStats = second.getItemStats();
+        int armor = secondStats.getId("armor"), agility = secondStats.getId("agility");
+
+        assertSame(first.getItemNameSearchIndex(), second.getItemNameSearchIndex()); // same names in the same order
+        assertSame(firstStats.getColumn(agility), secondStats.getColumn(agility));
+        assertSame(agilityIndex, secondStats.getRangeIndex(agility));
+        assertNotSame(armorIndex, secondStats.getRangeIndex(armor));
+        assertEquals(7, secondStats.get(armor, ordinal(second, "Bow")));
+        assertEquals(7, secondStats.getLargest(armor));
+        assertEquals(1, secondStats.getRangeIndex(armor).count(2, 5));
+        // the previous catalog still reads what it had
+        assertEquals(2, firstStats.get(armor, ordinal(first, "Bow")));
+        assertEquals(0, armorIndex.count(2, 5));
+    }
+
+    @Test
+    void addedEntryRebuildsTheNameIndex() {
+        Catalog first = TestCatalogs.parse(json(items(item("Axe", "armor", 1)), charms()));
+        Catalog second = TestCatalogs.parse(json(items(item("Axe", "armor", 1), item("Bow", "armor", 2)), charms()), 2, first);
+        assertNotSame(first.getItemNameSearchIndex(), second.getItemNameSearchIndex());
+        assertEquals(2, second.getItemNameSearchIndex().size());
+        assertEquals(2, second.getItemStats().get("armor", ordinal(second, "Bow")));
+    }
+
+    // a run of reloads that change, add and remove random entries. whatever was reused or patched must read the same
+    // as a catalog built from scratch
+    @Test
+    void reusedIndexesMatchAFreshBuild() {
+        Random random = new Random(9);
+        List<String> stats = List.of("armor", "agility", "inferno", "regeneration");
+        LinkedHashMap<String, String> items = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) items.put("Item " + i, randomItem(random, "Item " + i, stats));
+
+        Catalog catalog = TestCatalogs.parse(json(new ArrayList<>(items.values()), charms()));
+        for (int version = 2; version < 40; version++) {
+            // touch every index so there's something to reuse
+            for (int id = 0; id < catalog.getItemStats().size(); id++) catalog.getItemStats().getRangeIndex(id);
+
+            int changes = random.nextInt(4);
+            for (int i = 0; i < changes; i++) {
+                String name = "Item " + random.nextInt(40);
+                items.put(name, randomItem(random, name, stats));
+            }
+            if (random.nextInt(5) == 0) items.remove("Item " + random.nextInt(40));
+            if (random.nextInt(5) == 0) {
+                String name = "Item " + random.nextInt(40);
+                items.putIfAbsent(name, randomItem(random, name, stats));
+            }
+
+            String dump = json(new ArrayList<>(items.values()), charms());
+            catalog = TestCatalogs.parse(dump, version, catalog);
+            Catalog fresh = TestCatalogs.parse(dump);
+
+            assertEquals(names(fresh), names(catalog), "version " + version);
+            StatStore expected = fresh.getItemStats(), actual = catalog.getItemStats();
+            assertEquals(expected.size(), actual.size());
+            for (int id = 0; id < expected.size(); id++) {
+                assertEquals(expected.getName(id), actual.getName(id));
+                assertArrayEquals(expected.getColumn(id), actual.getColumn(id), "version " + version + " " + expected.getName(id));
+                assertEquals(expected.getLargest(id), actual.getLargest(id));
+                for (int comparator = 2; comparator <= 6; comparator++) {
+                    for (double constant = -1; constant <= 10; constant += 0.5) {
+                        assertEquals(expected.getRangeIndex(id).count(comparator, constant), actual.getRangeIndex(id).count(comparator, constant));
+                    }
+                }
+            }
+            for (String query : List.of("item 1", "em 3", "9")) {
+                assertEquals(fresh.getItemNameSearchIndex().search(query), catalog.getItemNameSearchIndex().search(query), query);
+            }
+        }
+    }
+
+    private static String randomItem(Random random, String name, List<String> stats) {
+        ArrayList<Object> statValues = new ArrayList<>();
+        for (String stat : stats) {
+            if (random.nextBoolean()) {
+                statValues.add(stat);
+                statValues.add(random.nextInt(10));
+            }
+        }
+        return item(name, statValues.toArray());
+    }
+
+    private static String json(List<String> items, List<String> charms) {
+        ArrayList<String> entries = new ArrayList<>(items);
+        entries.addAll(charms);
+        return "{" + String.join(",", entries) + "}";
+    }
+
+    private static List<String> items(String... items) {
+        return List.of(items);
+    }
+
+    private static List<String> charms(String... charms) {
+        return List.of(charms);
+    }
+
+    // stats alternate name, value
+    private static String item(String name, Object... stats) {
+        return "\"" + name + "\": {\"name\": \"" + name + "\", \"type\": \"Helmet\", \"base_item\": \"Leather Helmet\", \"stats\": " + stats(stats) + "}";
+    }
+
+    private static String charm(String name, int power, Object... stats) {
+        return "\"" + name + "\": {\"name\": \"" + name + "\", \"type\": \"Charm\", \"location\": \"Keep\", \"tier\": \"Rare\", \"power\": " + power
+                + ", \"class_name\": \"Mage\", \"base_item\": \"Stone\", \"stats\": " + stats(stats) + "}";
+    }
+
+    private static String stats(Object... stats) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < stats.length; i += 2) values.put((String) stats[i], stats[i + 1]);
+        ArrayList<String> pairs = new ArrayList<>();
+        values.forEach((stat, value) -> pairs.add("\"" + stat + "\": " + value));
+        return "{" + String.join(",", pairs) + "}";
+    }
+
+    private static DictionaryItem item(Catalog catalog, String name) {
+        return catalog.getItems().get(ordinal(catalog, name));
+    }
+
+    private static DictionaryCharm charm(Catalog catalog, String name) {
+        return catalog.getCharms().stream().filter(charm -> charm.name.equals(name)).findFirst().orElseThrow();
+    }
+
+    private static int ordinal(Catalog catalog, String name) {
+        for (int i = 0; i < catalog.getItems().size(); i++) {
+            if (catalog.getItems().get(i).name.equals(name)) return i;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static List<String> names(Catalog catalog) {
+        return itemNames(catalog.getItems());
+    }
+
+    private static List<String> itemNames(List<DictionaryItem> items) {
+        return items.stream().map(item -> item.name).toList();
+    }
+
+    private static List<String> charmNames(List<DictionaryCharm> charms) {
+        return charms.stream().map(charm -> charm.name).toList();
+    }
+}
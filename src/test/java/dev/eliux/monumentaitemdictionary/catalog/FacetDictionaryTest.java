@@ -0,0 +1,103 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetDictionaryTest {
+    @Test
+    void codesAreDenseInFirstSeenOrder() {
+        FacetDictionary facet = new FacetDictionary();
+        assertEquals(0, facet.intern("Ring"));
+        assertEquals(1, facet.intern("Valley"));
+        assertEquals(0, facet.intern("Ring"));
+        assertEquals(2, facet.intern("Isles"));
+
+        assertEquals(List.of("Ring", "Valley", "Isles"), facet.getValues());
+        assertEquals(1, facet.getCode("Valley"));
+        assertEquals(-1, facet.getCode("Keep"));
+        assertEquals("Isles", facet.getValue(2));
+        assertEquals(3, facet.size());
+    }
+
+    @Test
+    void growsPastItsFirstArrays() {
+        FacetDictionary facet = new FacetDictionary();
+        for (int i = 0; i < 100; i++) assertEquals(i, facet.intern("value " + i));
+        for (int i = 0; i < 100; i++) facet.count("value " + i, i * 3);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, facet.getCount(i));
+            assertEquals(bits(i * 3), entries(facet, "value " + i, 300));
+        }
+    }
+
+    @Test
+    void countsEachEntryOnce() {
+        FacetDictionary facet = new FacetDictionary();
+        facet.intern("epic");
+        facet.intern("rare");
+        facet.count("epic", 4);
+        facet.count("epic", 4); // the same tier on another masterwork level
+        facet.count("epic", 9);
+        facet.count("rare", 4);
+
+        assertEquals(2, facet.getCount("epic"));
+        assertEquals(1, facet.getCount(facet.getCode("rare")));
+        assertEquals(bits(4, 9), entries(facet, "epic", 10));
+        assertEquals(List.of("epic (2)", "rare (1)"), facet.getLabels());
+        assertEquals(List.of("EPIC (2)", "RARE (1)"), facet.getLabels(String::toUpperCase));
+    }
+
+    @Test
+    void unknownValuesHaveNoEntries() {
+        FacetDictionary facet = new FacetDictionary();
+        facet.intern("Ring");
+        facet.intern("Valley"); // known, but nothing is counted for it
+        facet.count("Ring", 1);
+        facet.count("Keep", 2); // not interned, so not added
+
+        assertEquals(-1, facet.getCode("Keep"));
+        assertEquals(0, facet.getCount("Keep"));
+        assertEquals(0, facet.getCount("Valley"));
+        assertEquals(2, facet.size());
+
+        for (String value : List.of("Keep", "Valley")) {
+            assertEquals(new BitSet(), entries(facet, value, 5));
+            BitSet all = bits(0, 1, 2, 3, 4);
+            facet.andNot(all, value);
+            assertEquals(bits(0, 1, 2, 3, 4), all);
+        }
+    }
+
+    @Test
+    void andAndAndNotSplitTheTarget() {
+        FacetDictionary facet = new FacetDictionary();
+        facet.intern("Ring");
+        for (int ordinal : new int[]{0, 3, 5, 6}) facet.count("Ring", ordinal);
+
+        BitSet kept = bits(0, 1, 2, 3, 4, 5);
+        facet.and(kept, "Ring");
+        assertEquals(bits(0, 3, 5), kept);
+
+        BitSet dropped = bits(0, 1, 2, 3, 4, 5);
+        facet.andNot(dropped, "Ring");
+        assertEquals(bits(1, 2, 4), dropped);
+    }
+
+    private static BitSet entries(FacetDictionary facet, String value, int size) {
+        BitSet all = new BitSet();
+        all.set(0, size);
+        facet.and(all, value);
+        return all;
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) bits.set(ordinal);
+        return bits;
+    }
+}
@@ -0,0 +1,142 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeIndexTest {
+    private static final double NaN = Double.NaN;
+    // comparators 2 to 6 of a Filter: >=, >, =, <=, <
+    private static final int AT_LEAST = 2, ABOVE = 3, EQUAL = 4, AT_MOST = 5, BELOW = 6;
+
+    private final RangeIndex index = new RangeIndex(new double[] { 3, 1, 3, NaN, 3, 2, -1, NaN, 5 });
+
+    @Test
+    void equalFindsEveryDuplicate() {
+        assertEquals(bits(0, 2, 4), index.select(EQUAL, 3));
+        assertEquals(3, index.count(EQUAL, 3));
+        assertEquals(bits(8), index.select(EQUAL, 5));
+        assertEquals(bits(6), index.select(EQUAL, -1));
+        assertEquals(bits(), index.select(EQUAL, 4));
+        assertEquals(bits(), index.select(EQUAL, 10));
+        assertEquals(bits(), index.select(EQUAL, -10));
+    }
+
+    @Test
+    void boundsAtTheEdges() {
+        // below the smallest value
+        assertEquals(bits(), index.select(BELOW, -1));
+        assertEquals(bits(6), index.select(AT_MOST, -1));
+        assertEquals(bits(), index.select(AT_MOST, -1.5));
+        // above the largest
+        assertEquals(bits(), index.select(ABOVE, 5));
+        assertEquals(bits(8), index.select(AT_LEAST, 5));
+        assertEquals(bits(), index.select(AT_LEAST, 5.5));
+        // between duplicates
+        assertEquals(bits(1, 5, 6), index.select(BELOW, 3));
+        assertEquals(bits(0, 1, 2, 4, 5, 6), index.select(AT_MOST, 3));
+        assertEquals(bits(8), index.select(ABOVE, 3));
+        assertEquals(bits(0, 2, 4, 8), index.select(AT_LEAST, 3));
+    }
+
+    @Test
+    void missingValuesNeverPass() {
+        BitSet present = bits(0, 1, 2, 4, 5, 6, 8);
+        assertEquals(present, index.select(AT_MOST, Double.POSITIVE_INFINITY));
+        assertEquals(present, index.select(AT_LEAST, Double.NEGATIVE_INFINITY));
+        assertEquals(7, index.count(BELOW, Double.POSITIVE_INFINITY));
+        assertEquals(bits(), index.select(EQUAL, NaN));
+    }
+
+    @Test
+    void otherComparatorsAreNotRanges() {
+        assertNull(index.select(0, 3));
+        assertNull(index.select(7, 3));
+        assertEquals(-1, index.count(1, 3));
+
+        BitSet target = bits(0, 1, 2);
+        index.and(target, 0, 3, false);
+        assertEquals(bits(0, 1, 2), target);
+    }
+
+    @Test
+    void negatedAndKeepsMissingValues() {
+        BitSet target = bits(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        index.and(target, AT_LEAST, 3, true);
+        assertEquals(bits(1, 3, 5, 6, 7), target);
+
+        // a target smaller than the selection is checked entry by entry, with the same result
+        BitSet small = bits(3, 4, 6);
+        index.and(small, AT_LEAST, -1, true);
+        assertEquals(bits(3), small);
+        BitSet kept = bits(3, 4, 6);
+        index.and(kept, AT_LEAST, -1, false);
+        assertEquals(bits(4, 6), kept);
+    }
+
+    @Test
+    void randomColumnsMatchADirectCheck() {
+        Random random = new Random(13);
+        for (int run = 0; run < 300; run++) {
+            double[] column = new double[random.nextInt(200)];
+            for (int ordinal = 0; ordinal < column.length; ordinal++) {
+                // few distinct values so there are plenty of duplicates, and both zeros
+                column[ordinal] = switch (random.nextInt(6)) {
+                    case 0 -> NaN;
+                    case 1 -> -0.0;
+                    default -> random.nextInt(9) - 3;
+                };
+            }
+            RangeIndex index = new RangeIndex(column);
+
+            for (int comparator = AT_LEAST; comparator <= BELOW; comparator++) {
+                double constant = random.nextInt(3) == 0 ? 0.0 : random.nextInt(11) - 4 + (random.nextBoolean() ? 0 : 0.5);
+                BitSet expected = new BitSet();
+                for (int ordinal = 0; ordinal < column.length; ordinal++) {
+                    if (passes(column[ordinal], comparator, constant)) expected.set(ordinal);
+                }
+                String description = "run " + run + " comparator " + comparator + " constant " + constant;
+                assertEquals(expected, index.select(comparator, constant), description);
+                assertEquals(expected.cardinality(), index.count(comparator, constant), description);
+
+                // both ways and() can go, with and without negation
+                for (int size : new int[] { column.length, 3 }) {
+                    BitSet target = new BitSet();
+                    for (int ordinal = 0; ordinal < column.length; ordinal++) {
+                        if (size == column.length || random.nextInt(column.length) < size) target.set(ordinal);
+                    }
+                    BitSet kept = (BitSet) target.clone();
+                    index.and(kept, comparator, constant, false);
+                    BitSet expectedKept = (BitSet) target.clone();
+                    expectedKept.and(expected);
+                    assertEquals(expectedKept, kept, description);
+
+                    BitSet dropped = (BitSet) target.clone();
+                    index.and(dropped, comparator, constant, true);
+                    BitSet expectedDropped = (BitSet) target.clone();
+                    expectedDropped.andNot(expected);
+                    assertEquals(expectedDropped, dropped, description);
+                }
+            }
+        }
+    }
+
+    private static boolean passes(double value, int comparator, double constant) {
+        return switch (comparator) {
+            case AT_LEAST -> value >= constant;
+            case ABOVE -> value > constant;
+            case EQUAL -> value == constant;
+            case AT_MOST -> value <= constant;
+            default -> value < constant;
+        };
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) bits.set(ordinal);
+        return bits;
+    }
+}
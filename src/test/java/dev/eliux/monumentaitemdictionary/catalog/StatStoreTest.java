@@ -0,0 +1,127 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.search.StatSort;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatStoreTest {
+    // a masterwork item whose best armor is on its middle level, and thorns values on both sides of -1
+    private static final Catalog catalog = TestCatalogs.parse("""
+            {
+              "mw-0": {"name": "Layered", "type": "Helmet", "tier": "rare", "masterwork": 0, "base_item": "Leather Helmet", "stats": {"armor": 2, "thorns_flat": -3}},
+              "mw-1": {"name": "Layered", "type": "Helmet", "tier": "rare", "masterwork": 1, "base_item": "Leather Helmet", "stats": {"armor": 5}},
+              "mw-2": {"name": "Layered", "type": "Helmet", "tier": "rare", "masterwork": 2, "base_item": "Leather Helmet", "stats": {"armor": 4}},
+              "plain": {"name": "Plain", "type": "Helmet", "base_item": "Leather Helmet", "stats": {"agility": 1}},
+              "minus one": {"name": "Minus One", "type": "Helmet", "base_item": "Leather Helmet", "stats": {"thorns_flat": -1}},
+              "minus three": {"name": "Minus Three", "type": "Helmet", "base_item": "Leather Helmet", "stats": {"thorns_flat": -3, "armor": -7}},
+              "half": {"name": "Minus Half", "type": "Helmet", "base_item": "Leather Helmet", "stats": {"thorns_flat": -0.5}},
+              "charm": {"name": "Charm", "type": "Charm", "location": "Keep", "tier": "Rare", "power": 2, "class_name": "Mage", "base_item": "Stone",
+                        "stats": {"spellshock_damage_percent": 4, "agility_cooldown": -2}}
+            }
+            """);
+    private static final StatStore stats = catalog.getItemStats();
+
+    @Test
+    void itemValueIsTheHighestOverAllLevels() {
+        int armor = stats.getId("armor");
+        int layered = ordinal("Layered");
+        assertEquals(5, stats.get(armor, layered));
+        assertEquals(5, stats.get("armor", layered));
+        assertEquals(catalog.getItems().get(layered).getStat("armor"), stats.get(armor, layered));
+        // the level that lacks the stat doesn't hide the others' value
+        assertEquals(-3, stats.get("thorns_flat", layered));
+    }
+
+    @Test
+    void missingStatsAreNaN() {
+        int plain = ordinal("Plain");
+        assertTrue(Double.isNaN(stats.get("armor", plain)));
+        assertFalse(stats.has(stats.getId("armor"), plain));
+        assertTrue(stats.has(stats.getId("agility"), plain));
+
+        assertEquals(-1, stats.getId("nothing has this"));
+        assertTrue(Double.isNaN(stats.get("nothing has this", plain)));
+        for (int id = 0; id < stats.size(); id++) {
+            for (int ordinal = 0; ordinal < catalog.getItems().size(); ordinal++) {
+                DictionaryItem item = catalog.getItems().get(ordinal);
+                assertEquals(item.hasStat(stats.getName(id)), stats.has(id, ordinal), item.name + " " + stats.getName(id));
+            }
+        }
+    }
+
+    @Test
+    void largestIsTheLargestMagnitude() {
+        assertEquals(7, stats.getLargest(stats.getId("armor")));
+        assertEquals(3, stats.getLargest(stats.getId("thorns_flat")));
+        assertEquals(1, stats.getLargest(stats.getId("agility")));
+    }
+
+    @Test
+    void charmValueIsItsOwnEntry() {
+        StatStore charmStats = catalog.getCharmStats();
+        assertEquals(4, charmStats.get("spellshock_damage_percent", 0));
+        assertEquals(-2, charmStats.get("agility_cooldown", 0));
+        assertEquals(2, charmStats.getLargest(charmStats.getId("agility_cooldown")));
+    }
+
+    @Test
+    void rangeIndexIsBuiltOnceAndMatchesTheColumn() {
+        int thorns = stats.getId("thorns_flat");
+        RangeIndex index = stats.getRangeIndex(thorns);
+        assertSame(index, stats.getRangeIndex(thorns));
+        assertEquals(2, index.count(6, -1)); // the two -3s, the missing ones fail every comparison
+        assertEquals(4, index.count(5, -0.5));
+    }
+
+    // StatSort ranks a missing stat as -1 like DictionaryItem.getStat always did, but a stored value below -1 is
+    // kept as it is where getStat would clamp it to -1. so a -3 sorts below both a missing stat and a real -1,
+    // which tie and keep catalog order (by name, so Minus One before Plain)
+    @Test
+    void sortRanksMissingAsMinusOneAndKeepsLowerValues() {
+        int[] all = IntStream.range(0, catalog.getItems().size()).toArray();
+        List<Filter> byThorns = List.of(new Filter("Stat", "thorns_flat", 0, 0));
+        StatSort sort = new StatSort(all, stats, byThorns);
+
+        assertTrue(ordinal("Minus One") < ordinal("Plain"));
+        List<String> expected = List.of("Minus Half", "Minus One", "Plain", "Layered", "Minus Three");
+        assertEquals(expected, names(sort.sorted()));
+        for (int k = 0; k <= all.length; k++) {
+            assertEquals(expected.subList(0, k), names(sort.top(k)), "top " + k);
+        }
+
+        // getStat says -1 for all but Minus Half, which would leave them tied in catalog order
+        assertEquals(-1, catalog.getItems().get(ordinal("Minus Three")).getStat("thorns_flat"));
+        assertEquals(-1, catalog.getItems().get(ordinal("Plain")).getStat("thorns_flat"));
+        assertEquals(-3, stats.get("thorns_flat", ordinal("Minus Three")));
+    }
+
+    @Test
+    void laterSortStatsBreakTies() {
+        int[] all = IntStream.range(0, catalog.getItems().size()).toArray();
+        List<Filter> byThornsThenAgility = List.of(new Filter("Stat", "thorns_flat", 0, 0), new Filter("Stat", "agility", 0, 0));
+        // Minus One and Plain tie on thorns, and Plain's agility puts it first against catalog order
+        assertEquals(List.of("Minus Half", "Plain", "Minus One", "Layered", "Minus Three"),
+                names(new StatSort(all, stats, byThornsThenAgility).sorted()));
+
+        // missing armor (-1) ranks above Minus Three's -7
+        List<Filter> byArmor = List.of(new Filter("Stat", "armor", 0, 0));
+        assertEquals(List.of("Layered", "Minus Half", "Minus One", "Plain", "Minus Three"), names(new StatSort(all, stats, byArmor).sorted()));
+    }
+
+    private static int ordinal(String name) {
+        for (int i = 0; i < catalog.getItems().size(); i++) {
+            if (catalog.getItems().get(i).name.equals(name)) return i;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static List<String> names(int[] ordinals) {
+        return IntStream.of(ordinals).mapToObj(ordinal -> catalog.getItems().get(ordinal).name).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+// catalogs for tests. the synthetic one is an api dump shaped like the real one: at scale 1 about 3000 items (a third
+// of the rare, epic and artifact ones with four masterwork levels, so ~5200 records) and 400 charms. the same scale
+// always gives the same dump
+public class TestCatalogs {
+    private static final Gson GSON = new Gson();
+    // a catalog is never modified, so every test class can share the one built at scale 1
+    private static Catalog standard;
+
+    public static final List<String> REGIONS = List.of("Valley", "Isles", "Ring");
+    public static final List<String> TIERS = List.of("rare", "epic", "uncommon", "event_currency", "artifact");
+    public static final List<String> TYPES = List.of("Helmet", "Chestplate", "Mainhand Sword", "Offhand", "Boots", "Wand");
+    public static final List<String> LOCATIONS = List.of("Sanctum", "Forum", "Keep", "Wolfswood");
+    public static final List<String> STATS = List.of("agility", "armor", "attack_damage_base", "max_health_percent", "speed_percent",
+            "regeneration", "melee_protection", "projectile_protection", "thorns_flat", "inferno");
+    public static final List<String> CHARM_STATS = List.of("spellshock_damage_percent", "agility_cooldown", "bodkin_blitz_damage", "alchemical_utility_duration");
+
+    public static Path write(Path file, int scale) throws IOException {
+        Random random = new Random(scale);
+        try (Writer fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter writer = new JsonWriter(fileWriter)) {
+            writer.beginObject();
+            for (int i = 0; i < 3000 * scale; i++) {
+                String tier = pick(random, TIERS);
+                JsonObject item = new JsonObject();
+                item.addProperty("name", "Item " + i);
+                item.addProperty("type", pick(random, TYPES));
+                item.addProperty("region", pick(random, REGIONS));
+                item.addProperty("tier", tier);
+                item.addProperty("location", pick(random, LOCATIONS));
+                item.addProperty("base_item", "Leather Helmet");
+                item.addProperty("lore", "lore line\nsecond");
+                item.add("stats", stats(random, STATS));
+                item.addProperty("nbt", "{}");
+
+                if (!tier.equals("uncommon") && !tier.equals("event_currency") && i % 3 == 0) {
+                    for (int level = 0; level < 4; level++) {
+                        JsonObject levelItem = item.deepCopy();
+                        levelItem.addProperty("masterwork", level);
+                        levelItem.add("stats", stats(random, STATS));
+                        writer.name("item" + i + "-" + level);
+                        GSON.toJson(levelItem, writer);
+                    }
+                } else {
+                    writer.name("item" + i);
+                    GSON.toJson(item, writer);
+                }
+            }
+            for (int i = 0; i < 400 * scale; i++) {
+                JsonObject charm = new JsonObject();
+                charm.addProperty("name", "Charm " + i);
+                charm.addProperty("type", "Charm");
+                charm.addProperty("location", pick(random, LOCATIONS));
+                charm.addProperty("tier", pick(random, List.of("Base", "Rare", "Epic")));
+                charm.addProperty("power", 1 + random.nextInt(5));
+                charm.addProperty("class_name", pick(random, List.of("Mage", "Rogue", "Cleric")));
+                charm.addProperty("base_item", "Stone");
+                charm.add("stats", stats(random, CHARM_STATS));
+                writer.name("charm" + i);
+                GSON.toJson(charm, writer);
+            }
+            writer.endObject();
+        }
+        return file;
+    }
+
+    // the synthetic catalog at scale 1
+    public static synchronized Catalog standard() {
+        if (standard == null) {
+            try {
+                Path file = Files.createTempFile("items", ".json");
+                try {
+                    standard = load(write(file, 1));
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return standard;
+    }
+
+    // parses and builds the way the loader does on a cache miss
+    public static Catalog load(Path file) throws IOException {
+        return load(file, 1, null);
+    }
+
+    public static Catalog load(Path file, int version, Catalog previous) throws IOException {
+        ItemCatalogBuilder itemBuilder = new ItemCatalogBuilder();
+        CharmCatalogBuilder charmBuilder = new CharmCatalogBuilder();
+        CatalogReader.read(file, itemBuilder::accept, charmBuilder::accept);
+        return new Catalog(version, itemBuilder, charmBuilder, false, previous);
+    }
+
+    // a catalog from a handwritten dump
+    public static Catalog parse(String json) {
+        return parse(json, 1, null);
+    }
+
+    public static Catalog parse(String json, int version, Catalog previous) {
+        try {
+            Path file = Files.createTempFile("items", ".json");
+            try {
+                return load(Files.writeString(file, json, StandardCharsets.UTF_8), version, previous);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonObject stats(Random random, List<String> names) {
+        JsonObject stats = new JsonObject();
+        for (int i = 0; i < 4; i++) {
+            stats.addProperty(pick(random, names), Math.round((random.nextDouble() * 12 - 2) * 100) / 100.0);
+        }
+        return stats;
+    }
+
+    private static String pick(Random random, List<String> options) {
+        return options.get(random.nextInt(options.size()));
+    }
+}
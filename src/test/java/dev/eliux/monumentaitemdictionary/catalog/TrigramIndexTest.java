@@ -0,0 +1,92 @@
+package dev.eliux.monumentaitemdictionary.catalog;
+
+import dev.eliux.monumentaitemdictionary.search.NameSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+    private static final List<String> NAMES = List.of("Ærthen Crown", "Longsword", "Sword of Ages", "Crown of Thorns", "Ox", "Broadsword",
+            "Thornmail", "ox bow", "Crowned Ox");
+    private static final List<String> QUERIES = List.of("", "o", "ox", "x ", " o", "crown", "sword", "word o", "of", "thorn", "ærthen c",
+            "n ", "wn", "own of", "sw", "zzz", "crowned ox", "ox bow", "bow ", "hornmai");
+
+    private final TrigramIndex index = new TrigramIndex(NAMES);
+
+    @Test
+    void searchFindsExactlyTheNamesContainingTheQuery() {
+        for (String query : QUERIES) {
+            assertEquals(containing(query, null), index.search(query), query);
+        }
+    }
+
+    @Test
+    void searchWithinOnlyLooksAtThoseNames() {
+        BitSet within = new BitSet();
+        within.set(0);
+        within.set(3);
+        within.set(5);
+        within.set(8);
+        for (String query : QUERIES) {
+            assertEquals(containing(query, within), index.search(query, within), query);
+        }
+    }
+
+    @Test
+    void typingNarrowsToTheSameMatches() {
+        NameSearch search = new NameSearch();
+        String typed = "Crown of Thorns";
+        for (int length = 1; length <= typed.length(); length++) {
+            String query = typed.substring(0, length);
+            assertEquals(containing(query.toLowerCase(), null), search.search(index, query), query);
+        }
+        // backspacing starts over instead of narrowing
+        assertEquals(containing("crown", null), search.search(index, "Crown"));
+    }
+
+    @Test
+    void similarFindsTheTypoedName() {
+        assertEquals(3, index.rankSimilar("crwn of thorns", 0.5)[0]);
+        assertEquals(0, index.rankSimilar("aerthen crown", 0.5)[0]);
+    }
+
+    @Test
+    void similarCountsWordStartsAndEnds() {
+        // "  swrd " shares "  s", " sw" and "rd " with "sword of ages", only "rd " with "longsword" and "broadsword".
+        // unpadded, "swr" and "wrd" are in no name at all
+        assertArrayEquals(new int[]{2}, index.rankSimilar("swrd", 0.5));
+    }
+
+    @Test
+    void similarNeedsHalfTheTrigrams() {
+        // "abc" pads to "  abc ": "  a", " ab", "abc", "bc ", so a name needs two of them
+        TrigramIndex index = new TrigramIndex(List.of("zbc", "aby", "xabcx", "abx", "ab", "ABC"));
+        // fewest missing first, then the shorter name, then catalog order
+        assertArrayEquals(new int[]{5, 4, 1, 3}, index.rankSimilar("abc", 0.5));
+        assertArrayEquals(new int[]{5}, index.rankSimilar("abc", 0.75));
+        assertArrayEquals(new int[0], index.rankSimilar("qqq", 0.5));
+    }
+
+    @Test
+    void similarKeepsTheBestTwoHundred() {
+        TrigramIndex index = new TrigramIndex(Collections.nCopies(300, "Crown"));
+        int[] similar = index.rankSimilar("crwn", 0.5);
+        assertEquals(200, similar.length);
+        for (int i = 0; i < similar.length; i++) {
+            assertEquals(i, similar[i]);
+        }
+    }
+
+    private static BitSet containing(String lowerQuery, BitSet within) {
+        BitSet matches = new BitSet();
+        for (int ordinal = 0; ordinal < NAMES.size(); ordinal++) {
+            if ((within == null || within.get(ordinal)) && NAMES.get(ordinal).toLowerCase().contains(lowerQuery))
+                matches.set(ordinal);
+        }
+        return matches;
+    }
+}
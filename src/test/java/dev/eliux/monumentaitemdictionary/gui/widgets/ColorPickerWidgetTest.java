@@ -0,0 +1,73 @@
+package dev.eliux.monumentaitemdictionary.gui.widgets;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColorPickerWidgetTest {
+    @Test
+    void swapsRedAndBlue() {
+        assertEquals(0xFF332211, ColorPickerWidget.toAbgr(0xFF112233));
+        assertEquals(0x80FF00FF, ColorPickerWidget.toAbgr(0x80FF00FF));
+        assertEquals(0xFF0000FF, ColorPickerWidget.toAbgr(0xFFFF0000));
+        assertEquals(0x12345678 & 0xFF00FF00, ColorPickerWidget.toAbgr(0x12345678) & 0xFF00FF00);
+    }
+
+    @Test
+    void swappingTwiceGivesTheColorBack() {
+        Random random = new Random(25);
+        for (int i = 0; i < 1000; i++) {
+            int argb = random.nextInt();
+            assertEquals(argb, ColorPickerWidget.toAbgr(ColorPickerWidget.toAbgr(argb)));
+        }
+    }
+
+    @Test
+    void hsbColorsAreOpaqueAfterTheSwap() {
+        // the textures are filled from awt's HSBtoRGB, which always sets the alpha byte
+        for (float hue = 0; hue < 1; hue += 0.05f) {
+            int abgr = ColorPickerWidget.toAbgr(Color.HSBtoRGB(hue, 0.5f, 0.75f));
+            assertEquals(0xFF, abgr >>> 24);
+            Color color = new Color(Color.HSBtoRGB(hue, 0.5f, 0.75f));
+            assertEquals(color.getRed(), abgr & 0xFF);
+            assertEquals(color.getGreen(), (abgr >> 8) & 0xFF);
+            assertEquals(color.getBlue(), (abgr >> 16) & 0xFF);
+        }
+    }
+
+    // the colors the popup used to fill one pixel at a time, copied from before it drew textures. every texel has to
+    // come out of the upload as the same red, green, blue and alpha, for the generator's 120 x 80 popup and another size
+    @Test
+    void texturesHoldWhatThePopupUsedToFill() {
+        for (int[] size : new int[][]{{120, 80}, {37, 23}}) {
+            int popupWidth = size[0], popupHeight = size[1];
+            for (float hue : new float[]{0f, 0.1f, 1f / 3, 0.5f, 0.77f, 1f}) {
+                int[] field = ColorPickerWidget.fieldPixels(hue, popupWidth, popupHeight);
+                assertEquals(popupWidth * popupHeight, field.length);
+                for (int x = 0; x < popupWidth; x++) {
+                    for (int y = 0; y < popupHeight; y++) {
+                        int color = Color.HSBtoRGB(hue, (float)x / popupWidth, 1f - ((float)y / popupHeight));
+                        assertTexel(color, field[y * popupWidth + x], "hue " + hue + " at " + x + ", " + y);
+                    }
+                }
+            }
+
+            // the hue box filled 6 pixel tall columns, the strip is one row stretched to 6
+            int[] strip = ColorPickerWidget.huePixels(popupWidth);
+            assertEquals(popupWidth, strip.length);
+            for (int x = 0; x < popupWidth; x++) {
+                assertTexel(Color.HSBtoRGB((float)x / popupWidth, 1, 1), strip[x], "hue strip at " + x);
+            }
+        }
+    }
+
+    // NativeImage keeps a pixel as one little endian int, so ABGR is uploaded as the bytes R, G, B, A
+    private static void assertTexel(int argb, int abgr, String where) {
+        int[] uploaded = {abgr & 0xFF, (abgr >> 8) & 0xFF, (abgr >> 16) & 0xFF, abgr >>> 24};
+        int[] filled = {(argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, argb >>> 24};
+        assertArrayEquals(filled, uploaded, where);
+    }
+}
@@ -0,0 +1,79 @@
+package dev.eliux.monumentaitemdictionary.gui.widgets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridLayoutTest {
+    // 25 wide cells with 7 padding, from x 0 and y 30, the item grid's layout. 100 wide fits 3 columns
+    private final GridLayout layout = new GridLayout(25, 25, 7, 0, 30);
+
+    @Test
+    void columnsFitTheWidth() {
+        assertTrue(layout.setWidth(100));
+        assertEquals(3, layout.getColumns());
+        assertFalse(layout.setWidth(127));
+        assertTrue(layout.setWidth(128));
+        assertEquals(4, layout.getColumns());
+        // never less than one
+        assertTrue(layout.setWidth(5));
+        assertEquals(1, layout.getColumns());
+    }
+
+    @Test
+    void cellsAreWhereTheHitTestFindsThem() {
+        layout.setWidth(100);
+        for (int index = 0; index < 10; index++) {
+            int x = layout.getX(index), y = layout.getY(index);
+            assertEquals(index, layout.indexAt(x, y, 10));
+            assertEquals(index, layout.indexAt(x + 24, y + 24, 10));
+            assertEquals(index, layout.indexAt(x + 24.9, y + 0.5, 10));
+        }
+    }
+
+    @Test
+    void gapsHitNothing() {
+        layout.setWidth(100);
+        int y = layout.getY(0);
+        // the padding before the first cell, between cells and after the last column
+        assertEquals(-1, layout.indexAt(6.9, y, 10));
+        assertEquals(-1, layout.indexAt(32, y, 10));
+        assertEquals(-1, layout.indexAt(38.9, y, 10));
+        assertEquals(0, layout.indexAt(31.9, y, 10));
+        assertEquals(1, layout.indexAt(39, y, 10));
+        assertEquals(-1, layout.indexAt(layout.getX(2) + 25, y, 10));
+        // and between rows
+        assertEquals(-1, layout.indexAt(7, layout.getY(0) + 25, 10));
+        assertEquals(-1, layout.indexAt(7, layout.getY(3) - 1, 10));
+        // above and left of the grid
+        assertEquals(-1, layout.indexAt(7, 29, 10));
+        assertEquals(-1, layout.indexAt(-1, y, 10));
+        assertEquals(-1, layout.indexAt(-20, y, 10));
+    }
+
+    @Test
+    void nothingPastTheCount() {
+        layout.setWidth(100);
+        // 10 entries in 3 columns: the last row only has its first cell
+        assertEquals(9, layout.indexAt(layout.getX(9), layout.getY(9), 10));
+        assertEquals(-1, layout.indexAt(layout.getX(10), layout.getY(10), 10));
+        assertEquals(-1, layout.indexAt(layout.getX(11), layout.getY(11), 10));
+        assertEquals(-1, layout.indexAt(layout.getX(0), layout.getY(12), 10));
+        // past the last column, even with room for more entries
+        assertEquals(-1, layout.indexAt(layout.getX(2) + 32, layout.getY(0), 10));
+        assertEquals(-1, layout.indexAt(layout.getX(0), layout.getY(0), 0));
+    }
+
+    @Test
+    void contentHeight() {
+        layout.setWidth(100);
+        assertEquals(0, layout.getRows(0));
+        assertEquals(7, layout.getContentHeight(0));
+        assertEquals(1, layout.getRows(3));
+        assertEquals(2, layout.getRows(4));
+        assertEquals(4, layout.getRows(10));
+        // the padding below the last row ends where the next row's cell would start
+        assertEquals(layout.getY(12) - 30, layout.getContentHeight(10));
+        assertEquals(32, layout.getRowHeight());
+    }
+}
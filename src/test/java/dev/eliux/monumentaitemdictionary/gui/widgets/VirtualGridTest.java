@@ -0,0 +1,200 @@
+package dev.eliux.monumentaitemdictionary.gui.widgets;
+
+import net.minecraft.client.gui.screen.narration.NarrationMessageBuilder;
+import net.minecraft.client.gui.widget.ClickableWidget;
+import net.minecraft.client.util.math.MatrixStack;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualGridTest {
+    // 10 wide cells with 2 padding, so a row is 12 high. 50 wide fits 4 columns
+    private static final int CELL = 10, PADDING = 2, ROW = CELL + PADDING, WIDTH = 50, COLUMNS = 4;
+    private static final List<Integer> ENTRIES = IntStream.range(0, 100).boxed().toList();
+
+    private int created = 0;
+    private int binds = 0;
+    private final VirtualGrid<Integer, Cell> grid = new VirtualGrid<>(new GridLayout(CELL, CELL, PADDING, 0, 0), () -> {
+        created++;
+        return new Cell();
+    }, (cell, entry, index) -> {
+        binds++;
+        cell.entry = entry;
+        cell.index = index;
+    });
+
+    @Test
+    void bindsTheRowsOnScreenPlusOverscan() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+
+        // rows 0 to 2 fit in 30 pixels, plus one row of overscan below (none above the first row)
+        grid.update(0, 30);
+        assertEquals(range(0, 4 * COLUMNS), shownEntries());
+
+        // scrolled to row 5: rows 4 to 8 are shown, the rows above and below included
+        grid.update(5 * ROW, 30);
+        assertEquals(range(4 * COLUMNS, 9 * COLUMNS), shownEntries());
+
+        // the end of the list, never past the last entry
+        grid.update(24 * ROW, 30);
+        assertEquals(range(23 * COLUMNS, 100), shownEntries());
+    }
+
+    @Test
+    void widgetsAreRecycled() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+        grid.update(0, 30);
+        int screenful = created;
+        assertEquals(4 * COLUMNS, screenful);
+
+        // scrolling a long way and back never needs more widgets than the most ever shown at once
+        for (int row = 0; row < 25; row++) grid.update(row * ROW, 30);
+        for (int row = 25; row >= 0; row--) grid.update(row * ROW, 30);
+        assertTrue(created <= 5 * COLUMNS, created + " widgets");
+
+        // a new list rebinds the pooled widgets instead of making new ones
+        int before = created;
+        grid.setEntries(ENTRIES.subList(0, 50));
+        grid.update(0, 30);
+        assertEquals(before, created);
+        assertEquals(range(0, 4 * COLUMNS), shownEntries());
+    }
+
+    @Test
+    void unchangedUpdatesDoNothing() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+        grid.update(ROW * 3, 30);
+        int bound = binds;
+
+        grid.update(ROW * 3, 30);
+        grid.update(ROW * 3 + 5, 30); // still the same rows
+        assertEquals(bound, binds);
+
+        // one row further only binds the row coming in
+        grid.update(ROW * 4, 30);
+        assertEquals(bound + COLUMNS, binds);
+    }
+
+    @Test
+    void newListKeepsTheWidgetsOfUnchangedEntries() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+        grid.update(0, 30);
+        List<Cell> before = shown();
+        int bound = binds;
+
+        // one entry on screen replaced: only its widget is bound again, every widget stays where it was
+        ArrayList<Integer> changed = new ArrayList<>(ENTRIES);
+        changed.set(5, 500);
+        grid.setEntries(changed);
+        assertEquals(bound + 1, binds);
+        grid.update(0, 30);
+        assertEquals(bound + 1, binds);
+        List<Cell> after = shown();
+        for (int i = 0; i < before.size(); i++) assertSame(before.get(i), after.get(i));
+        assertEquals(500, after.get(5).entry);
+
+        // a shorter list drops the widgets past its end, and binds the one entry that changed back
+        grid.setEntries(ENTRIES.subList(0, 10));
+        assertEquals(bound + 2, binds);
+        grid.update(0, 30);
+        assertEquals(range(0, 10), shownEntries());
+        assertEquals(bound + 2, binds);
+        assertEquals(before.subList(0, 10), shown());
+    }
+
+    @Test
+    void newListShorterThanTheScrollStartsOver() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+        grid.update(20 * ROW, 30);
+
+        grid.setEntries(ENTRIES.subList(0, 8));
+        assertEquals(List.of(), shownEntries());
+        grid.update(0, 30);
+        assertEquals(range(0, 8), shownEntries());
+    }
+
+    @Test
+    void newWidthMovesWithoutRebinding() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+        grid.update(0, 30);
+        int bound = binds;
+
+        // two columns: the first eight entries stay on screen and only move
+        grid.setWidth(2 * ROW + 1);
+        grid.update(0, 30);
+        List<Cell> shown = shown();
+        assertEquals(range(0, 4 * 2), shownEntries());
+        assertEquals(bound, binds);
+        for (Cell cell : shown) {
+            assertEquals(PADDING + (cell.index % 2) * ROW, cell.getX());
+            assertEquals(PADDING + (cell.index / 2) * ROW, cell.getY());
+        }
+    }
+
+    @Test
+    void hitTestOnlyFindsShownWidgets() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(ENTRIES);
+        grid.update(10 * ROW, 30);
+
+        Cell cell = grid.getShownAt(PADDING + ROW + 1, PADDING + 10 * ROW + 1);
+        assertNotNull(cell);
+        assertEquals(10 * COLUMNS + 1, cell.entry);
+        // in the padding between cells
+        assertNull(grid.getShownAt(ROW + 1, PADDING + 10 * ROW + 1));
+        // an entry that exists but has no widget, scrolled away
+        assertNull(grid.getShownAt(PADDING + 1, PADDING + 1));
+    }
+
+    @Test
+    void emptyList() {
+        grid.setWidth(WIDTH);
+        grid.setEntries(List.of());
+        grid.update(0, 30);
+        assertTrue(grid.isEmpty());
+        assertEquals(List.of(), shownEntries());
+        assertEquals(0, grid.getRows());
+        assertEquals(PADDING, grid.getContentHeight());
+    }
+
+    private List<Cell> shown() {
+        List<Cell> shown = new ArrayList<>();
+        grid.forEachShown(shown::add);
+        return shown;
+    }
+
+    private List<Integer> shownEntries() {
+        return shown().stream().map(cell -> cell.entry).toList();
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().toList();
+    }
+
+    private static class Cell extends ClickableWidget {
+        private Integer entry;
+        private int index;
+
+        Cell() {
+            super(0, 0, CELL, CELL, null);
+        }
+
+        @Override
+        public void renderButton(MatrixStack matrices, int mouseX, int mouseY, float delta) {
+        }
+
+        @Override
+        protected void appendClickableNarrations(NarrationMessageBuilder builder) {
+        }
+    }
+}
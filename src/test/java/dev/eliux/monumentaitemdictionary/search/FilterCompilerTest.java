@@ -0,0 +1,88 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.FacetDictionary;
+import dev.eliux.monumentaitemdictionary.catalog.TestCatalogs;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterCompilerTest {
+    private static final Catalog catalog = TestCatalogs.standard();
+
+    @Test
+    void compiledFiltersMatchRowPasses() {
+        for (List<Filter> filters : RowPasses.FILTER_SETS) {
+            for (String name : RowPasses.NAMES) {
+                assertEquals(RowPasses.filter(catalog, filters, name), RowPasses.compiled(catalog, filters, name),
+                        filters.size() + " filters, name \"" + name + "\"");
+            }
+        }
+    }
+
+    // the facet bitsets against plain equals / contains, for random stacks of Matches and Excludes rows, including
+    // values no entry has
+    @Test
+    void facetRowsMatchRowPasses() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            ArrayList<Filter> filters = new ArrayList<>();
+            int rows = 1 + random.nextInt(4);
+            for (int row = 0; row < rows; row++) {
+                filters.add(switch (random.nextInt(5)) {
+                    case 0 -> new Filter("Region", value(random, catalog.getAllItemRegions()), random.nextInt(2), 0);
+                    case 1 -> new Filter("Tier", value(random, catalog.getAllItemTiers()), random.nextInt(2), 0);
+                    case 2 -> new Filter("Type", value(random, catalog.getAllItemTypes()), random.nextInt(2), 0);
+                    case 3 -> new Filter("Location", value(random, catalog.getAllItemLocations()), random.nextInt(2), 0);
+                    default -> new Filter("Stat", value(random, catalog.getAllItemStats()), random.nextInt(2), 0);
+                });
+            }
+            assertEquals(RowPasses.filter(catalog, filters, ""), RowPasses.compiled(catalog, filters, ""), "set " + i);
+        }
+    }
+
+    // a Not Matches row is an Excludes row and the other way round
+    @Test
+    void notFlipsFacetRows() {
+        for (String region : catalog.getAllItemRegions().getValues()) {
+            for (int comparator = 0; comparator < 2; comparator++) {
+                Filter not = new Filter("Region", region, comparator, 0);
+                not.not = true;
+                assertEquals(RowPasses.filter(catalog, List.of(new Filter("Region", region, 1 - comparator, 0)), ""),
+                        RowPasses.compiled(catalog, List.of(not), ""), region + " " + comparator);
+            }
+        }
+    }
+
+    // the counts the plan orders its clauses by, and the filter screens show, are the entries that pass the row
+    @Test
+    void facetCountsMatchTheEntries() {
+        assertCounts(catalog.getAllItemRegions(), value -> i -> i.hasRegion() && i.region.equals(value));
+        assertCounts(catalog.getAllItemTiers(), value -> i -> i.hasTier() && i.tier.contains(value));
+        assertCounts(catalog.getAllItemTypes(), value -> i -> i.type.equals(value));
+        assertCounts(catalog.getAllItemLocations(), value -> i -> i.hasLocation() && i.location.equals(value));
+        assertCounts(catalog.getAllItemStats(), value -> i -> i.hasStat(value));
+    }
+
+    private static void assertCounts(FacetDictionary facet, Function<String, Predicate<DictionaryItem>> has) {
+        assertTrue(facet.size() > 1);
+        for (String value : facet.getValues()) {
+            long expected = catalog.getItems().stream().filter(has.apply(value)).count();
+            assertTrue(expected > 0, value);
+            assertEquals(expected, facet.getCount(value), value);
+        }
+        assertEquals(0, facet.getCount("nothing has this"));
+    }
+
+    private static String value(Random random, FacetDictionary facet) {
+        return random.nextInt(8) == 0 ? "nothing has this" : facet.getValue(random.nextInt(facet.size()));
+    }
+}
@@ -0,0 +1,163 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.TestCatalogs;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+import dev.eliux.monumentaitemdictionary.util.ItemStat;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the compiled plan against the rows read literally: split into groups at every Or, an item passes when it
+// passes every row of some group, Not flips a single row
+class FilterPlanTest {
+    private static final Catalog catalog = TestCatalogs.standard();
+
+    @Test
+    void andBindsTighterThanOr() {
+        Filter ring = new Filter("Region", "Ring", 0, 0);
+        Filter helmet = row(new Filter("Type", "Helmet", 0, 0), true, false);
+        Filter epic = new Filter("Tier", "Epic", 0, 0);
+        // Ring or (Helmet and Epic), not (Ring or Helmet) and Epic
+        List<DictionaryItem> expected = catalog.getItems().stream()
+                .filter(i -> i.region.equals("Ring") || (i.type.equals("Helmet") && i.tier.contains("Epic"))).toList();
+
+        assertEquals(expected, compile(ring, helmet, epic));
+        assertNotEquals(expected, catalog.getItems().stream()
+                .filter(i -> (i.region.equals("Ring") || i.type.equals("Helmet")) && i.tier.contains("Epic")).toList());
+    }
+
+    @Test
+    void notOnTheFirstRow() {
+        Filter notRing = row(new Filter("Region", "Ring", 0, 0), false, true);
+        Filter armor = new Filter("Stat", "armor", 2, 5);
+        List<DictionaryItem> expected = catalog.getItems().stream()
+                .filter(i -> !i.region.equals("Ring") && i.hasStat("armor") && i.getStat("armor") >= 5).toList();
+        assertEquals(expected, compile(notRing, armor));
+
+        // a first row's Or does nothing, its Not still applies
+        assertEquals(expected, compile(row(new Filter("Region", "Ring", 0, 0), true, true), armor));
+        // Not on an Excludes row is Matches
+        assertEquals(catalog.getItems().stream().filter(i -> i.region.equals("Ring")).toList(),
+                compile(row(new Filter("Region", "Ring", 1, 0), false, true)));
+    }
+
+    @Test
+    void notOnAnOrRow() {
+        Filter ring = new Filter("Region", "Ring", 0, 0);
+        Filter epic = new Filter("Tier", "Epic", 0, 0);
+        Filter orNotHelmet = row(new Filter("Type", "Helmet", 0, 0), true, true);
+        // (Ring and Epic) or not Helmet
+        assertEquals(catalog.getItems().stream()
+                .filter(i -> (i.region.equals("Ring") && i.tier.contains("Epic")) || !i.type.equals("Helmet")).toList(),
+                compile(ring, epic, orNotHelmet));
+    }
+
+    @Test
+    void unknownValuesInGroups() {
+        Filter nope = new Filter("Stat", "nope", 2, 1);
+        Filter ring = row(new Filter("Region", "Ring", 0, 0), true, false);
+        // the first group matches nothing, the second still counts
+        assertEquals(catalog.getItems().stream().filter(i -> i.region.equals("Ring")).toList(), compile(nope, ring));
+        // a Not on it matches everything, so the whole list does
+        assertEquals(catalog.getItems(), compile(row(new Filter("Stat", "nope", 2, 1), false, true), ring));
+    }
+
+    @Test
+    void randomRowsMatchTheLiteralReading() {
+        Random random = new Random(19);
+        for (int run = 0; run < 500; run++) {
+            ArrayList<Filter> filters = new ArrayList<>();
+            int rows = 1 + random.nextInt(5);
+            for (int i = 0; i < rows; i++) {
+                filters.add(row(randomFilter(random), random.nextInt(3) == 0, random.nextInt(4) == 0));
+            }
+
+            List<DictionaryItem> expected = catalog.getItems().stream().filter(literal(filters)).toList();
+            assertEquals(expected, FilterCompiler.compileItemFilters(filters, catalog).filter(catalog.getItems()), describe(filters));
+        }
+    }
+
+    private static List<DictionaryItem> compile(Filter... filters) {
+        return FilterCompiler.compileItemFilters(List.of(filters), catalog).filter(catalog.getItems());
+    }
+
+    private static Filter row(Filter filter, boolean or, boolean not) {
+        filter.or = or;
+        filter.not = not;
+        return filter;
+    }
+
+    private static Filter randomFilter(Random random) {
+        return switch (random.nextInt(5)) {
+            case 0 -> new Filter("Region", pick(random, TestCatalogs.REGIONS), random.nextInt(2), 0);
+            case 1 -> new Filter("Type", pick(random, TestCatalogs.TYPES), random.nextInt(2), 0);
+            case 2 -> new Filter("Tier", pick(random, List.of("Rare", "Epic", "Uncommon", "Artifact")), random.nextInt(2), 0);
+            case 3 -> new Filter("Location", pick(random, TestCatalogs.LOCATIONS), random.nextInt(2), 0);
+            default -> new Filter("Stat", pick(random, TestCatalogs.STATS), random.nextInt(7), random.nextInt(12) - 2);
+        };
+    }
+
+    private static Predicate<DictionaryItem> literal(List<Filter> filters) {
+        ArrayList<ArrayList<Filter>> groups = new ArrayList<>();
+        groups.add(new ArrayList<>());
+        for (Filter filter : filters) {
+            if (filter.or && !groups.get(groups.size() - 1).isEmpty()) groups.add(new ArrayList<>());
+            groups.get(groups.size() - 1).add(filter);
+        }
+        return item -> groups.stream().anyMatch(group -> group.stream().allMatch(filter -> passes(item, filter) != filter.not));
+    }
+
+    private static boolean passes(DictionaryItem item, Filter filter) {
+        boolean matches = switch (filter.getOption()) {
+            case "Region" -> item.region.equals(filter.value);
+            case "Type" -> item.type.equals(filter.value);
+            case "Tier" -> item.tier.contains(filter.value);
+            case "Location" -> item.location.equals(filter.value);
+            default -> item.hasStat(filter.value);
+        };
+        if (!filter.getOption().equals("Stat") || filter.comparator < 2) return filter.comparator == 0 ? matches : !matches;
+        if (!matches) return false;
+
+        double value = highest(item, filter.value);
+        return switch (filter.comparator) {
+            case 2 -> value >= filter.constant;
+            case 3 -> value > filter.constant;
+            case 4 -> value == filter.constant;
+            case 5 -> value <= filter.constant;
+            default -> value < filter.constant;
+        };
+    }
+
+    // the stat's highest value over the masterwork levels. unlike DictionaryItem.getStat this doesn't stop at -1
+    private static double highest(DictionaryItem item, String stat) {
+        double highest = Double.NEGATIVE_INFINITY;
+        for (ArrayList<ItemStat> levelStats : item.stats) {
+            if (levelStats == null) continue;
+            for (ItemStat itemStat : levelStats) {
+                if (itemStat.statName.equals(stat)) highest = Math.max(highest, itemStat.statValue);
+            }
+        }
+        return highest;
+    }
+
+    private static String pick(Random random, List<String> options) {
+        return options.get(random.nextInt(options.size()));
+    }
+
+    private static String describe(List<Filter> filters) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < filters.size(); i++) {
+            Filter filter = filters.get(i);
+            description.append(filter.getJoinLabel(i == 0)).append(' ').append(filter.getOption()).append(' ')
+                    .append(filter.value).append(" #").append(filter.comparator).append(' ').append(filter.constant).append("; ");
+        }
+        return description.toString();
+    }
+}
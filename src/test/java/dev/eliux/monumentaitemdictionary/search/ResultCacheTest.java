@@ -0,0 +1,204 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.TestCatalogs;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+    private static final Catalog catalog = TestCatalogs.standard();
+
+    @Test
+    void reorderedGroupsShareAKey() {
+        // (Ring and Helmet) or Keep, both ways round, with the rows inside the group swapped too
+        List<Filter> first = List.of(row("Region", "Ring"), row("Type", "Helmet"), or(row("Location", "Keep")));
+        List<Filter> second = List.of(row("Location", "Keep"), or(row("Type", "Helmet")), row("Region", "Ring"));
+        assertSameKeyAndResults(first, second);
+    }
+
+    @Test
+    void firstRowOrDoesNothing() {
+        assertSameKeyAndResults(List.of(row("Region", "Ring"), row("Type", "Helmet")),
+                List.of(or(row("Region", "Ring")), row("Type", "Helmet")));
+        // an or after rows that were all empty doesn't start a group either
+        assertSameKeyAndResults(List.of(row("Region", ""), or(row("Type", "Helmet"))),
+                List.of(row("Type", "Helmet")));
+    }
+
+    @Test
+    void groupingChangesTheKey() {
+        // (Ring and Helmet) or Keep against Ring and (Helmet or Keep)
+        assertDifferentKeyAndResults(List.of(row("Region", "Ring"), row("Type", "Helmet"), or(row("Location", "Keep"))),
+                List.of(row("Region", "Ring"), or(row("Type", "Helmet")), row("Location", "Keep")));
+    }
+
+    @Test
+    void notChangesTheKey() {
+        assertDifferentKeyAndResults(List.of(row("Region", "Ring")), List.of(not(row("Region", "Ring"))));
+        // a Not Matches and an Excludes select the same entries, but are different rows
+        List<Filter> notMatches = List.of(not(row("Region", "Ring")));
+        List<Filter> excludes = List.of(new Filter("Region", "Ring", 1, 0));
+        assertNotEquals(key(notMatches), key(excludes));
+        assertArrayEquals(search(notMatches), search(excludes));
+    }
+
+    @Test
+    void weightRowsAreUnorderedButNotIgnored() {
+        List<Filter> filters = List.of(row("Region", "Ring"), weight("armor", 2), weight("agility", 1));
+        assertSameKeyAndResults(filters, List.of(weight("agility", 1), row("Region", "Ring"), weight("armor", 2)));
+        // a weight row in the middle doesn't split the group it sits in
+        assertSameKeyAndResults(List.of(row("Region", "Ring"), or(weight("armor", 2)), row("Type", "Helmet")),
+                List.of(row("Region", "Ring"), row("Type", "Helmet"), weight("armor", 2)));
+
+        assertDifferentKeyAndResults(filters, List.of(row("Region", "Ring"), weight("armor", 2), weight("agility", -1)));
+        assertNotEquals(key(filters), key(List.of(row("Region", "Ring"))));
+    }
+
+    @Test
+    void sortStatsKeepTheirOrder() {
+        List<Filter> armorFirst = List.of(new Filter("Stat", "armor", 0, 0), new Filter("Stat", "agility", 0, 0));
+        List<Filter> agilityFirst = List.of(new Filter("Stat", "agility", 0, 0), new Filter("Stat", "armor", 0, 0));
+        assertDifferentKeyAndResults(armorFirst, agilityFirst);
+    }
+
+    @Test
+    void emptyValuesAreSkipped() {
+        assertSameKeyAndResults(List.of(row("Region", "Ring")), List.of(row("Region", "Ring"), row("Type", ""), new Filter("Stat", "", 2, 5)));
+        assertSameKeyAndResults(List.of(row("Region", "Ring"), weight("", 3)), List.of(row("Region", "Ring")));
+
+        // except Charm Power's, which is a comparison on the power itself
+        List<Filter> power = List.of(new Filter("Charm Power", "", 2, 3));
+        assertNotEquals(key(List.of()), key(power));
+        assertFalse(Arrays.equals(searchCharms(List.of()), searchCharms(power)));
+    }
+
+    @Test
+    void constantOnlyMattersToComparisons() {
+        assertSameKeyAndResults(List.of(new Filter("Stat", "armor", 0, 1)), List.of(new Filter("Stat", "armor", 0, 9)));
+        assertDifferentKeyAndResults(List.of(new Filter("Stat", "armor", 2, 1)), List.of(new Filter("Stat", "armor", 2, 9)));
+    }
+
+    @Test
+    void nameAndTypeArePartOfTheKey() {
+        List<Filter> filters = List.of(row("Region", "Ring"));
+        assertEquals(ResultCache.key(filters, "Item 1", null), ResultCache.key(filters, "item 1", null));
+        assertNotEquals(ResultCache.key(filters, null, null), ResultCache.key(filters, "", null));
+        assertNotEquals(ResultCache.key(filters, "item 1", null), ResultCache.key(filters, "item 12", null));
+        assertNotEquals(ResultCache.key(filters, null, null), ResultCache.key(filters, null, "Offhand"));
+    }
+
+    // random rows from a small pool, so plenty of the lists end up meaning the same thing. any two with the same key
+    // must get the same results, and any two with different results must have different keys
+    @Test
+    void sameKeyMeansSameResults() {
+        Random random = new Random(18);
+        HashMap<String, int[]> resultsByKey = new HashMap<>();
+        HashMap<String, List<Filter>> filtersByKey = new HashMap<>();
+        int lists = 3000;
+        for (int i = 0; i < lists; i++) {
+            List<Filter> filters = randomRows(random);
+            String key = key(filters);
+            int[] results = search(filters);
+
+            int[] earlier = resultsByKey.putIfAbsent(key, results);
+            if (earlier != null)
+                assertArrayEquals(earlier, results, describe(filtersByKey.get(key)) + " and " + describe(filters) + " share a key");
+            filtersByKey.putIfAbsent(key, filters);
+        }
+        assertTrue(resultsByKey.size() < lists * 3 / 4, "only " + (lists - resultsByKey.size()) + " lists shared a key");
+        assertTrue(resultsByKey.size() > 100, "only " + resultsByKey.size() + " keys");
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        ResultCache cache = new ResultCache();
+        String key = key(List.of(row("Region", "Ring")));
+        assertNull(cache.get(1, key));
+        cache.put(key, new ResultCache.Result(new int[]{1, 2}, false));
+        assertNotNull(cache.get(1, key));
+        assertNull(cache.get(2, key)); // another catalog version drops everything
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static List<Filter> randomRows(Random random) {
+        ArrayList<Filter> filters = new ArrayList<>();
+        int rows = 1 + random.nextInt(4);
+        for (int i = 0; i < rows; i++) {
+            Filter filter = switch (random.nextInt(6)) {
+                case 0 -> row("Region", random.nextInt(5) == 0 ? "" : TestCatalogs.REGIONS.get(random.nextInt(2)));
+                case 1 -> row("Type", TestCatalogs.TYPES.get(random.nextInt(2)));
+                case 2 -> row("Tier", TestCatalogs.TIERS.get(random.nextInt(2)));
+                case 3 -> new Filter("Stat", TestCatalogs.STATS.get(random.nextInt(2)), random.nextInt(2), random.nextInt(3));
+                case 4 -> new Filter("Stat", TestCatalogs.STATS.get(random.nextInt(2)), 2 + random.nextInt(5), random.nextInt(3));
+                default -> weight(TestCatalogs.STATS.get(random.nextInt(2)), 1 + random.nextInt(2));
+            };
+            filter.or = random.nextInt(3) == 0;
+            filter.not = random.nextInt(4) == 0;
+            filters.add(filter);
+        }
+        return filters;
+    }
+
+    private static void assertSameKeyAndResults(List<Filter> first, List<Filter> second) {
+        assertEquals(key(first), key(second));
+        assertArrayEquals(search(first), search(second));
+    }
+
+    private static void assertDifferentKeyAndResults(List<Filter> first, List<Filter> second) {
+        assertNotEquals(key(first), key(second));
+        assertFalse(Arrays.equals(search(first), search(second)), "the rows must select differently to tell anything apart");
+    }
+
+    private static String key(List<Filter> filters) {
+        return ResultCache.key(filters, null, null);
+    }
+
+    // what DictionaryController.searchItems computes when there's no name or type
+    private static int[] search(List<Filter> filters) {
+        int[] matching = FilterCompiler.compileItemFilters(filters, catalog).select(catalog.getItems());
+        StatScore score = new StatScore(catalog.getItemStats(), filters);
+        if (score.isEmpty()) return new StatSort(matching, catalog.getItemStats(), filters).sorted();
+        return score.top(matching, 50);
+    }
+
+    private static int[] searchCharms(List<Filter> filters) {
+        int[] matching = FilterCompiler.compileCharmFilters(filters, catalog).select(catalog.getCharms());
+        return new StatSort(matching, catalog.getCharmStats(), filters).sorted();
+    }
+
+    private static String describe(List<Filter> filters) {
+        StringBuilder text = new StringBuilder("[");
+        for (Filter filter : filters) {
+            text.append(filter.or ? " or " : " and ").append(filter.not ? "not " : "").append(filter.getOption())
+                    .append(' ').append(filter.value).append(' ').append(filter.comparator).append(' ').append(filter.constant);
+        }
+        return text.append(" ]").toString();
+    }
+
+    private static Filter row(String option, String value) {
+        return new Filter(option, value, 0, 0);
+    }
+
+    private static Filter weight(String stat, double weight) {
+        return new Filter("Stat", stat, 7, weight);
+    }
+
+    private static Filter or(Filter filter) {
+        filter.or = true;
+        return filter;
+    }
+
+    private static Filter not(Filter filter) {
+        filter.not = true;
+        return filter;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.gui.item.DictionaryItem;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// how refreshItems filtered before the compiled pipeline: copy the catalog, then one removeIf pass per row with
+// plain equals and contains. the reference the pipeline is checked against, and what the benchmark times it against
+public class RowPasses {
+    public static final List<List<Filter>> FILTER_SETS = List.of(
+            List.of(new Filter("Stat", "armor", 2, 3)),
+            List.of(new Filter("Region", "Ring", 0, 0), new Filter("Type", "Helmet", 1, 0), new Filter("Stat", "armor", 2, 3), new Filter("Tier", "Epic", 0, 0)),
+            List.of(new Filter("Stat", "projectile_protection", 0, 0), new Filter("Stat", "thorns_flat", 1, 0), new Filter("Region", "Valley", 0, 0)),
+            List.of(new Filter("Stat", "inferno", 5, 2), new Filter("Stat", "agility", 3, 4), new Filter("Location", "Keep", 1, 0)),
+            List.of(new Filter("Stat", "nope", 0, 0)));
+    public static final List<String> NAMES = List.of("", "item 1", "item 12 x");
+
+    public static List<DictionaryItem> compiled(Catalog catalog, List<Filter> filters, String name) {
+        FilterPipeline<DictionaryItem> pipeline = FilterCompiler.compileItemFilters(filters, catalog);
+        if (!name.isEmpty()) pipeline = pipeline.withOnly(catalog.getItemNameSearchIndex().search(name.toLowerCase()));
+        return pipeline.filter(catalog.getItems());
+    }
+
+    public static List<DictionaryItem> filter(Catalog catalog, List<Filter> filters, String name) {
+        ArrayList<DictionaryItem> items = new ArrayList<>(catalog.getItems());
+        for (Filter filter : filters) {
+            switch (filter.getOption()) {
+                case "Stat" -> {
+                    switch (filter.comparator) {
+                        case 0 -> items.removeIf(i -> !i.hasStat(filter.value));
+                        case 1 -> items.removeIf(i -> i.hasStat(filter.value));
+                        case 2 -> items.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) >= filter.constant));
+                        case 3 -> items.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) > filter.constant));
+                        case 4 -> items.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) == filter.constant));
+                        case 5 -> items.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) <= filter.constant));
+                        case 6 -> items.removeIf(i -> !i.hasStat(filter.value) || !(i.getStat(filter.value) < filter.constant));
+                    }
+                }
+                case "Tier" -> {
+                    switch (filter.comparator) {
+                        case 0 -> items.removeIf(i -> !i.hasTier() || !i.tier.contains(filter.value));
+                        case 1 -> items.removeIf(i -> i.hasTier() && i.tier.contains(filter.value));
+                    }
+                }
+                case "Region" -> {
+                    switch (filter.comparator) {
+                        case 0 -> items.removeIf(i -> !i.hasRegion() || !i.region.equals(filter.value));
+                        case 1 -> items.removeIf(i -> i.hasRegion() && i.region.equals(filter.value));
+                    }
+                }
+                case "Type" -> {
+                    switch (filter.comparator) {
+                        case 0 -> items.removeIf(i -> !i.type.equals(filter.value));
+                        case 1 -> items.removeIf(i -> i.type.equals(filter.value));
+                    }
+                }
+                case "Location" -> {
+                    switch (filter.comparator) {
+                        case 0 -> items.removeIf(i -> !i.hasLocation() || !i.location.equals(filter.value));
+                        case 1 -> items.removeIf(i -> i.hasLocation() && i.location.equals(filter.value));
+                    }
+                }
+            }
+        }
+        if (!name.isEmpty()) {
+            String lowerName = name.toLowerCase();
+            items.removeIf(i -> !i.name.toLowerCase().contains(lowerName));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchWorkerTest {
+    private final SearchWorker<String> worker = new SearchWorker<>();
+    // results are handed over here instead of to the render thread, so the test decides when they run
+    private final BlockingQueue<Runnable> resultQueue = new ArrayBlockingQueue<>(16);
+    private final List<String> shown = new ArrayList<>();
+
+    @Test
+    void onlyTheLastOfADebouncedBurstRuns() throws Exception {
+        List<String> searched = new CopyOnWriteArrayList<>();
+        for (String query : List.of("a", "ab", "abc", "abcd")) {
+            worker.request(100, stale -> {
+                searched.add(query);
+                return query;
+            }, shown::add, resultQueue::add);
+        }
+
+        runNextResult();
+        assertEquals(List.of("abcd"), searched);
+        assertEquals(List.of("abcd"), shown);
+        assertNoMoreResults();
+    }
+
+    @Test
+    void aRunningSearchGivesUpOnceANewerOneIsAsked() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch replaced = new CountDownLatch(1);
+        List<Boolean> sawStale = new CopyOnWriteArrayList<>();
+        worker.request(0, stale -> {
+            started.countDown();
+            await(replaced);
+            sawStale.add(stale.getAsBoolean());
+            return stale.getAsBoolean() ? null : "old";
+        }, shown::add, resultQueue::add);
+
+        await(started);
+        worker.request(0, stale -> "new", shown::add, resultQueue::add);
+        replaced.countDown();
+
+        runNextResult();
+        assertEquals(List.of(true), sawStale);
+        assertEquals(List.of("new"), shown);
+        assertNoMoreResults();
+    }
+
+    @Test
+    void aResultFinishedAfterANewerRequestIsDropped() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch replaced = new CountDownLatch(1);
+        // never checks stale, and finishes only after the next request was made
+        worker.request(0, stale -> {
+            started.countDown();
+            await(replaced);
+            return "old";
+        }, shown::add, resultQueue::add);
+
+        await(started);
+        worker.request(50, stale -> "new", shown::add, resultQueue::add);
+        replaced.countDown();
+
+        runNextResult();
+        assertEquals(List.of("new"), shown);
+        assertNoMoreResults();
+    }
+
+    @Test
+    void aQueuedResultIsDroppedWhenANewerOneWasAsked() throws Exception {
+        worker.request(0, stale -> "old", shown::add, resultQueue::add);
+        Runnable old = resultQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(old);
+
+        // the old result reached the render thread's queue, then the query changed before it ran
+        worker.request(0, stale -> "new", shown::add, resultQueue::add);
+        old.run();
+        assertEquals(List.of(), shown);
+
+        runNextResult();
+        assertEquals(List.of("new"), shown);
+    }
+
+    @Test
+    void aFailedSearchShowsNothingAndTheNextOneStillRuns() throws Exception {
+        worker.request(0, stale -> {
+            throw new IllegalStateException("expected by the test");
+        }, shown::add, resultQueue::add);
+        assertNoMoreResults();
+
+        worker.request(0, stale -> "next", shown::add, resultQueue::add);
+        runNextResult();
+        assertEquals(List.of("next"), shown);
+    }
+
+    private void runNextResult() throws InterruptedException {
+        Runnable result = resultQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(result, "no result was handed back");
+        result.run();
+    }
+
+    // long enough for anything still scheduled (the longest delay above is 100ms) to have run
+    private void assertNoMoreResults() throws InterruptedException {
+        Runnable extra = resultQueue.poll(300, TimeUnit.MILLISECONDS);
+        if (extra != null) {
+            extra.run();
+            fail("another result was handed back, shown: " + shown);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.eliux.monumentaitemdictionary.search;
+
+import dev.eliux.monumentaitemdictionary.catalog.Catalog;
+import dev.eliux.monumentaitemdictionary.catalog.StatStore;
+import dev.eliux.monumentaitemdictionary.catalog.TestCatalogs;
+import dev.eliux.monumentaitemdictionary.util.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatScoreTest {
+    private static final Catalog catalog = TestCatalogs.standard();
+    private static final Catalog twins = twins();
+
+    // ten items with the same stats, and one better one in the middle
+    private static Catalog twins() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 10; i++) {
+            json.append("\"twin").append(i).append("\": {\"name\": \"Twin ").append(i)
+                    .append("\", \"type\": \"Helmet\", \"base_item\": \"Leather Helmet\", \"stats\": {\"armor\": 2, \"agility\": 1}},");
+        }
+        json.append("\"best\": {\"name\": \"Twin 45\", \"type\": \"Helmet\", \"base_item\": \"Leather Helmet\", \"stats\": {\"armor\": 4}}}");
+        return TestCatalogs.parse(json.toString());
+    }
+
+    @Test
+    void tiesKeepCatalogOrder() {
+        StatScore score = new StatScore(twins.getItemStats(), List.of(weight("armor", 1)));
+        int[] all = IntStream.range(0, twins.getItems().size()).toArray();
+        int best = indexOf("Twin 45");
+
+        int[] expected = IntStream.concat(IntStream.of(best), IntStream.range(0, all.length).filter(i -> i != best)).toArray();
+        assertArrayEquals(expected, score.top(all, all.length));
+        assertArrayEquals(new int[]{best, expected[1], expected[2], expected[3]}, score.top(all, 4));
+        assertArrayEquals(new int[]{best}, score.top(all, 1));
+        assertArrayEquals(new int[0], score.top(all, 0));
+    }
+
+    @Test
+    void negativeWeightsRankLowestFirst() {
+        StatScore score = new StatScore(twins.getItemStats(), List.of(weight("armor", -1)));
+        int[] all = IntStream.range(0, twins.getItems().size()).toArray();
+        int[] top = score.top(all, all.length);
+        assertEquals(indexOf("Twin 45"), top[top.length - 1]);
+    }
+
+    @Test
+    void noUsableWeights() {
+        assertTrue(new StatScore(twins.getItemStats(), List.of(weight("nope", 2), weight("armor", 0), new Filter("Stat", "armor", 2, 1))).isEmpty());
+    }
+
+    @Test
+    void topMatchesAFullSort() {
+        Random random = new Random(20);
+        int count = catalog.getItems().size();
+        for (int run = 0; run < 200; run++) {
+            ArrayList<Filter> filters = new ArrayList<>();
+            int weights = 1 + random.nextInt(3);
+            for (int i = 0; i < weights; i++) {
+                // whole weights on few stats, so plenty of scores tie
+                filters.add(weight(TestCatalogs.STATS.get(random.nextInt(TestCatalogs.STATS.size())), random.nextInt(7) - 3));
+            }
+            int[] ordinals = IntStream.range(0, count).filter(ordinal -> random.nextInt(4) != 0).toArray();
+            int k = random.nextInt(3) == 0 ? ordinals.length + 5 : random.nextInt(300);
+
+            StatScore score = new StatScore(catalog.getItemStats(), filters);
+            if (score.isEmpty()) continue;
+            assertArrayEquals(fullSort(catalog.getItemStats(), filters, ordinals, k), score.top(ordinals, k), "run " + run);
+        }
+    }
+
+    // every ordinal scored, stably sorted best first and cut at k
+    private static int[] fullSort(StatStore stats, List<Filter> filters, int[] ordinals, int k) {
+        double[] scores = new double[stats.getColumn(0).length];
+        for (Filter filter : filters) {
+            int id = stats.getId(filter.value);
+            if (id == -1 || filter.constant == 0 || stats.getLargest(id) == 0) continue;
+            double weight = filter.constant / stats.getLargest(id);
+            for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+                if (stats.has(id, ordinal)) scores[ordinal] += weight * stats.get(id, ordinal);
+            }
+        }
+        return IntStream.of(ordinals).boxed()
+                .sorted(Comparator.comparingDouble((Integer ordinal) -> scores[ordinal]).reversed())
+                .limit(k).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Filter weight(String stat, double weight) {
+        return new Filter("Stat", stat, 7, weight);
+    }
+
+    private static int indexOf(String name) {
+        for (int ordinal = 0; ordinal < twins.getItems().size(); ordinal++) {
+            if (twins.getItems().get(ordinal).name.equals(name)) return ordinal;
+        }
+        throw new AssertionError(name);
+    }
+}
@@ -0,0 +1,63 @@
+package dev.eliux.monumentaitemdictionary.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IconCacheTest {
+    @Test
+    void buildsEachIconOnce() {
+        IconCache<Object> cache = new IconCache<>(8);
+        Object icon = cache.get(IconCache.itemKey("Stone", "Rock"), Object::new);
+        assertSame(icon, cache.get(IconCache.itemKey("Stone", "Rock"), () -> fail("built again")));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void staysWithinItsCapacity() {
+        IconCache<Object> cache = new IconCache<>(8);
+        Object kept = cache.get("kept", Object::new);
+        for (int i = 0; i < 100; i++) {
+            cache.get("icon " + i, Object::new);
+            cache.get("kept", Object::new); // used all along, so never the eldest
+            assertTrue(cache.size() <= 8);
+        }
+        assertEquals(8, cache.size());
+        assertSame(kept, cache.get("kept", Object::new));
+
+        // the least recently used ones went first: the last seven are still there, the one before isn't
+        long misses = cache.getMisses();
+        for (int i = 93; i < 100; i++) cache.get("icon " + i, Object::new);
+        assertEquals(misses, cache.getMisses());
+        cache.get("icon 92", Object::new);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    void charmsDifferingInPowerTierOrClassGetTheirOwnIcons() {
+        List<String> keys = List.of(
+                IconCache.itemKey("Stone", "Ember"),
+                IconCache.charmKey("Stone", "Ember", 1, "Rare", "Mage"),
+                IconCache.charmKey("Stone", "Ember", 2, "Rare", "Mage"),
+                IconCache.charmKey("Stone", "Ember", 1, "Epic", "Mage"),
+                IconCache.charmKey("Stone", "Ember", 1, "Rare", "Rogue"),
+                IconCache.charmKey("Cobblestone", "Ember", 1, "Rare", "Mage"),
+                IconCache.charmKey("Stone", "Ember 2", 1, "Rare", "Mage"),
+                // the separators keep fields from running into each other
+                IconCache.charmKey("Stone", "Ember", 12, "Rare", "Mage"),
+                IconCache.charmKey("Stone", "Ember", 1, "2Rare", "Mage"));
+        assertEquals(keys.size(), new HashSet<>(keys).size());
+
+        IconCache<Object> cache = new IconCache<>(64);
+        HashSet<Object> icons = new HashSet<>();
+        for (String key : keys) icons.add(cache.get(key, Object::new));
+        assertEquals(keys.size(), icons.size());
+
+        assertEquals(IconCache.charmKey("Stone", "Ember", 1, "Rare", "Mage"), IconCache.charmKey("Stone", "Ember", 1, "Rare", "Mage"));
+    }
+}
@@ -0,0 +1,60 @@
+package dev.eliux.monumentaitemdictionary.util;
+
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TooltipCacheTest {
+    private final ArrayList<String> generated = new ArrayList<>();
+    private final TooltipCache<String> cache = new TooltipCache<>((entry, variant) -> {
+        generated.add(entry + " " + variant);
+        return new ArrayList<Text>();
+    });
+
+    @Test
+    void hitReturnsTheSameLines() {
+        List<Text> lines = cache.get("Axe", 0, 0, null);
+        assertSame(lines, cache.get("Axe", 0, 0, null));
+        assertEquals(List.of("Axe 0"), generated);
+        assertThrows(UnsupportedOperationException.class, () -> lines.add(null));
+    }
+
+    @Test
+    void variantFlagsAndScreenRebuild() {
+        List<Text> lines = cache.get("Axe", 0, 0, null);
+        assertNotSame(lines, cache.get("Axe", 1, 0, null));
+        assertNotSame(lines, cache.get("Axe", 1, 1, null));
+        assertNotSame(lines, cache.get("Axe", 1, 1, String.class));
+        assertEquals(4, generated.size());
+        assertEquals(1, cache.size()); // one entry keeps only its last tooltip
+    }
+
+    @Test
+    void forgetOnlyDropsThoseEntries() {
+        List<Text> axe = cache.get("Axe", 0, 0, null);
+        List<Text> bow = cache.get("Bow", 0, 0, null);
+        cache.forget(List.of("Bow", "Cap"));
+
+        assertSame(axe, cache.get("Axe", 0, 0, null));
+        assertNotSame(bow, cache.get("Bow", 0, 0, null));
+        assertEquals(List.of("Axe 0", "Bow 0", "Bow 0"), generated);
+    }
+
+    @Test
+    void keepsTheMostRecentlyHovered() {
+        List<Text> kept = cache.get("entry 0", 0, 0, null);
+        for (int i = 1; i < 200; i++) {
+            cache.get("entry " + i, 0, 0, null);
+            cache.get("entry 0", 0, 0, null);
+        }
+        assertEquals(64, cache.size());
+        assertSame(kept, cache.get("entry 0", 0, 0, null));
+        generated.clear();
+        cache.get("entry 1", 0, 0, null);
+        assertEquals(List.of("entry 1 0"), generated);
+    }
+}
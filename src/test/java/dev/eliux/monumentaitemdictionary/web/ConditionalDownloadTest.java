@@ -0,0 +1,150 @@
+package dev.eliux.monumentaitemdictionary.web;
+
+import dev.eliux.monumentaitemdictionary.catalog.CatalogLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalDownloadTest {
+    private static final byte[] OLD_DATA = "[\"old items\"]".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger downloaded = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicReference<ResponseValidators> downloadedValidators = new AtomicReference<>();
+
+    private void download(StubServer server, Path targetFile, ResponseValidators validators) throws Exception {
+        WebManager.manageConditionalDownloadAsynchronous(server.url(), targetFile, validators, v -> {
+            downloaded.incrementAndGet();
+            downloadedValidators.set(v);
+        }, notModified::incrementAndGet, failed::incrementAndGet, Runnable::run).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void gzippedBodyIsWrittenAsIs() throws Exception {
+        byte[] data = randomJson();
+        Path targetFile = dir.resolve("items.json");
+
+        try (StubServer server = new StubServer(exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("ETag", "\"v2\"");
+            StubServer.respond(exchange, 200, gzip(data));
+        })) {
+            download(server, targetFile, ResponseValidators.NONE);
+            assertEquals("gzip", server.requests.get(0).getFirst("Accept-Encoding"));
+        }
+
+        assertEquals(1, downloaded.get());
+        assertEquals(0, notModified.get() + failed.get());
+        assertArrayEquals(data, Files.readAllBytes(targetFile));
+        assertEquals("\"v2\"", downloadedValidators.get().etag);
+        assertEquals(List.of(targetFile), listDir());
+    }
+
+    @Test
+    void replayedEtagLeavesFileAlone() throws Exception {
+        Path targetFile = dir.resolve("items.json");
+        Files.write(targetFile, OLD_DATA);
+
+        try (StubServer server = new StubServer(exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                StubServer.respond(exchange, 304, new byte[0]);
+            } else {
+                StubServer.respond(exchange, 200, randomJson());
+            }
+        })) {
+            download(server, targetFile, new ResponseValidators("\"v1\"", "Tue, 01 Jul 2025 00:00:00 GMT"));
+            assertEquals("Tue, 01 Jul 2025 00:00:00 GMT", server.requests.get(0).getFirst("If-Modified-Since"));
+        }
+
+        assertEquals(1, notModified.get());
+        assertEquals(0, downloaded.get() + failed.get());
+        assertArrayEquals(OLD_DATA, Files.readAllBytes(targetFile));
+        assertEquals(List.of(targetFile), listDir());
+    }
+
+    @Test
+    void truncatedBodyKeepsOldFile() throws Exception {
+        Path targetFile = dir.resolve("items.json");
+        Files.write(targetFile, OLD_DATA);
+        byte[] data = randomJson();
+
+        try (StubServer server = new StubServer(exchange -> {
+            // promises the whole body but hangs up halfway through
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data, 0, data.length / 2);
+            exchange.getResponseBody().flush();
+            exchange.close();
+        })) {
+            download(server, targetFile, ResponseValidators.NONE);
+        }
+
+        assertEquals(1, failed.get());
+        assertEquals(0, downloaded.get() + notModified.get());
+        assertArrayEquals(OLD_DATA, Files.readAllBytes(targetFile));
+        assertEquals(List.of(targetFile), listDir());
+    }
+
+    @Test
+    void noValidatorsWithoutData() throws Exception {
+        Path targetFile = dir.resolve("items.json");
+        // validators left over from a download whose items.json has since been deleted
+        new ResponseValidators("\"v1\"", "Tue, 01 Jul 2025 00:00:00 GMT").save(dir.resolve("items.properties"));
+        byte[] data = randomJson();
+
+        try (StubServer server = new StubServer(exchange -> {
+            if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+                StubServer.respond(exchange, 304, new byte[0]);
+            } else {
+                StubServer.respond(exchange, 200, data);
+            }
+        })) {
+            download(server, targetFile, new CatalogLoader(targetFile).getValidators());
+            assertFalse(server.requests.get(0).containsKey("If-None-Match"));
+            assertFalse(server.requests.get(0).containsKey("If-Modified-Since"));
+        }
+
+        assertEquals(1, downloaded.get());
+        assertArrayEquals(data, Files.readAllBytes(targetFile));
+    }
+
+    // big enough to take a few reads, so a half written temp file would show up
+    private static byte[] randomJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 20000; i++) {
+            if (i != 0) json.append(',');
+            json.append("{\"name\":\"Item ").append(i).append("\",\"power\":").append(i * 31 % 997).append('}');
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private List<Path> listDir() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> !f.getFileName().toString().equals("items.properties")).toList();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package dev.eliux.monumentaitemdictionary.web;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// whatever happens to a request, exactly one of its callbacks runs, and none once it has been cancelled
+class RequestCallbackTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(300);
+    private static final byte[] BODY = "[\"items\"]".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicReference<String> body = new AtomicReference<>();
+    // holds back the stalling handlers until the test is done with them
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch responded = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseServer() {
+        release.countDown();
+    }
+
+    private CompletableFuture<Void> request(StubServer server) {
+        return request(server, Runnable::run);
+    }
+
+    private CompletableFuture<Void> request(StubServer server, Executor callbackExecutor) {
+        return WebManager.manageRequestAsynchronous(server.url(), b -> {
+            succeeded.incrementAndGet();
+            body.set(b);
+        }, failed::incrementAndGet, callbackExecutor, TIMEOUT);
+    }
+
+    private void respondAfterRelease(HttpExchange exchange) throws IOException {
+        try {
+            release.await();
+            StubServer.respond(exchange, 200, BODY);
+        } catch (InterruptedException ignored) {
+        } finally {
+            responded.countDown();
+        }
+    }
+
+    @Test
+    void okRunsOnSuccess() throws Exception {
+        try (StubServer server = new StubServer(exchange -> StubServer.respond(exchange, 200, BODY))) {
+            request(server).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, succeeded.get());
+        assertEquals(0, failed.get());
+        assertEquals("[\"items\"]", body.get());
+    }
+
+    @Test
+    void notFoundRunsOnFailure() throws Exception {
+        try (StubServer server = new StubServer(exchange -> StubServer.respond(exchange, 404, BODY))) {
+            request(server).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(0, succeeded.get());
+        assertEquals(1, failed.get());
+    }
+
+    @Test
+    void noHeadersRunsOnFailureOnce() throws Exception {
+        try (StubServer server = new StubServer(this::respondAfterRelease)) {
+            request(server).get(10, TimeUnit.SECONDS);
+            assertEquals(1, failed.get());
+
+            // a late answer doesn't get a second callback in
+            release.countDown();
+            responded.await(10, TimeUnit.SECONDS);
+            Thread.sleep(200);
+        }
+
+        assertEquals(0, succeeded.get());
+        assertEquals(1, failed.get());
+    }
+
+    @Test
+    void stalledBodyRunsOnFailureOnce() throws Exception {
+        try (StubServer server = new StubServer(exchange -> {
+            // the headers arrive in time, only the body runs into the deadline
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY, 0, 2);
+            exchange.getResponseBody().flush();
+            respondAfterRelease(exchange);
+        })) {
+            request(server).get(10, TimeUnit.SECONDS);
+            release.countDown();
+            responded.await(10, TimeUnit.SECONDS);
+            Thread.sleep(200);
+        }
+
+        assertEquals(0, succeeded.get());
+        assertEquals(1, failed.get());
+    }
+
+    @Test
+    void cancelledRunsNothing() throws Exception {
+        try (StubServer server = new StubServer(this::respondAfterRelease)) {
+            CompletableFuture<Void> handled = request(server);
+            while (server.requests.isEmpty()) Thread.sleep(10);
+            assertTrue(handled.cancel(true));
+
+            release.countDown();
+            responded.await(10, TimeUnit.SECONDS);
+            // well past the deadline too
+            Thread.sleep(TIMEOUT.toMillis() * 2);
+        }
+
+        assertEquals(0, succeeded.get());
+        assertEquals(0, failed.get());
+    }
+
+    @Test
+    void cancelledWhileQueuedRunsNothing() throws Exception {
+        // stands in for the render thread, which runs callbacks whenever it gets to them
+        ArrayDeque<Runnable> queued = new ArrayDeque<>();
+        CountDownLatch queuedOne = new CountDownLatch(1);
+
+        try (StubServer server = new StubServer(exchange -> StubServer.respond(exchange, 200, BODY))) {
+            CompletableFuture<Void> handled = request(server, task -> {
+                synchronized (queued) {
+                    queued.add(task);
+                }
+                queuedOne.countDown();
+            });
+            assertTrue(queuedOne.await(10, TimeUnit.SECONDS));
+            assertTrue(handled.cancel(true));
+
+            synchronized (queued) {
+                queued.forEach(Runnable::run);
+            }
+        }
+
+        assertEquals(0, succeeded.get());
+        assertEquals(0, failed.get());
+    }
+}